@@ -1,17 +1,20 @@
 package OneCoin.Server.admin;
 
 import OneCoin.Server.balance.repository.BalanceRepository;
+import OneCoin.Server.chat.entity.ChatRoom;
 import OneCoin.Server.chat.repository.ChatMessageRdbRepository;
 import OneCoin.Server.chat.repository.ChatMessageRepository;
 import OneCoin.Server.chat.repository.LastSavedRepository;
 import OneCoin.Server.chat.repository.UserInChatRoomRepository;
+import OneCoin.Server.chat.service.ChatRoomService;
 import OneCoin.Server.coin.entity.Coin;
 import OneCoin.Server.coin.repository.CoinRepository;
 import OneCoin.Server.deposit.repository.DepositRepository;
+import OneCoin.Server.order.repository.OrderIndexRepository;
 import OneCoin.Server.order.repository.OrderRepository;
 import OneCoin.Server.order.repository.TransactionHistoryRepository;
 import OneCoin.Server.order.repository.WalletRepository;
-import OneCoin.Server.rank.repository.RankRepository;
+import OneCoin.Server.rank.repository.RankAggregateRepository;
 import OneCoin.Server.swap.repository.SwapRepository;
 import OneCoin.Server.user.repository.AuthRepository;
 import OneCoin.Server.user.repository.UserRepository;
@@ -27,11 +30,13 @@ public class AdminController {
     private final ChatMessageRepository chatMessageRepository;
     private final LastSavedRepository lastSavedRepository;
     private final UserInChatRoomRepository userInChatRoomRepository;
+    private final ChatRoomService chatRoomService;
     private final DepositRepository depositRepository;
     private final OrderRepository orderRepository;
+    private final OrderIndexRepository orderIndexRepository;
     private final TransactionHistoryRepository transactionHistoryRepository;
     private final WalletRepository walletRepository;
-    private final RankRepository rankRepository;
+    private final RankAggregateRepository rankAggregateRepository;
     private final SwapRepository swapRepository;
     private final AuthRepository authRepository;
     private final UserRepository userRepository;
@@ -42,20 +47,21 @@ public class AdminController {
         balanceRepository.deleteAll();
         //채팅
         chatMessageRdbRepository.deleteAll();
-        chatMessageRepository.removeAllInChatRoom(1);
-        chatMessageRepository.removeAllInChatRoom(2);
-        lastSavedRepository.delete(1);
-        lastSavedRepository.delete(2);
-        userInChatRoomRepository.removeAllInChatRoom(1);
-        userInChatRoomRepository.removeAllInChatRoom(2);
+        for (ChatRoom chatRoom : chatRoomService.findAllChatRooms()) {
+            Integer chatRoomId = chatRoom.getChatRoomId();
+            chatMessageRepository.removeAllInChatRoom(chatRoomId);
+            lastSavedRepository.delete(chatRoomId);
+            userInChatRoomRepository.removeAllInChatRoom(chatRoomId);
+        }
         //입금
         depositRepository.deleteAll();
         //주문
         orderRepository.deleteAll();
+        orderIndexRepository.deleteAll();
         transactionHistoryRepository.deleteAll();
         walletRepository.deleteAll();
         //랭크
-        rankRepository.deleteAll();
+        rankAggregateRepository.deleteAll();
         //스왑
         swapRepository.deleteAll();
         //유저
@@ -70,7 +76,8 @@ public class AdminController {
 
     @DeleteMapping("/userInChatRoom")
     public void deleteUserInChatRoom(){
-        userInChatRoomRepository.removeAllInChatRoom(1);
-        userInChatRoomRepository.removeAllInChatRoom(2);
+        for (ChatRoom chatRoom : chatRoomService.findAllChatRooms()) {
+            userInChatRoomRepository.removeAllInChatRoom(chatRoom.getChatRoomId());
+        }
     }
 }
@@ -1,21 +1,46 @@
 package OneCoin.Server.batch.jobs;
 
-import OneCoin.Server.batch.tasklets.ChatMessageTasklet;
-import OneCoin.Server.chat.service.ChatService;
+import OneCoin.Server.batch.partitioners.ChatRoomPartitioner;
+import OneCoin.Server.batch.readers.ChatMessageItemReader;
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.repository.ChatMessageJdbcRepository;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import OneCoin.Server.chat.repository.LastSavedRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ *     채팅방별 partition 을 병렬로 실행한다.
+ *     각 partition 은 Redis 에서 CHUNK_SIZE 개씩 읽어 JDBC batch insert 하고, chunk 가 commit 되면 checkpoint 를 옮긴다.
+ *     job 은 날짜 parameter 로 실행해, 실패하면 같은 날짜로 다시 실행해 마지막으로 commit 된 chunk 다음부터 이어서 저장한다.
+ * </pre>
+ */
 @Configuration
 @RequiredArgsConstructor
 public class ChatMessageBatchConfig {
+    private final int CHUNK_SIZE = 500;
+    private final int MAX_CONCURRENT_PARTITIONS = 4;
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
-    private final ChatService chatService;
+    private final ChatRoomPartitioner chatRoomPartitioner;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageJdbcRepository chatMessageJdbcRepository;
+    private final LastSavedRepository lastSavedRepository;
 
     @Bean
     public Job saveChatMessageJob() {
@@ -26,8 +51,50 @@ public class ChatMessageBatchConfig {
 
     @Bean
     public Step saveChatMessageStep() {
+        SimpleAsyncTaskExecutor partitionExecutor = new SimpleAsyncTaskExecutor("ChatMessageBatch-");
+        partitionExecutor.setConcurrencyLimit(MAX_CONCURRENT_PARTITIONS);
         return stepBuilderFactory.get("saveChatMessageStep")
-                .tasklet(new ChatMessageTasklet(chatService))
+                .partitioner("saveChatRoomMessageStep", chatRoomPartitioner)
+                .step(saveChatRoomMessageStep())
+                .taskExecutor(partitionExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step saveChatRoomMessageStep() {
+        return stepBuilderFactory.get("saveChatRoomMessageStep")
+                .<ChatMessage, ChatMessage>chunk(CHUNK_SIZE)
+                .reader(chatMessageItemReader(null, null, null))
+                .writer(chatMessageItemWriter(null))
                 .build();
     }
+
+    @Bean
+    @StepScope
+    public ChatMessageItemReader chatMessageItemReader(
+            @Value("#{stepExecutionContext['" + ChatRoomPartitioner.CHAT_ROOM_ID + "']}") Integer chatRoomId,
+            @Value("#{stepExecutionContext['" + ChatRoomPartitioner.FROM_ID + "']}") Long fromId,
+            @Value("#{stepExecutionContext['" + ChatRoomPartitioner.TO_ID + "']}") Long toId) {
+        return new ChatMessageItemReader(chatMessageRepository, chatRoomId, fromId, toId, CHUNK_SIZE);
+    }
+
+    /**
+     * 이미 저장된 id 는 건너뛰므로 ChatMessageFlusher 와 같은 메시지를 저장해도 된다.
+     */
+    @Bean
+    @StepScope
+    public ItemWriter<ChatMessage> chatMessageItemWriter(
+            @Value("#{stepExecutionContext['" + ChatRoomPartitioner.CHAT_ROOM_ID + "']}") Integer chatRoomId) {
+        return items -> {
+            List<ChatMessage> messages = new ArrayList<>(items);
+            chatMessageJdbcRepository.insertAll(messages);
+            long lastSavedId = messages.get(messages.size() - 1).getChatMessageId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastSavedRepository.save(chatRoomId, lastSavedId);
+                }
+            });
+        };
+    }
 }
@@ -0,0 +1,32 @@
+package OneCoin.Server.batch.jobs;
+
+import OneCoin.Server.batch.tasklets.RankSnapshotTasklet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class RankSnapshotBatchConfig {
+    private final JobBuilderFactory jobBuilderFactory;
+    private final StepBuilderFactory stepBuilderFactory;
+    private final RankSnapshotTasklet rankSnapshotTasklet;
+
+    @Bean
+    public Job rankSnapshotJob() {
+        return jobBuilderFactory.get("rankSnapshotJob")
+                .start(rankSnapshotStep())
+                .build();
+    }
+
+    @Bean
+    public Step rankSnapshotStep() {
+        return stepBuilderFactory.get("rankSnapshotStep")
+                .tasklet(rankSnapshotTasklet)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package OneCoin.Server.batch.partitioners;
+
+import OneCoin.Server.chat.entity.ChatRoom;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import OneCoin.Server.chat.repository.LastSavedRepository;
+import OneCoin.Server.chat.service.ChatRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     채팅방마다 partition 하나
+ *     fromId : 채팅방의 checkpoint, toId : job 시작 시점에 마지막으로 발급된 id
+ *     toId 를 고정해 job 실행 중에 들어오는 메시지는 ChatMessageFlusher 에 맡긴다.
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatRoomPartitioner implements Partitioner {
+    public static final String CHAT_ROOM_ID = "chatRoomId";
+    public static final String FROM_ID = "fromId";
+    public static final String TO_ID = "toId";
+    private final ChatRoomService chatRoomService;
+    private final ChatMessageRepository chatMessageRepository;
+    private final LastSavedRepository lastSavedRepository;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        long toId = chatMessageRepository.findLastIssuedId();
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (ChatRoom chatRoom : chatRoomService.findAllChatRooms()) {
+            Integer chatRoomId = chatRoom.getChatRoomId();
+            Long lastSavedId = lastSavedRepository.get(chatRoomId);
+            ExecutionContext context = new ExecutionContext();
+            context.putInt(CHAT_ROOM_ID, chatRoomId);
+            context.putLong(FROM_ID, lastSavedId == null ? 0L : lastSavedId);
+            context.putLong(TO_ID, toId);
+            partitions.put("chatRoom" + chatRoomId, context);
+        }
+        return partitions;
+    }
+}
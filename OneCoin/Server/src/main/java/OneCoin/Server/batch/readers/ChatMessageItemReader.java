@@ -0,0 +1,64 @@
+package OneCoin.Server.batch.readers;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * <pre>
+ *     채팅방 ZSet 에서 (fromId, toId] 의 메시지를 pageSize 개씩 id 오름차순으로 읽는다.
+ *     마지막으로 넘긴 id 를 ExecutionContext 에 남겨, 실패한 job 을 다시 실행하면 마지막으로 commit 된 chunk 다음부터 읽는다.
+ * </pre>
+ */
+public class ChatMessageItemReader implements ItemStreamReader<ChatMessage> {
+    private static final String LAST_READ_ID = "lastReadId";
+    private final ChatMessageRepository chatMessageRepository;
+    private final Integer chatRoomId;
+    private final long toId;
+    private final int pageSize;
+    private final Deque<ChatMessage> buffer = new ArrayDeque<>();
+    private long lastReadId;
+    private boolean exhausted = false;
+
+    public ChatMessageItemReader(ChatMessageRepository chatMessageRepository, Integer chatRoomId, long fromId, long toId, int pageSize) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.chatRoomId = chatRoomId;
+        this.lastReadId = fromId;
+        this.toId = toId;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (executionContext.containsKey(LAST_READ_ID)) {
+            lastReadId = executionContext.getLong(LAST_READ_ID);
+        }
+    }
+
+    @Override
+    public ChatMessage read() {
+        if (buffer.isEmpty() && !exhausted) {
+            buffer.addAll(chatMessageRepository.findBetween(chatRoomId, lastReadId, toId, pageSize));
+            exhausted = buffer.size() < pageSize;
+        }
+        ChatMessage chatMessage = buffer.poll();
+        if (chatMessage != null) {
+            lastReadId = chatMessage.getChatMessageId();
+        }
+        return chatMessage;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(LAST_READ_ID, lastReadId);
+    }
+
+    @Override
+    public void close() {
+        buffer.clear();
+    }
+}
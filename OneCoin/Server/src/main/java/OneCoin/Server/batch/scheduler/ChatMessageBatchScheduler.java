@@ -1,34 +1,47 @@
 package OneCoin.Server.batch.scheduler;
 
-import lombok.RequiredArgsConstructor;
+import OneCoin.Server.utils.ScheduledJobRunner;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecutionException;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class ChatMessageBatchScheduler {
     private final Job job;
     private final JobLauncher jobLauncher;
+    private final ScheduledJobRunner scheduledJobRunner;
+
+    public ChatMessageBatchScheduler(@Qualifier("saveChatMessageJob") Job job, JobLauncher jobLauncher, ScheduledJobRunner scheduledJobRunner) {
+        this.job = job;
+        this.jobLauncher = jobLauncher;
+        this.scheduledJobRunner = scheduledJobRunner;
+    }
 
     @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.DAYS)
     public void executeJob() {
+        scheduledJobRunner.runOnLeader("chat-message-batch", ScheduledJobRunner.Pool.BATCH, Duration.ofMinutes(5), this::launchJob);
+    }
+
+    private void launchJob() {
         try {
             jobLauncher.run(
                     job,
                     new JobParametersBuilder()
-                            .addString("datetime", LocalDateTime.now().toString())
+                            .addString("date", LocalDate.now().toString()) // 같은 날짜로 다시 실행하면 실패한 지점부터 이어서 실행
                             .toJobParameters()
             );
         } catch (JobExecutionException ex) {
-            System.out.println(ex.getMessage());
-            ex.printStackTrace();
+            log.error("Chat message job failed", ex);
         }
     }
 
@@ -0,0 +1,49 @@
+package OneCoin.Server.batch.scheduler;
+
+import OneCoin.Server.utils.ScheduledJobRunner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+public class RankSnapshotBatchScheduler {
+    private final Job job;
+    private final JobLauncher jobLauncher;
+    private final ScheduledJobRunner scheduledJobRunner;
+
+    public RankSnapshotBatchScheduler(@Qualifier("rankSnapshotJob") Job job, JobLauncher jobLauncher, ScheduledJobRunner scheduledJobRunner) {
+        this.job = job;
+        this.jobLauncher = jobLauncher;
+        this.scheduledJobRunner = scheduledJobRunner;
+    }
+
+    /**
+     * 매일 00:05, 그날 날짜로 snapshot 을 남긴다. (같은 날짜는 한 번만 실행된다.)
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void executeJob() {
+        scheduledJobRunner.runOnLeader("rank-snapshot-batch", ScheduledJobRunner.Pool.BATCH, Duration.ofMinutes(10), this::launchJob);
+    }
+
+    private void launchJob() {
+        try {
+            jobLauncher.run(
+                    job,
+                    new JobParametersBuilder()
+                            .addString("snapshotDate", LocalDate.now().toString())
+                            .toJobParameters()
+            );
+        } catch (JobExecutionException ex) {
+            log.error("Rank snapshot job failed", ex);
+        }
+    }
+}
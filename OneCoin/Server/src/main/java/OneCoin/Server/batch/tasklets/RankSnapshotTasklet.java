@@ -1,6 +1,6 @@
 package OneCoin.Server.batch.tasklets;
 
-import OneCoin.Server.chat.service.ChatService;
+import OneCoin.Server.rank.service.RankSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.StepContribution;
@@ -9,15 +9,19 @@ import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class ChatMessageTasklet implements Tasklet {
-    private final ChatService chatService;
+public class RankSnapshotTasklet implements Tasklet {
+    private final RankSnapshotService rankSnapshotService;
+
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
-        chatService.saveInMemoryChatMessagesToRdb();
-        log.info("In-Memory ChatMessage saved to RDB");
+        LocalDate snapshotDate = LocalDate.parse((String) chunkContext.getStepContext().getJobParameters().get("snapshotDate"));
+        int count = rankSnapshotService.saveSnapshots(snapshotDate);
+        log.info("Rank snapshot of {} saved, users: {}", snapshotDate, count);
         return RepeatStatus.FINISHED;
     }
 }
@@ -4,11 +4,10 @@ import OneCoin.Server.chat.dto.ChatRequestDto;
 import OneCoin.Server.chat.dto.ChatResponseDto;
 import OneCoin.Server.chat.entity.ChatMessage;
 import OneCoin.Server.chat.mapper.ChatMapper;
+import OneCoin.Server.chat.service.ChatMessagePublisher;
 import OneCoin.Server.chat.service.ChatService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
@@ -19,8 +18,7 @@ import org.springframework.stereotype.Controller;
 public class ChatController {
     private final ChatService chatService;
     private final ChatMapper chatMapper;
-    private final RedisTemplate<Object, Object> redisTemplate;
-    private final ChannelTopic channelTopic;
+    private final ChatMessagePublisher chatMessagePublisher;
 
     @MessageMapping("/rooms")
     public void sendMessage(ChatRequestDto requestMessage, StompHeaderAccessor headerAccessor) {
@@ -28,7 +26,7 @@ public class ChatController {
         ChatMessage convertedChatMessage = chatMapper.requestDtoToChatMessage(requestMessage);
         ChatMessage chatMessage = chatService.setInfoAndSaveMessage(convertedChatMessage, headerAccessor.getUser());
         ChatResponseDto chatResponseDto = chatMapper.chatMessageToResponseDto(chatMessage);
-        redisTemplate.convertAndSend(channelTopic.getTopic(), chatResponseDto);
+        chatMessagePublisher.publish(chatResponseDto);
         log.info("[SEND] complete {}", headerAccessor.getSessionId());
     }
 }
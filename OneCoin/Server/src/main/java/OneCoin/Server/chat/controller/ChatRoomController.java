@@ -31,9 +31,13 @@ public class ChatRoomController {
         return new ResponseEntity<>(new SingleResponseDto<>(response), HttpStatus.CREATED);
     }
 
+    /**
+     * before : 이전 조회에서 받은 가장 작은 chatMessageId, 없으면 최근 메시지부터
+     */
     @GetMapping("/{room-id}/messages")
-    public ResponseEntity getMessagesInRoom(@PathVariable("room-id") Integer chatRoomId, @RequestParam String sessionId) {
-        List<ChatMessage> messages = chatService.getChatMessages(chatRoomId, sessionId);
+    public ResponseEntity getMessagesInRoom(@PathVariable("room-id") Integer chatRoomId,
+                                            @RequestParam(required = false) Long before) {
+        List<ChatMessage> messages = chatService.getChatMessages(chatRoomId, before);
         List<ChatResponseDto> responses = chatMapper.chatMessagesToResponseDtos(messages);
         return new ResponseEntity<>(new MultiResponseDto<>(responses), HttpStatus.CREATED);
     }
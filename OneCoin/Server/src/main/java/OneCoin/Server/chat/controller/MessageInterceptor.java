@@ -3,6 +3,8 @@ package OneCoin.Server.chat.controller;
 import OneCoin.Server.config.auth.utils.UserUtilsForWebSocket;
 import OneCoin.Server.exception.BusinessLogicException;
 import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.rateLimit.RateLimitPolicy;
+import OneCoin.Server.rateLimit.RateLimiter;
 import OneCoin.Server.user.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,11 +15,14 @@ import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 
+import java.util.Map;
+
 @Slf4j
 @RequiredArgsConstructor
 public class MessageInterceptor implements ChannelInterceptor {
     private final UserUtilsForWebSocket userUtilsForWebSocket;
     private final RegisterController registerController;
+    private final RateLimiter rateLimiter;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -34,6 +39,8 @@ public class MessageInterceptor implements ChannelInterceptor {
             User user = userUtilsForWebSocket.extractUser(accessor.getUser()); //비회원은 null을 반환
             registerController.registerUserAndSendEnterMessage(sessionId, chatRoomId, user);
             log.info("[SUBSCRIBE] complete {}", sessionId);
+        } else if (StompCommand.SEND.equals(command)) {
+            checkRateLimit(accessor);
         } else if (StompCommand.UNSUBSCRIBE.equals(command)) {
             log.info("[UNSUBSCRIBE] start {}", sessionId);
             registerController.unregisterUserAndSendLeaveMessage(sessionId);
@@ -47,6 +54,18 @@ public class MessageInterceptor implements ChannelInterceptor {
     }
 
 
+    // 제한을 넘으면 예외가 발생하고 클라이언트에게 ERROR frame 이 전송된다.
+    private void checkRateLimit(StompHeaderAccessor accessor) {
+        Map<String, Object> claims = userUtilsForWebSocket.extractClaims(accessor.getUser());
+        if (claims == null || claims.get("id") == null) {
+            return;
+        }
+        long userId = ((Number) claims.get("id")).longValue();
+        if (!rateLimiter.tryConsume(RateLimitPolicy.CHAT, userId).isAllowed()) {
+            throw new BusinessLogicException(ExceptionCode.RATE_LIMIT_EXCEEDED);
+        }
+    }
+
     private Integer parseRoomIdFromHeader(StompHeaderAccessor accessor) {
         try {
             String destination = accessor.getDestination();
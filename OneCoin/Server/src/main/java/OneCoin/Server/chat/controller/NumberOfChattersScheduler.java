@@ -1,23 +1,49 @@
 package OneCoin.Server.chat.controller;
 
 import OneCoin.Server.chat.entity.ChatRoom;
-import OneCoin.Server.chat.service.ChatRoomService;
+import OneCoin.Server.chat.service.ChatPresenceService;
+import OneCoin.Server.utils.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
+import java.time.Duration;
 import java.util.List;
 
+/**
+ * <pre>
+ *     채팅방 접속자 수가 바뀌었을 때만 /topic/rooms-info 로 보낸다.
+ *     push 주기 안에서 여러 번 바뀐 값은 한 번으로 합쳐진다.
+ * </pre>
+ */
 @Component
 @RequiredArgsConstructor
 public class NumberOfChattersScheduler {
+    private final String ROOMS_INFO_DESTINATION = "/topic/rooms-info";
     private final SimpMessagingTemplate messagingTemplate;
-    private final ChatRoomService chatRoomService;
+    private final ChatPresenceService chatPresenceService;
+    private final ScheduledJobRunner scheduledJobRunner;
 
-    @Scheduled(fixedDelay = 1000)
+    @Scheduled(fixedDelayString = "${chat.presence.push-interval-millis:500}")
     public void sendNumberOfChatters() {
-        List<ChatRoom> rooms = chatRoomService.findAllChatRooms();
-        messagingTemplate.convertAndSend("/topic/rooms-info", rooms);
+        scheduledJobRunner.run("chatters-push", ScheduledJobRunner.Pool.REALTIME, Duration.ofMillis(500), this::sendRoomsInfo);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (ROOMS_INFO_DESTINATION.equals(accessor.getDestination())) {
+            chatPresenceService.markChanged();
+        }
+    }
+
+    private void sendRoomsInfo() {
+        if (!chatPresenceService.pollChanged()) return;
+        List<ChatRoom> rooms = chatPresenceService.findAllChatRooms();
+        messagingTemplate.convertAndSend(ROOMS_INFO_DESTINATION, rooms);
     }
 }
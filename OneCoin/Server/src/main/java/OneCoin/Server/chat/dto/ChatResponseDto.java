@@ -10,6 +10,7 @@ import lombok.*;
 @Builder
 @NoArgsConstructor
 public class ChatResponseDto {
+    private Long chatMessageId;
     private MessageType type;
     private long chatRoomId;
     private String userDisplayName;
@@ -0,0 +1,108 @@
+package OneCoin.Server.chat.listener;
+
+import OneCoin.Server.chat.repository.RecentChatMessageCache;
+import OneCoin.Server.chat.utils.ChatRoomUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     이 서버의 STOMP 구독 현황에 따라 채팅방 Redis channel 을 구독한다.
+ *     채팅방의 첫 구독자가 생기면 channel 을 구독하고, 마지막 구독자가 나가면 구독을 해제한다.
+ *     구독자가 없는 채팅방의 메시지는 이 서버로 오지 않는다.
+ *     구독하는 동안만 RecentChatMessageCache 에 채팅방의 최근 메시지를 모은다.
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatRoomSubscriptionRegistry {
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final RedisListener redisListener;
+    private final ChatRoomUtils chatRoomUtils;
+    private final RecentChatMessageCache recentChatMessageCache;
+    // sessionId -> (subscriptionId -> chatRoomId)
+    private final Map<String, Map<String, Integer>> subscriptions = new HashMap<>();
+    // chatRoomId -> 이 서버의 구독 수
+    private final Map<Integer, Integer> subscriberCounts = new HashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Integer chatRoomId = chatRoomUtils.parseChatRoomIdFromDestination(accessor.getDestination());
+        if (chatRoomId == null) return;
+        subscribe(accessor.getSessionId(), accessor.getSubscriptionId(), chatRoomId);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        unsubscribeAll(event.getSessionId());
+    }
+
+    public synchronized int countSubscribers(Integer chatRoomId) {
+        return subscriberCounts.getOrDefault(chatRoomId, 0);
+    }
+
+    synchronized void subscribe(String sessionId, String subscriptionId, Integer chatRoomId) {
+        Integer previous = subscriptions.computeIfAbsent(sessionId, key -> new HashMap<>()).put(subscriptionId, chatRoomId);
+        if (previous != null) {
+            release(previous);
+        }
+        int count = subscriberCounts.merge(chatRoomId, 1, Integer::sum);
+        if (count == 1) {
+            recentChatMessageCache.track(chatRoomId);
+            redisMessageListenerContainer.addMessageListener(redisListener, topicOf(chatRoomId));
+            log.info("[CHAT] subscribed to chat room {}", chatRoomId);
+        }
+    }
+
+    synchronized void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, Integer> sessionSubscriptions = subscriptions.get(sessionId);
+        if (sessionSubscriptions == null) return;
+        Integer chatRoomId = sessionSubscriptions.remove(subscriptionId);
+        if (sessionSubscriptions.isEmpty()) {
+            subscriptions.remove(sessionId);
+        }
+        if (chatRoomId != null) {
+            release(chatRoomId);
+        }
+    }
+
+    synchronized void unsubscribeAll(String sessionId) {
+        Map<String, Integer> sessionSubscriptions = subscriptions.remove(sessionId);
+        if (sessionSubscriptions == null) return;
+        for (Integer chatRoomId : sessionSubscriptions.values()) {
+            release(chatRoomId);
+        }
+    }
+
+    private void release(Integer chatRoomId) {
+        Integer count = subscriberCounts.computeIfPresent(chatRoomId, (key, value) -> value == 1 ? null : value - 1);
+        if (count == null) {
+            redisMessageListenerContainer.removeMessageListener(redisListener, topicOf(chatRoomId));
+            recentChatMessageCache.evict(chatRoomId);
+            log.info("[CHAT] unsubscribed from chat room {}", chatRoomId);
+        }
+    }
+
+    private ChannelTopic topicOf(Integer chatRoomId) {
+        return new ChannelTopic(chatRoomUtils.makeChannel(chatRoomId));
+    }
+}
@@ -1,31 +1,63 @@
 package OneCoin.Server.chat.listener;
 
 
-import OneCoin.Server.chat.dto.ChatResponseDto;
-import OneCoin.Server.exception.BusinessLogicException;
-import OneCoin.Server.exception.ExceptionCode;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import OneCoin.Server.chat.repository.RecentChatMessageCache;
+import OneCoin.Server.chat.utils.ChatRoomUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ *     채팅방 channel 로 발행된 메시지를 그 채팅방 구독자에게 전달한다.
+ *     "{chatMessageId}:{JSON}" 에서 JSON 을 객체로 바꾸지 않고 그대로 보낸 뒤, id 가 있으면 JSON 그대로 최근 메시지 버퍼에 넣는다.
+ * </pre>
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Component
-public class RedisListener {
-    private final ObjectMapper objectMapper;
+public class RedisListener implements MessageListener {
     private final SimpMessagingTemplate messagingTemplate;
+    private final ChatRoomUtils chatRoomUtils;
+    private final RecentChatMessageCache recentChatMessageCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Integer chatRoomId = chatRoomUtils.parseChatRoomIdFromChannel(new String(message.getChannel(), StandardCharsets.UTF_8));
+        log.debug("[LISTENER] {}", chatRoomId);
+        byte[] body = message.getBody();
+        int separator = indexOfSeparator(body);
+        byte[] json = Arrays.copyOfRange(body, separator + 1, body.length);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(chatRoomUtils.makeDestination(chatRoomId),
+                MessageBuilder.createMessage(json, accessor.getMessageHeaders()));
+        if (separator > 0) {
+            long chatMessageId = Long.parseLong(new String(body, 0, separator, StandardCharsets.UTF_8));
+            recentChatMessageCache.addPublished(chatRoomId, chatMessageId, json);
+        }
+    }
 
-    public void sendMessage(String publishedMessage) {
-        try {
-            //스트링 -> 객체로 매핑
-            ChatResponseDto chatResponseDto = objectMapper.readValue(publishedMessage, ChatResponseDto.class);
-            log.info("[LISTENER] {}", chatResponseDto.getChatRoomId());
-            messagingTemplate.convertAndSend("/topic/rooms/" + chatResponseDto.getChatRoomId(), chatResponseDto);
-        } catch (JsonProcessingException e) {
-            throw new BusinessLogicException(ExceptionCode.FAIL_TO_SERIALIZE);
+    /**
+     * id 구분자가 없거나 이전 서버가 발행한 JSON 만 있는 메시지는 -1 을 돌려 전체를 JSON 으로 보낸다.
+     */
+    private int indexOfSeparator(byte[] body) {
+        if (body.length > 0 && body[0] == '{') return -1;
+        for (int i = 0; i < body.length; i++) {
+            if (body[i] == ':') {
+                return i;
+            }
         }
+        return -1;
     }
 }
@@ -15,4 +15,6 @@ public interface ChatMapper {
 
     List<ChatResponseDto> chatMessagesToResponseDtos(List<ChatMessage> chatMessage);
 
+    ChatMessage responseDtoToChatMessage(ChatResponseDto chatResponseDto);
+
 }
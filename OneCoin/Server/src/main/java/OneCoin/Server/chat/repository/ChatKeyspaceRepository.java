@@ -0,0 +1,65 @@
+package OneCoin.Server.chat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ *     채팅 key 를 KEYS 없이 SCAN 으로 순회하고, MEMORY USAGE 로 key 가 차지하는 메모리를 잰다.
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatKeyspaceRepository {
+    private final String MEMORY = "MEMORY";
+    private final byte[] USAGE = "USAGE".getBytes(StandardCharsets.UTF_8);
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * pattern 에 맞는 key 를 batchSize 개씩 나눠 전달한다.
+     */
+    public void scan(String pattern, int batchSize, Consumer<List<String>> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        List<String> keys = new ArrayList<>();
+        try (Cursor<byte[]> cursor = stringRedisTemplate.executeWithStickyConnection(connection -> connection.keyCommands().scan(options))) {
+            while (cursor != null && cursor.hasNext()) {
+                keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                if (keys.size() == batchSize) {
+                    consumer.accept(keys);
+                    keys = new ArrayList<>();
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            consumer.accept(keys);
+        }
+    }
+
+    /**
+     * keys 가 차지하는 메모리(byte) 합, 한 번의 pipeline 으로 잰다.
+     */
+    public long memoryUsage(List<String> keys) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.execute(MEMORY, USAGE, key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        long bytes = 0;
+        for (Object result : results) {
+            if (result instanceof Number) {
+                bytes += ((Number) result).longValue();
+            }
+        }
+        return bytes;
+    }
+}
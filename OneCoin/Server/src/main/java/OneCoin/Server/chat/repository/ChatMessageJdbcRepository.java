@@ -0,0 +1,54 @@
+package OneCoin.Server.chat.repository;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ *     chatMessageId 를 Redis 에서 발급하므로 JPA saveAll 은 메시지마다 SELECT 후 INSERT 한다.
+ *     JDBC batch insert 로 한 번에 저장한다.
+ *     여러 서버, batch job 이 같은 메시지를 동시에 저장할 수 있으므로 이미 있는 id 는 ON DUPLICATE KEY 로 건너뛴다.
+ *     (미리 SELECT 해서 거르면 그 사이에 다른 쪽이 저장해 DuplicateKeyException 이 날 수 있다)
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageJdbcRepository {
+    private final String INSERT_SQL = "INSERT INTO chat_message " +
+            "(chat_message_id, type, message, chat_at, user_id, chat_room_id, user_display_name) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE chat_message_id = chat_message_id"; // 같은 값으로 update 하면 affected rows 가 0
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * id 오름차순 메시지를 저장한다. 이미 저장된 id 는 건너뛴다. (checkpoint 저장 전에 실패한 경우 다시 저장될 수 있다)
+     * @return 새로 저장한 메시지 수
+     */
+    @Transactional
+    public int insertAll(List<ChatMessage> messages) {
+        if (messages.isEmpty()) return 0;
+        List<Object[]> rows = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            rows.add(new Object[]{
+                    message.getChatMessageId(),
+                    message.getType() == null ? null : message.getType().ordinal(),
+                    message.getMessage(),
+                    message.getChatAt(),
+                    message.getUserId(),
+                    message.getChatRoomId(),
+                    message.getUserDisplayName()
+            });
+        }
+        int inserted = 0;
+        for (int affected : jdbcTemplate.batchUpdate(INSERT_SQL, rows)) {
+            if (affected > 0 || affected == Statement.SUCCESS_NO_INFO) inserted++;
+        }
+        return inserted;
+    }
+}
@@ -1,16 +1,19 @@
 package OneCoin.Server.chat.repository;
 
 import OneCoin.Server.chat.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface ChatMessageRdbRepository extends JpaRepository<ChatMessage, String> {
+public interface ChatMessageRdbRepository extends JpaRepository<ChatMessage, Long> {
     List<ChatMessage> findAllByChatRoomId(Integer chatRoomId);
 
-    Optional<ChatMessage> findByMessageAndChatAtAndUserId(String message, String chatAt, Long userId);
-    List<ChatMessage> findTop30ByChatRoomIdAndChatMessageIdLessThanEqualOrderByChatMessageIdDesc(Integer chatRoomId, Long chatMessageId);
+    List<ChatMessage> findByChatRoomIdAndChatMessageIdLessThanOrderByChatMessageIdDesc(Integer chatRoomId, Long chatMessageId, Pageable pageable);
+
+    @Query("SELECT MAX(c.chatMessageId) FROM ChatMessage c")
+    Long findMaxChatMessageId();
 }
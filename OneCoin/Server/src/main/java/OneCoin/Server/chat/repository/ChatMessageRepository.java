@@ -1,105 +1,230 @@
 package OneCoin.Server.chat.repository;
 
 import OneCoin.Server.chat.entity.ChatMessage;
-import OneCoin.Server.exception.BusinessLogicException;
-import OneCoin.Server.exception.ExceptionCode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import OneCoin.Server.chat.utils.ChatMessageCodec;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     chat-messages:{chatRoomId}  (ZSet) score : chatMessageId, member : ChatMessageCodec 의 binary (이전 JSON 도 읽는다)
+ *     chat-message:id                    모든 채팅방이 함께 쓰는 chatMessageId 발급용 INCR, RDB 의 PK 로도 사용한다.
+ *                                        key 가 사라졌으면(eviction, 초기화 등) 발급 Lua 안에서 이 서버가 아는 마지막 id(RDB 최대 id, 이 서버가 발급한 id),
+ *                                        chat-message:id-at 의 마지막 기록, 저장할 채팅방의 마지막 id 중 큰 값으로 다시 채운 뒤 INCR 한다.
+ *     chat-message:id-at          (ZSet) score : 기록한 시각(epoch millis), member : 그 시각까지 발급된 마지막 chatMessageId
+ *                                        시간 기준 보관 정책을 id 범위로 바꿀 때 사용한다.
+ *     같은 밀리초에 보낸 메시지도 id 로 구분되어 순서가 유지된다.
+ *     id 발급과 ZADD 는 한 Lua 에서 실행하므로, 채팅방 ZSet 에는 발급 순서대로만 메시지가 보인다.
+ *     (작은 id 가 flush checkpoint 를 지난 뒤에 저장되어 RDB 저장 없이 지워지는 일이 없다.)
+ * </pre>
+ */
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class ChatMessageRepository {
     @Getter
     private final Long NUMBER_OF_CHATS_TO_SHOW = 30L;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
-    private final int MAX_CHAT_ROOM = 2;
+    private final String KEY_PREFIX = "chat-messages:";
+    private final String ID_KEY = "chat-message:id";
+    private final String ID_AT_KEY = "chat-message:id-at";
+    private static final RedisScript<Long> TRIM_SCRIPT = new DefaultRedisScript<>(
+            "local cutoff = tonumber(ARGV[2]) " +
+            "local excess = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[1]) " +
+            "if excess > 0 then " +
+            "  local edge = redis.call('ZRANGE', KEYS[1], excess - 1, excess - 1, 'WITHSCORES') " +
+            "  cutoff = math.max(cutoff, tonumber(edge[2])) " +
+            "end " +
+            "cutoff = math.min(cutoff, tonumber(ARGV[3])) " +
+            "if cutoff <= 0 then return 0 end " +
+            "return redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', cutoff)", Long.class);
+    // KEYS : id, id-at, 채팅방 / ARGV : 이 서버가 아는 마지막 id, id 없이 encode 한 메시지, ID_TAG, HEADER_LENGTH, TTL(초)
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+            "  local seed = tonumber(ARGV[1]) " +
+            "  local recorded = redis.call('ZREVRANGE', KEYS[2], 0, 0) " +
+            "  if recorded[1] then seed = math.max(seed, tonumber(recorded[1])) end " +
+            "  local top = redis.call('ZREVRANGE', KEYS[3], 0, 0, 'WITHSCORES') " +
+            "  if top[2] then seed = math.max(seed, tonumber(top[2])) end " +
+            "  redis.call('SET', KEYS[1], string.format('%d', seed)) " +
+            "end " +
+            "local id = redis.call('INCR', KEYS[1]) " +
+            "local varint = '' " +
+            "local n = id " +
+            "repeat " +
+            "  local b = n % 128 " +
+            "  n = (n - b) / 128 " +
+            "  if n > 0 then b = b + 128 end " +
+            "  varint = varint .. string.char(b) " +
+            "until n == 0 " +
+            "local header = tonumber(ARGV[4]) " +
+            "local member = string.sub(ARGV[2], 1, header) .. string.char(tonumber(ARGV[3])) .. varint .. string.sub(ARGV[2], header + 1) " +
+            "redis.call('ZADD', KEYS[3], id, member) " +
+            "redis.call('EXPIRE', KEYS[3], ARGV[5]) " +
+            "return id", Long.class);
+    private final RedisTemplate<String, byte[]> chatMessageRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatMessageCodec chatMessageCodec;
+    private final RecentChatMessageCache recentChatMessageCache;
     private final int TTL_IN_DAYS = 2;
-    // key-value : <chatRoomKey, ChatMessage>
-    private ZSetOperations<String, Object> operations;
+    private final AtomicLong idFloor = new AtomicLong(); // 이 서버가 아는 마지막 chatMessageId
+    // key-value : <chatRoomKey, ChatMessageCodec 으로 encode 한 ChatMessage>
+    private ZSetOperations<String, byte[]> operations;
 
     @PostConstruct
     private void init() {
-        operations = redisTemplate.opsForZSet();
-        for (int chatRoomId = 1; chatRoomId <= MAX_CHAT_ROOM; chatRoomId++) {
-            redisTemplate.expire(getKey(chatRoomId), TTL_IN_DAYS, TimeUnit.DAYS);
-        }
+        operations = chatMessageRedisTemplate.opsForZSet();
     }
 
+    /**
+     * chatMessageId 가 없으면 저장하면서 새로 발급해 채운다. 채팅방 key 는 마지막 메시지부터 TTL_IN_DAYS 동안 유지된다.
+     */
     public void save(ChatMessage chatMessage) {
         String key = getKey(chatMessage.getChatRoomId());
-        operations.add(key, chatMessage, System.currentTimeMillis());
+        if (chatMessage.getChatMessageId() == null) {
+            Long id = chatMessageRedisTemplate.execute(SAVE_SCRIPT, List.of(ID_KEY, ID_AT_KEY, key),
+                    toBytes(idFloor.get()), chatMessageCodec.encodeWithoutId(chatMessage),
+                    toBytes(ChatMessageCodec.ID_TAG), toBytes(ChatMessageCodec.HEADER_LENGTH),
+                    toBytes(TimeUnit.DAYS.toSeconds(TTL_IN_DAYS)));
+            idFloor.accumulateAndGet(id, Math::max);
+            chatMessage.setChatMessageId(id);
+        } else {
+            operations.add(key, chatMessageCodec.encode(chatMessage), chatMessage.getChatMessageId());
+            chatMessageRedisTemplate.expire(key, TTL_IN_DAYS, TimeUnit.DAYS);
+        }
+        recentChatMessageCache.add(chatMessage);
     }
 
-    public void removeAllInChatRoom(Integer chatRoomId) {
-        redisTemplate.delete(getKey(chatRoomId));
+    private byte[] toBytes(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
     }
 
-    public List<ChatMessage> getMessagesFromRoomByScore(Integer chatRoomId, double scoreOfLastChat, double recentScore) {
-        String key = getKey(chatRoomId);
-        Set<Object> result = operations.reverseRangeByScore(key, scoreOfLastChat, recentScore);
-        return objectToList(result);
+    /**
+     * 마지막으로 발급한 chatMessageId, 발급한 적이 없으면 0
+     */
+    public long findLastIssuedId() {
+        String lastId = stringRedisTemplate.opsForValue().get(ID_KEY);
+        return lastId == null ? 0L : Long.parseLong(lastId);
     }
 
-    public Double getScoreOfLastChatWithLimitN(Integer chatRoomId, double recentScore) {
-        String key = getKey(chatRoomId);
-        Set<ZSetOperations.TypedTuple<Object>> scores = operations.reverseRangeByScoreWithScores(
-                key, Double.MIN_VALUE, recentScore, 0L, NUMBER_OF_CHATS_TO_SHOW);
-        if (scores.size() == 0) return null;
-        return scores.stream().skip(scores.size() - 1).findFirst().get().getScore();
+    /**
+     * id 발급 key 가 없을 때(Redis 초기화 등) RDB 에 저장된 마지막 id 부터 이어서 발급하도록 한다.
+     */
+    public void initIdIfAbsent(long lastChatMessageId) {
+        idFloor.accumulateAndGet(lastChatMessageId, Math::max);
+        stringRedisTemplate.opsForValue().setIfAbsent(ID_KEY, String.valueOf(lastChatMessageId));
     }
 
-    public List<ChatMessage> findAll(Integer chatRoomId) {
-        Object results = operations.reverseRange(getKey(chatRoomId), 0, -1);
-        return objectToList(results);
+    /**
+     * <pre>
+     *     maxCount 개를 넘는 오래된 메시지와 id 가 ageCutoffId 이하인 메시지를 지운다.
+     *     RDB 에 저장되지 않은 메시지(savedId 초과)는 정책을 넘어도 남긴다.
+     * </pre>
+     * @return 지운 메시지 수
+     */
+    public long trim(Integer chatRoomId, long maxCount, long ageCutoffId, long savedId) {
+        Long removed = stringRedisTemplate.execute(TRIM_SCRIPT, List.of(getKey(chatRoomId)),
+                String.valueOf(maxCount), String.valueOf(ageCutoffId), String.valueOf(savedId));
+        return removed == null ? 0L : removed;
     }
 
-    public List<ChatMessage> findAllInAscOrder(Integer chatRoomId) {
-        Object results = operations.range(getKey(chatRoomId), 0, -1);
-        return objectToList(results);
+    /**
+     * 지금까지 발급된 마지막 id 를 기록 시각과 함께 남기고, keepAfterMillis 이전 기록은 지운다.
+     */
+    public void recordIssuedId(long epochMillis, long keepAfterMillis) {
+        ZSetOperations<String, String> watermarks = stringRedisTemplate.opsForZSet();
+        watermarks.addIfAbsent(ID_AT_KEY, String.valueOf(findLastIssuedId()), epochMillis);
+        watermarks.removeRangeByScore(ID_AT_KEY, 0, keepAfterMillis - 1);
     }
 
-    private String getKey(Integer chatRoomId) {
-        return "ChatRoom" + String.valueOf(chatRoomId) + "Message";
+    /**
+     * epochMillis 이전에 발급이 끝난 마지막 id, 기록이 없으면 0
+     */
+    public long findIdIssuedBefore(long epochMillis) {
+        Set<String> ids = stringRedisTemplate.opsForZSet().reverseRangeByScore(ID_AT_KEY, 0, epochMillis, 0, 1);
+        if (ids == null || ids.isEmpty()) return 0L;
+        return Long.parseLong(ids.iterator().next());
     }
 
-    private List<ChatMessage> objectToList(Object obj) {
-        if (obj == null) return null;
-        return Arrays.asList(objectMapper.convertValue(obj, ChatMessage[].class));
+    /**
+     * 채팅방 key 의 가장 큰 id, 메시지가 없으면 0
+     */
+    public long findLastId(Integer chatRoomId) {
+        Set<ZSetOperations.TypedTuple<byte[]>> last = operations.reverseRangeWithScores(getKey(chatRoomId), 0, 0);
+        if (last == null || last.isEmpty()) return 0L;
+        return last.iterator().next().getScore().longValue();
     }
 
-    public List<ChatMessage> findByScoreInAcsOrder(Integer chatRoomId, double from, double to) {
-        String key = getKey(chatRoomId);
-        Object result =  operations.rangeByScore(key, from + 1, to);
-        return  objectToList(result);
+    public Integer parseChatRoomId(String key) {
+        return Integer.parseInt(key.substring(KEY_PREFIX.length()));
     }
 
-    public Double getScoreOfLatestChat(Integer chatRoomId, double from) {
-        String key = getKey(chatRoomId);
-        Set<ZSetOperations.TypedTuple<Object>> scores = operations.reverseRangeByScoreWithScores(
-                key, from, Double.MAX_VALUE);
-        if (scores == null || scores.size() == 0) {
-            log.info(ExceptionCode.NO_CHAT_IN_CACHE_EXIST.getDescription());
-            return null;
-        }
-        return scores.stream().findFirst().get().getScore();
+    public String getKeyPattern() {
+        return KEY_PREFIX + "*";
+    }
+
+    public void removeAllInChatRoom(Integer chatRoomId) {
+        chatMessageRedisTemplate.delete(getKey(chatRoomId));
+        recentChatMessageCache.clear(chatRoomId);
+    }
+
+    /**
+     * beforeId 보다 작은 id 의 메시지를 id 내림차순으로 count 개
+     */
+    public List<ChatMessage> findBefore(Integer chatRoomId, long beforeId, long count) {
+        return decodeAll(operations.reverseRangeByScore(getKey(chatRoomId), 0, beforeId - 1, 0, count));
     }
 
-    public List<ChatMessage> getWithScore(Integer chatRoomid, double score) {
-        Object result = operations.rangeByScore(getKey(chatRoomid), score, score);
-        return objectToList(result);
+    /**
+     * afterId 보다 큰 id 의 메시지를 id 오름차순으로 count 개
+     */
+    public List<ChatMessage> findAfter(Integer chatRoomId, long afterId, long count) {
+        return findBetween(chatRoomId, afterId, Long.MAX_VALUE, count);
     }
 
+    /**
+     * afterId 보다 크고 toId 이하인 메시지를 id 오름차순으로 count 개
+     */
+    public List<ChatMessage> findBetween(Integer chatRoomId, long afterId, long toId, long count) {
+        return decodeAll(operations.rangeByScore(getKey(chatRoomId), afterId + 1, toId, 0, count));
+    }
+
+    /**
+     * id 가 fromId 이상 toId 이하인 메시지 수
+     */
+    public long count(Integer chatRoomId, long fromId, long toId) {
+        Long count = operations.count(getKey(chatRoomId), fromId, toId);
+        return count == null ? 0L : count;
+    }
+
+    public List<ChatMessage> findAll(Integer chatRoomId) {
+        return decodeAll(operations.reverseRange(getKey(chatRoomId), 0, -1));
+    }
+
+    private String getKey(Integer chatRoomId) {
+        return KEY_PREFIX + chatRoomId;
+    }
+
+    private List<ChatMessage> decodeAll(Set<byte[]> values) {
+        if (values == null) return List.of();
+        List<ChatMessage> chatMessages = new ArrayList<>(values.size());
+        for (byte[] value : values) {
+            chatMessages.add(chatMessageCodec.decode(value));
+        }
+        return chatMessages;
+    }
 }
@@ -0,0 +1,79 @@
+package OneCoin.Server.chat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     chat-presence  (Hash) 채팅방 id : 접속 세션 수
+ *     입장, 퇴장할 때 HINCRBY 로만 바꾸므로 여러 서버에서 동시에 바꿔도 어긋나지 않는다.
+ *     세션 Hash 크기와 맞출 때는 Lua 안에서 값을 다시 읽고, 이전에 본 값에서 바뀌지 않았을 때만 덮어쓴다. (compare-and-set)
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatPresenceRepository {
+    private final String KEY = "chat-presence";
+    // KEYS : chat-presence, 채팅방 세션 Hash / ARGV : 채팅방 id, 이전에 본 접속자 수, 이전에 본 Hash 크기
+    private static final RedisScript<List> RECONCILE_SCRIPT = new DefaultRedisScript<>(
+            "local saved = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0') " +
+            "local actual = redis.call('HLEN', KEYS[2]) " +
+            "if saved ~= actual and saved == tonumber(ARGV[2]) and actual == tonumber(ARGV[3]) then " +
+            "  redis.call('HSET', KEYS[1], ARGV[1], actual) " +
+            "  return {1, actual, actual} " +
+            "end " +
+            "return {0, saved, actual}", List.class);
+    private final StringRedisTemplate stringRedisTemplate;
+    private HashOperations<String, String, String> hashOperations;
+
+    @PostConstruct
+    private void init() {
+        hashOperations = stringRedisTemplate.opsForHash();
+    }
+
+    /**
+     * @return 바뀐 뒤의 접속 세션 수
+     */
+    public long increment(Integer chatRoomId, long delta) {
+        Long count = hashOperations.increment(KEY, String.valueOf(chatRoomId), delta);
+        return count == null ? 0 : count;
+    }
+
+    public void save(Integer chatRoomId, long count) {
+        hashOperations.put(KEY, String.valueOf(chatRoomId), String.valueOf(count));
+    }
+
+    /**
+     * <pre>
+     *     접속자 수와 세션 Hash 크기가 모두 이전에 본 값 그대로이고 서로 다를 때만 접속자 수를 Hash 크기로 바꾼다.
+     *     그 사이에 HINCRBY 나 세션 변경이 있었으면 쓰지 않는다.
+     * </pre>
+     * @return [바꿨으면 1, 접속자 수, Hash 크기]
+     */
+    public long[] reconcile(Integer chatRoomId, String chatRoomKey, long expectedSaved, long expectedActual) {
+        List<?> result = stringRedisTemplate.execute(RECONCILE_SCRIPT, List.of(KEY, chatRoomKey),
+                String.valueOf(chatRoomId), String.valueOf(expectedSaved), String.valueOf(expectedActual));
+        return new long[]{(Long) result.get(0), (Long) result.get(1), (Long) result.get(2)};
+    }
+
+    public Map<Integer, Long> findAll() {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Map.Entry<String, String> entry : hashOperations.entries(KEY).entrySet()) {
+            counts.put(Integer.parseInt(entry.getKey()), Long.parseLong(entry.getValue()));
+        }
+        return counts;
+    }
+
+    public void delete(Integer chatRoomId) {
+        hashOperations.delete(KEY, String.valueOf(chatRoomId));
+    }
+}
@@ -2,32 +2,74 @@ package OneCoin.Server.chat.repository;
 
 import OneCoin.Server.chat.utils.ChatRoomUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
 
+/**
+ * <pre>
+ *     채팅방별로 RDB 에 마지막으로 저장한 chatMessageId (checkpoint)
+ *     ChatMessageFlusher 와 채팅 batch job 이 함께 옮기므로 더 큰 id 로만 갱신한다.
+ *     chat-flush-lease:{chatRoomId} : 채팅방을 flush 중인 서버의 token (SET NX PX), 서버 구성이 바뀌는 동안 두 서버가 같은 채팅방을 flush 하지 않도록 한다.
+ * </pre>
+ */
 @RequiredArgsConstructor
 @Repository
 public class LastSavedRepository {
-    private final RedisTemplate<String, String> redisTemplate;
+    private static final RedisScript<Long> SAVE_IF_GREATER_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if current == false or tonumber(current) < tonumber(ARGV[1]) then " +
+            "  redis.call('SET', KEYS[1], ARGV[1]) " +
+            "  return 1 " +
+            "end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0", Long.class);
+    private final String LEASE_KEY_PREFIX = "chat-flush-lease:";
+    private final StringRedisTemplate stringRedisTemplate;
     private final ChatRoomUtils chatRoomUtils;
     private ValueOperations<String, String> operations;
 
     @PostConstruct
     private void init() {
-        operations = redisTemplate.opsForValue();
+        operations = stringRedisTemplate.opsForValue();
     }
 
-    public void save(Integer chatRoomId, String score) {
-        operations.set(chatRoomUtils.makeLastChatMessageKey(chatRoomId), score);
+    public void save(Integer chatRoomId, long lastSavedChatMessageId) {
+        stringRedisTemplate.execute(SAVE_IF_GREATER_SCRIPT,
+                List.of(chatRoomUtils.makeLastChatMessageKey(chatRoomId)), String.valueOf(lastSavedChatMessageId));
     }
 
-    public String get(Integer chatRoomId) {
+    /**
+     * RDB 에 마지막으로 저장한 chatMessageId, 저장한 적이 없으면 null
+     */
+    public Long get(Integer chatRoomId) {
         String result = operations.get(chatRoomUtils.makeLastChatMessageKey(chatRoomId));
         if (result == null) return null;
-        return result;
+        return Long.parseLong(result);
+    }
+
+    /**
+     * @return 얻은 lease 의 token, 다른 서버가 들고 있으면 null
+     */
+    public String acquireFlushLease(Integer chatRoomId, long leaseMillis) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = operations.setIfAbsent(LEASE_KEY_PREFIX + chatRoomId, token, Duration.ofMillis(leaseMillis));
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void releaseFlushLease(Integer chatRoomId, String token) {
+        stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(LEASE_KEY_PREFIX + chatRoomId), token);
     }
 
     public void delete(Integer chatRoomId) {
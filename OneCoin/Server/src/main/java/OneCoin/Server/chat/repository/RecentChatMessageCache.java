@@ -0,0 +1,170 @@
+package OneCoin.Server.chat.repository;
+
+import OneCoin.Server.chat.dto.ChatResponseDto;
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.mapper.ChatMapper;
+import OneCoin.Server.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ *     이 서버에 구독자가 있는 채팅방의 최근 메시지, 채팅방마다 최대 capacity 개
+ *     채팅방 channel 을 구독하는 동안 들어오는 메시지로 채워지고, 구독을 해제하면 버린다.
+ *     첫 페이지를 Redis 에서 읽은 뒤(warm) 부터 사용하며, 버퍼에 없는 이전 메시지는 Redis, RDB 에서 읽는다.
+ *     다른 서버에서 발행된 메시지는 받은 JSON 그대로 들고 있다가, 조회로 내보낼 때 처음 한 번만 객체로 바꾼다.
+ *     chatMessageId 가 없는 메시지(입장, 퇴장 알림)는 저장되지 않으므로 담지 않는다.
+ *     pub/sub 은 메시지를 잃을 수 있으므로, 사용하는 쪽에서 Redis 와 개수를 비교한 뒤 사용한다.
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class RecentChatMessageCache {
+    private final JsonUtil jsonUtil;
+    private final ChatMapper mapper;
+    private final Map<Integer, RecentMessages> rooms = new ConcurrentHashMap<>();
+    @Value("${chat.recent-cache.size:100}")
+    private int capacity;
+
+    /**
+     * 채팅방 channel 구독을 시작할 때 호출한다. 이후 들어오는 메시지부터 모은다.
+     */
+    public void track(Integer chatRoomId) {
+        rooms.putIfAbsent(chatRoomId, new RecentMessages(capacity));
+    }
+
+    public void evict(Integer chatRoomId) {
+        rooms.remove(chatRoomId);
+    }
+
+    /**
+     * 채팅방 메시지를 지웠을 때 호출한다. 구독 중이면 다시 warm 될 때까지 사용하지 않는다.
+     */
+    public void clear(Integer chatRoomId) {
+        rooms.computeIfPresent(chatRoomId, (key, value) -> new RecentMessages(capacity));
+    }
+
+    public void add(ChatMessage chatMessage) {
+        if (chatMessage.getChatMessageId() == null) return;
+        RecentMessages recentMessages = rooms.get(chatMessage.getChatRoomId());
+        if (recentMessages != null) {
+            recentMessages.add(chatMessage.getChatMessageId(), new Entry(chatMessage));
+        }
+    }
+
+    /**
+     * channel 로 받은 메시지를 JSON 그대로 담는다. 이 서버에서 저장해 이미 담긴 메시지는 그대로 둔다.
+     */
+    public void addPublished(Integer chatRoomId, long chatMessageId, byte[] json) {
+        RecentMessages recentMessages = rooms.get(chatRoomId);
+        if (recentMessages != null) {
+            recentMessages.addIfAbsent(chatMessageId, new Entry(json));
+        }
+    }
+
+    /**
+     * 채팅방의 가장 최근 메시지들로 버퍼를 채운다. latest 가 count 개보다 적으면 채팅방의 모든 메시지로 본다.
+     */
+    public void warm(Integer chatRoomId, List<ChatMessage> latest, long count) {
+        RecentMessages recentMessages = rooms.get(chatRoomId);
+        if (recentMessages != null) {
+            recentMessages.warm(latest, latest.size() < count);
+        }
+    }
+
+    /**
+     * beforeId 보다 작은 id 의 메시지를 id 내림차순으로 count 개, 버퍼로 채울 수 없으면 null
+     */
+    public List<ChatMessage> findBefore(Integer chatRoomId, long beforeId, long count) {
+        RecentMessages recentMessages = rooms.get(chatRoomId);
+        if (recentMessages == null) return null;
+        List<Entry> entries = recentMessages.findBefore(beforeId, count);
+        if (entries == null) return null;
+        List<ChatMessage> found = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            found.add(entry.get(this));
+        }
+        return found;
+    }
+
+    private ChatMessage decode(byte[] json) {
+        return mapper.responseDtoToChatMessage(jsonUtil.fromJson(new String(json, StandardCharsets.UTF_8), ChatResponseDto.class));
+    }
+
+    private static class Entry {
+        private volatile ChatMessage message; // 동시에 처음 읽으면 두 번 바꿀 수 있지만 결과는 같다
+        private final byte[] json;
+
+        Entry(ChatMessage message) {
+            this.message = message;
+            this.json = null;
+        }
+
+        Entry(byte[] json) {
+            this.json = json;
+        }
+
+        ChatMessage get(RecentChatMessageCache cache) {
+            if (message == null) {
+                message = cache.decode(json);
+            }
+            return message;
+        }
+    }
+
+    private static class RecentMessages {
+        private final int capacity;
+        private final TreeMap<Long, Entry> messages = new TreeMap<>();
+        private boolean warm;
+        // 채팅방의 첫 메시지부터 모두 들고 있는지
+        private boolean complete;
+
+        RecentMessages(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void add(long chatMessageId, Entry entry) {
+            messages.put(chatMessageId, entry);
+            while (messages.size() > capacity) {
+                messages.pollFirstEntry();
+                complete = false;
+            }
+        }
+
+        synchronized void addIfAbsent(long chatMessageId, Entry entry) {
+            if (!messages.containsKey(chatMessageId)) {
+                add(chatMessageId, entry);
+            }
+        }
+
+        synchronized void warm(List<ChatMessage> latest, boolean all) {
+            if (warm) return;
+            for (ChatMessage chatMessage : latest) {
+                add(chatMessage.getChatMessageId(), new Entry(chatMessage));
+            }
+            warm = true;
+            complete = all && messages.size() <= capacity;
+        }
+
+        synchronized List<Entry> findBefore(long beforeId, long count) {
+            if (!warm) return null;
+            NavigableMap<Long, Entry> candidates = messages.headMap(beforeId, false).descendingMap();
+            if (candidates.size() < count && !complete) return null;
+            List<Entry> found = new ArrayList<>();
+            for (Entry entry : candidates.values()) {
+                if (found.size() == count) break;
+                found.add(entry);
+            }
+            return found;
+        }
+    }
+}
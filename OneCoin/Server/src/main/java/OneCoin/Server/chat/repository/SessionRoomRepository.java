@@ -0,0 +1,101 @@
+package OneCoin.Server.chat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *     chat-session:{sessionId}:rooms  (Set) 세션이 들어가 있는 채팅방 id
+ *     연결이 끊길 때 모든 채팅방을 확인하지 않고 이 세션의 채팅방만 정리한다.
+ *     연결되어 있는 세션은 서버가 주기적으로 TTL 을 늘리므로, 서버가 종료되어 정리되지 못한 key 만 TTL 로 사라진다.
+ *     key 가 없는 세션은 ChatRetentionSweeper 가 채팅방에서 지운다.
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+public class SessionRoomRepository {
+    private final String KEY_PREFIX = "chat-session:";
+    private final String KEY_SUFFIX = ":rooms";
+    private final StringRedisTemplate stringRedisTemplate;
+    private SetOperations<String, String> setOperations;
+    @Value("${chat.session.ttl-millis:600000}")
+    private long ttlMillis;
+
+    @PostConstruct
+    private void init() {
+        setOperations = stringRedisTemplate.opsForSet();
+    }
+
+    public void add(String sessionId, Integer chatRoomId) {
+        String key = makeKey(sessionId);
+        setOperations.add(key, String.valueOf(chatRoomId));
+        stringRedisTemplate.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 연결되어 있는 세션들의 TTL 을 한 번의 pipeline 으로 늘린다.
+     */
+    public void touch(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) return;
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String sessionId : sessionIds) {
+                connection.keyCommands().pExpire(makeKey(sessionId).getBytes(StandardCharsets.UTF_8), ttlMillis);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * sessionIds 중 key 가 남아 있는 세션
+     */
+    public Set<String> findExisting(List<String> sessionIds) {
+        Set<String> existing = new HashSet<>();
+        if (sessionIds.isEmpty()) return existing;
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String sessionId : sessionIds) {
+                connection.keyCommands().exists(makeKey(sessionId).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        for (int i = 0; i < sessionIds.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                existing.add(sessionIds.get(i));
+            }
+        }
+        return existing;
+    }
+
+    public String getKeyPattern() {
+        return KEY_PREFIX + "*" + KEY_SUFFIX;
+    }
+
+    public Set<Integer> findChatRoomIds(String sessionId) {
+        Set<String> members = setOperations.members(makeKey(sessionId));
+        Set<Integer> chatRoomIds = new HashSet<>();
+        if (members == null) return chatRoomIds;
+        for (String member : members) {
+            chatRoomIds.add(Integer.parseInt(member));
+        }
+        return chatRoomIds;
+    }
+
+    public void delete(String sessionId) {
+        stringRedisTemplate.delete(makeKey(sessionId));
+    }
+
+    private String makeKey(String sessionId) {
+        return KEY_PREFIX + sessionId + KEY_SUFFIX;
+    }
+}
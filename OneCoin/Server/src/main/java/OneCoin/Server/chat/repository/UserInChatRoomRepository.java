@@ -5,12 +5,18 @@ import OneCoin.Server.chat.utils.ChatRoomUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
@@ -26,8 +32,16 @@ public class UserInChatRoomRepository {
         hashOperations = redisTemplate.opsForHash();
     }
 
-    public void addUser(Integer chatRoomId, String sessionId, UserInChatRoom user) {
-        hashOperations.put(chatRoomUtils.makeKey(chatRoomId), sessionId, user);
+    /**
+     * @return 채팅방에 없던 세션이면 true, 이미 있던 세션이면 유저 정보만 덮어쓰고 false
+     */
+    public boolean addUser(Integer chatRoomId, String sessionId, UserInChatRoom user) {
+        String key = chatRoomUtils.makeKey(chatRoomId);
+        if (Boolean.TRUE.equals(hashOperations.putIfAbsent(key, sessionId, user))) {
+            return true;
+        }
+        hashOperations.put(key, sessionId, user);
+        return false;
     }
 
     // return 0 when nothing is removed;
@@ -43,6 +57,39 @@ public class UserInChatRoomRepository {
         redisTemplate.delete(chatRoomUtils.makeKey(chatRoomId));
     }
 
+    /**
+     * 여러 채팅방에서 세션을 한 번의 pipeline 으로 지운다.
+     * @return 세션이 있던 채팅방 id 와 유저 (비회원은 null)
+     */
+    public Map<Integer, UserInChatRoom> removeSession(Collection<Integer> chatRoomIds, String sessionId) {
+        List<Integer> orderedChatRoomIds = new ArrayList<>(chatRoomIds);
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                HashOperations<String, String, UserInChatRoom> pipelined = ((RedisOperations<String, UserInChatRoom>) operations).opsForHash();
+                for (Integer chatRoomId : orderedChatRoomIds) {
+                    String key = chatRoomUtils.makeKey(chatRoomId);
+                    pipelined.get(key, sessionId);
+                    pipelined.delete(key, sessionId);
+                }
+                return null;
+            }
+        });
+        Map<Integer, UserInChatRoom> removed = new LinkedHashMap<>();
+        for (int i = 0; i < orderedChatRoomIds.size(); i++) {
+            Object deleted = results.get(i * 2 + 1);
+            if (deleted instanceof Long && (Long) deleted > 0) {
+                removed.put(orderedChatRoomIds.get(i), objectToEntity(results.get(i * 2)));
+            }
+        }
+        return removed;
+    }
+
+    public List<String> findSessionIds(Integer chatRoomId) {
+        return new ArrayList<>(hashOperations.keys(chatRoomUtils.makeKey(chatRoomId)));
+    }
+
     public List<UserInChatRoom> findAllByChatRoomId(Integer chatRoomId) {
         return objectToList(hashOperations.values(chatRoomUtils.makeKey(chatRoomId)));
     }
@@ -0,0 +1,110 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.entity.ChatRoom;
+import OneCoin.Server.chat.repository.ChatMessageJdbcRepository;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import OneCoin.Server.chat.repository.LastSavedRepository;
+import OneCoin.Server.utils.ClusterMembership;
+import OneCoin.Server.utils.ScheduledJobRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <pre>
+ *     Redis 에 쌓인 채팅 메시지를 주기적으로 RDB 에 옮긴다. (write-behind)
+ *     - 채팅방별로 마지막으로 저장한 chatMessageId(LastSavedRepository) 이후를 batchSize 개씩 읽어 batch insert 한다.
+ *     - chunk 를 저장할 때마다 checkpoint 를 옮기므로 한 번에 batchSize 개만 메모리에 올리고,
+ *       실패해도 다음 실행에서 마지막 checkpoint 부터 이어서 저장한다.
+ *     - Redis 를 잃어도 잃는 메시지는 마지막 flush 이후로 제한된다.
+ *     주기 실행에서는 consistent hashing 으로 이 서버가 맡은 채팅방만 저장해, 채팅방이 늘어나도 서버들이 나눠 저장한다.
+ *     서버 구성이 바뀌는 동안에는 두 서버가 같은 채팅방을 맡을 수 있어, 채팅방별 lease 를 얻은 서버만 저장한다.
+ *     다른 서버나 채팅 batch job 과 같은 메시지를 저장해도 이미 저장된 id 는 건너뛰고,
+ *     checkpoint 는 더 큰 id 로만 옮겨진다.
+ *     저장한 채팅방은 바로 개수 기준 보관 정책으로 줄인다. 시간 기준은 ChatRetentionSweeper 가 주기적으로 맞춘다.
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageFlusher {
+    private final ChatRoomService chatRoomService;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageJdbcRepository chatMessageJdbcRepository;
+    private final LastSavedRepository lastSavedRepository;
+    private final ScheduledJobRunner scheduledJobRunner;
+    private final ClusterMembership clusterMembership;
+    private final ChatRetentionSweeper chatRetentionSweeper;
+    private final String OWNERSHIP_PREFIX = "chat-room:";
+    private final ReentrantLock lock = new ReentrantLock();
+    @Value("${chat.flush.batch-size:500}")
+    private int batchSize;
+    @Value("${chat.flush.lease-millis:30000}")
+    private long leaseMillis;
+
+    @Scheduled(fixedDelayString = "${chat.flush.interval-millis:1000}")
+    public void flushPeriodically() {
+        scheduledJobRunner.run("chat-message-flush", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(1), () -> flush(true));
+    }
+
+    /**
+     * 모든 채팅방을 저장한다.
+     * @return RDB 에 새로 저장한 메시지 수
+     */
+    public int flush() {
+        return flush(false);
+    }
+
+    private int flush(boolean ownedOnly) {
+        lock.lock();
+        try {
+            int count = 0;
+            for (ChatRoom chatRoom : chatRoomService.findAllChatRooms()) {
+                Integer chatRoomId = chatRoom.getChatRoomId();
+                if (ownedOnly && !clusterMembership.isOwner(OWNERSHIP_PREFIX + chatRoomId)) continue;
+                count += flushChatRoom(chatRoomId);
+            }
+            if (count > 0) {
+                log.debug("[CHAT] {} messages flushed to RDB", count);
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int flushChatRoom(Integer chatRoomId) {
+        String lease = lastSavedRepository.acquireFlushLease(chatRoomId, leaseMillis);
+        if (lease == null) return 0; // 다른 서버가 저장 중
+        try {
+            return flushChatRoomWithLease(chatRoomId);
+        } finally {
+            lastSavedRepository.releaseFlushLease(chatRoomId, lease);
+        }
+    }
+
+    private int flushChatRoomWithLease(Integer chatRoomId) {
+        Long lastSavedId = lastSavedRepository.get(chatRoomId);
+        long checkpoint = lastSavedId == null ? 0L : lastSavedId;
+        int count = 0;
+        while (true) {
+            List<ChatMessage> messages = chatMessageRepository.findAfter(chatRoomId, checkpoint, batchSize);
+            if (messages.isEmpty()) break;
+            count += chatMessageJdbcRepository.insertAll(messages);
+            checkpoint = messages.get(messages.size() - 1).getChatMessageId();
+            lastSavedRepository.save(chatRoomId, checkpoint);
+            if (messages.size() < batchSize) break;
+        }
+        if (count > 0) {
+            chatRetentionSweeper.trim(chatRoomId, checkpoint, 0);
+        }
+        return count;
+    }
+}
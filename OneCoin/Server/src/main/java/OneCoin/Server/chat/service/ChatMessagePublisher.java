@@ -0,0 +1,30 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.dto.ChatResponseDto;
+import OneCoin.Server.chat.utils.ChatRoomUtils;
+import OneCoin.Server.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * <pre>
+ *     채팅방 channel 로 발행한다. 그 채팅방 구독자가 있는 서버만 받는다.
+ *     발행 형식은 "{chatMessageId}:{JSON}" 이고, 저장하지 않는 메시지(입장, 퇴장 알림)는 id 자리가 비어 있다.
+ *     받는 쪽은 JSON 을 객체로 바꾸지 않고 id 만 읽는다.
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatMessagePublisher {
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JsonUtil jsonUtil;
+    private final ChatRoomUtils chatRoomUtils;
+
+    public void publish(ChatResponseDto chatResponseDto) {
+        Integer chatRoomId = (int) chatResponseDto.getChatRoomId();
+        Long chatMessageId = chatResponseDto.getChatMessageId();
+        String id = chatMessageId == null ? "" : String.valueOf(chatMessageId);
+        stringRedisTemplate.convertAndSend(chatRoomUtils.makeChannel(chatRoomId), id + ":" + jsonUtil.toJson(chatResponseDto));
+    }
+}
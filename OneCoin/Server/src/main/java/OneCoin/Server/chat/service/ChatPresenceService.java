@@ -0,0 +1,135 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.entity.ChatRoom;
+import OneCoin.Server.chat.repository.ChatPresenceRepository;
+import OneCoin.Server.chat.repository.ChatRoomRepository;
+import OneCoin.Server.chat.utils.ChatRoomUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <pre>
+ *     채팅방별 접속 세션 수
+ *     입장, 퇴장할 때 ChatPresenceRepository 의 카운터를 바꾸고 바뀐 값을 chat:presence channel 로 발행한다.
+ *     모든 서버가 channel 을 구독해 같은 값을 메모리에 들고 있으므로 접속자 수를 읽을 때 Redis 를 조회하지 않는다.
+ *     비정상 종료된 서버의 세션 때문에 어긋난 카운터는 ChatRetentionSweeper 가 그 세션을 지운 뒤 Hash 크기와 맞춘다.
+ *     입장 중간(세션 Hash 추가 후 HINCRBY 전)을 보고 맞추지 않도록, 같은 차이가 다음 sweep 까지 그대로일 때만 compare-and-set 으로 바꾼다.
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatPresenceService implements MessageListener {
+    public static final String PRESENCE_CHANNEL = "chat:presence";
+    private final ChatPresenceRepository chatPresenceRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatRoomUtils chatRoomUtils;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final Map<Integer, Long> counts = new ConcurrentHashMap<>();
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    // 채팅방 id -> 지난 sweep 에서 본 [접속자 수, Hash 크기] (차이가 있던 채팅방만)
+    private final Map<Integer, long[]> mismatches = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void init() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(PRESENCE_CHANNEL));
+        counts.putAll(chatPresenceRepository.findAll());
+    }
+
+    public void join(Integer chatRoomId) {
+        publish(chatRoomId, chatPresenceRepository.increment(chatRoomId, 1));
+    }
+
+    public void leave(Integer chatRoomId) {
+        publish(chatRoomId, chatPresenceRepository.increment(chatRoomId, -1));
+    }
+
+    public long count(Integer chatRoomId) {
+        return counts.getOrDefault(chatRoomId, 0L);
+    }
+
+    public List<ChatRoom> findAllChatRooms() {
+        List<ChatRoom> chatRooms = new ArrayList<>();
+        for (String key : chatRoomRepository.findAll()) {
+            Integer chatRoomId = chatRoomUtils.parseChatRoomId(key);
+            chatRooms.add(ChatRoom.builder()
+                    .chatRoomId(chatRoomId)
+                    .numberOfChatters(count(chatRoomId))
+                    .build());
+        }
+        return chatRooms;
+    }
+
+    /**
+     * 마지막 호출 이후 접속자 수가 바뀌었으면 true, 여러 번 바뀌어도 한 번만 true 를 돌려준다.
+     */
+    public boolean pollChanged() {
+        return changed.compareAndSet(true, false);
+    }
+
+    /**
+     * 새 구독자가 현재 접속자 수를 받도록 다음 push 때 변경이 없어도 보낸다.
+     */
+    public void markChanged() {
+        changed.set(true);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) return;
+        apply(Integer.parseInt(body.substring(0, separator)), Long.parseLong(body.substring(separator + 1)));
+    }
+
+    void apply(Integer chatRoomId, long count) {
+        Long previous = counts.put(chatRoomId, count);
+        if (previous == null || previous != count) {
+            changed.set(true);
+        }
+    }
+
+    /**
+     * <pre>
+     *     접속자 수를 세션 Hash 크기와 맞춘다. 종료된 서버의 세션을 지운 뒤에 호출해야 한다.
+     *     처음 본 차이는 기록만 하고, 다음 호출에서 두 값이 그대로면 바꾼다.
+     * </pre>
+     */
+    public void reconcile(Set<Integer> chatRoomIds) {
+        mismatches.keySet().retainAll(chatRoomIds);
+        for (Integer chatRoomId : chatRoomIds) {
+            long[] observed = mismatches.getOrDefault(chatRoomId, new long[]{-1L, -1L});
+            long[] result = chatPresenceRepository.reconcile(chatRoomId, chatRoomUtils.makeKey(chatRoomId), observed[0], observed[1]);
+            if (result[0] == 1L) {
+                log.info("[CHAT] presence of chat room {} reconciled {} -> {}", chatRoomId, observed[0], result[2]);
+                mismatches.remove(chatRoomId);
+                publish(chatRoomId, result[2]);
+            } else if (result[1] != result[2]) {
+                mismatches.put(chatRoomId, new long[]{result[1], result[2]});
+            } else {
+                mismatches.remove(chatRoomId);
+            }
+        }
+    }
+
+    private void publish(Integer chatRoomId, long count) {
+        apply(chatRoomId, count);
+        stringRedisTemplate.convertAndSend(PRESENCE_CHANNEL, chatRoomId + ":" + count);
+    }
+}
@@ -0,0 +1,171 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.repository.ChatKeyspaceRepository;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import OneCoin.Server.chat.repository.ChatPresenceRepository;
+import OneCoin.Server.chat.repository.ChatRoomRepository;
+import OneCoin.Server.chat.repository.LastSavedRepository;
+import OneCoin.Server.chat.repository.SessionRoomRepository;
+import OneCoin.Server.chat.repository.UserInChatRoomRepository;
+import OneCoin.Server.chat.utils.ChatRoomUtils;
+import OneCoin.Server.utils.ScheduledJobRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * <pre>
+ *     Redis 의 채팅 데이터를 보관 정책 안으로 유지한다. leader 만 실행한다.
+ *     - 채팅방 메시지는 최대 chat.retention.max-messages 개, chat.retention.max-age-hours 시간까지 보관한다.
+ *       RDB 에 저장된 메시지만 지우므로, 지운 메시지는 RDB 에서 조회된다.
+ *     - 세션 index 가 만료된 세션(종료된 서버의 세션)을 채팅방에서 지운 뒤, 접속자 수를 남은 세션 수와 맞춘다.
+ *     - 채팅방 목록에 없는 채팅방의 메시지, checkpoint, 접속자 수 key 를 지운다.
+ *     - keyspace 별 key 수와 메모리 사용량을 chat_redis.* metric 으로 남긴다.
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatRetentionSweeper {
+    private final int SCAN_BATCH_SIZE = 500;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final UserInChatRoomRepository userInChatRoomRepository;
+    private final SessionRoomRepository sessionRoomRepository;
+    private final LastSavedRepository lastSavedRepository;
+    private final ChatPresenceRepository chatPresenceRepository;
+    private final ChatKeyspaceRepository chatKeyspaceRepository;
+    private final ChatPresenceService chatPresenceService;
+    private final ChatRoomUtils chatRoomUtils;
+    private final ScheduledJobRunner scheduledJobRunner;
+    private final MeterRegistry meterRegistry;
+    // keyspace 이름 -> SCAN pattern
+    private final Map<String, String> keyspaces = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> memoryUsages = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> keyCounts = new LinkedHashMap<>();
+    @Value("${chat.retention.max-messages:1000}")
+    private long maxMessages;
+    @Value("${chat.retention.max-age-hours:48}")
+    private long maxAgeHours;
+
+    @PostConstruct
+    private void init() {
+        keyspaces.put("chat-messages", chatMessageRepository.getKeyPattern());
+        keyspaces.put("chat-room-sessions", chatRoomUtils.makeKeyPattern());
+        keyspaces.put("chat-session-rooms", sessionRoomRepository.getKeyPattern());
+        keyspaces.put("chat-last-saved", chatRoomUtils.makeLastChatMessageKeyPattern());
+        for (String keyspace : keyspaces.keySet()) {
+            memoryUsages.put(keyspace, meterRegistry.gauge("chat_redis.memory_bytes", Tags.of("keyspace", keyspace), new AtomicLong()));
+            keyCounts.put(keyspace, meterRegistry.gauge("chat_redis.keys", Tags.of("keyspace", keyspace), new AtomicLong()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.retention.sweep-interval-millis:60000}")
+    public void sweepPeriodically() {
+        scheduledJobRunner.runOnLeader("chat-retention-sweep", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(10), this::sweep);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.retention.memory-report-interval-millis:300000}")
+    public void reportMemoryPeriodically() {
+        scheduledJobRunner.runOnLeader("chat-memory-report", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(10), this::reportMemory);
+    }
+
+    /**
+     * 보관 정책을 넘는 메시지와 정리되지 못한 key 를 지운다.
+     */
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        long maxAgeMillis = Duration.ofHours(maxAgeHours).toMillis();
+        chatMessageRepository.recordIssuedId(now, now - maxAgeMillis * 2);
+        long ageCutoffId = chatMessageRepository.findIdIssuedBefore(now - maxAgeMillis);
+        Set<Integer> chatRoomIds = chatRoomRepository.findAll().stream()
+                .map(chatRoomUtils::parseChatRoomId)
+                .collect(Collectors.toSet());
+        long trimmed = 0;
+        long orphanSessions = 0;
+        for (Integer chatRoomId : chatRoomIds) {
+            Long savedId = lastSavedRepository.get(chatRoomId);
+            if (savedId != null) {
+                trimmed += trim(chatRoomId, savedId, ageCutoffId);
+            }
+            orphanSessions += removeOrphanSessions(chatRoomId);
+        }
+        chatPresenceService.reconcile(chatRoomIds);
+        long orphanRooms = removeOrphanChatRooms(chatRoomIds);
+        if (trimmed > 0 || orphanSessions > 0 || orphanRooms > 0) {
+            log.info("[CHAT] retention sweep: {} messages trimmed, {} orphan sessions, {} orphan chat rooms removed",
+                    trimmed, orphanSessions, orphanRooms);
+        }
+    }
+
+    /**
+     * 채팅방 메시지를 보관 정책에 맞춰 줄인다. savedId 보다 큰(RDB 에 저장되지 않은) 메시지는 남긴다.
+     * @param ageCutoffId 이 id 이하는 오래된 메시지, 시간 기준으로 지우지 않으려면 0
+     */
+    public long trim(Integer chatRoomId, long savedId, long ageCutoffId) {
+        return chatMessageRepository.trim(chatRoomId, maxMessages, ageCutoffId, savedId);
+    }
+
+    public void reportMemory() {
+        for (Map.Entry<String, String> keyspace : keyspaces.entrySet()) {
+            AtomicLong bytes = new AtomicLong();
+            AtomicLong count = new AtomicLong();
+            chatKeyspaceRepository.scan(keyspace.getValue(), SCAN_BATCH_SIZE, keys -> {
+                bytes.addAndGet(chatKeyspaceRepository.memoryUsage(keys));
+                count.addAndGet(keys.size());
+            });
+            memoryUsages.get(keyspace.getKey()).set(bytes.get());
+            keyCounts.get(keyspace.getKey()).set(count.get());
+            log.info("[CHAT] redis keyspace {} : {} keys, {} bytes", keyspace.getKey(), count.get(), bytes.get());
+        }
+    }
+
+    private long removeOrphanSessions(Integer chatRoomId) {
+        List<String> sessionIds = userInChatRoomRepository.findSessionIds(chatRoomId);
+        Set<String> existing = sessionRoomRepository.findExisting(sessionIds);
+        long removed = 0;
+        String chatRoomKey = chatRoomUtils.makeKey(chatRoomId);
+        for (String sessionId : sessionIds) {
+            if (existing.contains(sessionId)) continue;
+            removed += userInChatRoomRepository.removeUserBySessionId(chatRoomKey, sessionId);
+        }
+        return removed;
+    }
+
+    /**
+     * 채팅방 목록에 없는 채팅방의 key, RDB 에 모두 저장된 경우에만 지운다.
+     */
+    private long removeOrphanChatRooms(Set<Integer> chatRoomIds) {
+        AtomicLong removed = new AtomicLong();
+        chatKeyspaceRepository.scan(chatMessageRepository.getKeyPattern(), SCAN_BATCH_SIZE, keys -> {
+            for (String key : keys) {
+                Integer chatRoomId = chatMessageRepository.parseChatRoomId(key);
+                if (chatRoomIds.contains(chatRoomId)) continue;
+                Long savedId = lastSavedRepository.get(chatRoomId);
+                if (savedId == null || chatMessageRepository.findLastId(chatRoomId) > savedId) continue;
+                chatMessageRepository.removeAllInChatRoom(chatRoomId);
+                lastSavedRepository.delete(chatRoomId);
+                removed.incrementAndGet();
+            }
+        });
+        for (Integer chatRoomId : chatPresenceRepository.findAll().keySet()) {
+            if (!chatRoomIds.contains(chatRoomId)) {
+                chatPresenceRepository.delete(chatRoomId);
+            }
+        }
+        return removed.get();
+    }
+}
@@ -5,45 +5,44 @@ import OneCoin.Server.chat.entity.ChatRoom;
 import OneCoin.Server.chat.entity.UserInChatRoom;
 import OneCoin.Server.chat.mapper.ChatRoomMapper;
 import OneCoin.Server.chat.repository.ChatRoomRepository;
+import OneCoin.Server.chat.repository.SessionRoomRepository;
 import OneCoin.Server.chat.repository.UserInChatRoomRepository;
 import OneCoin.Server.chat.repository.vo.UserInfoInChatRoom;
-import OneCoin.Server.chat.utils.ChatRoomUtils;
 import OneCoin.Server.exception.BusinessLogicException;
 import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.user.entity.User;
+import OneCoin.Server.utils.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ChatRoomService {
+    private final int MAX_CHAT_ROOM_ID = 1000;
     private final ChatRoomRepository chatRoomRepository;
     private final UserInChatRoomRepository userInChatRoomRepository;
-    private final ChatRoomUtils chatRoomUtils;
     private final ChatRoomMapper mapper;
+    private final SessionRoomRepository sessionRoomRepository;
+    private final ChatPresenceService chatPresenceService;
+    private final ScheduledJobRunner scheduledJobRunner;
+    // 이 서버에 연결된 세션 -> 채팅방 id, SessionRoomRepository 와 같은 내용
+    private final Map<String, Set<Integer>> chatRoomIdsBySession = new ConcurrentHashMap<>();
 
+    /**
+     * 접속자 수는 ChatPresenceService 가 들고 있는 값을 쓴다.
+     */
     public List<ChatRoom> findAllChatRooms() {
-        Set<String> chatRoomKeys = chatRoomRepository.findAll();
-        return chatRoomKeys.stream()
-                .map(chatRoomIdKey -> makeChatRoomByKey(chatRoomIdKey))
-                .collect(Collectors.toList());
-    }
-
-
-    private ChatRoom makeChatRoomByKey(String key) {
-        Integer chatRoomId = chatRoomUtils.parseChatRoomId((String) key);
-        long numberOfSessions = userInChatRoomRepository.getNumberOfUserInChatRoom(chatRoomId);
-        return ChatRoom.builder()
-                .chatRoomId(chatRoomId)
-                .numberOfChatters(numberOfSessions)
-                .build();
+        return chatPresenceService.findAllChatRooms();
     }
 
     public long getNumberOfUserInChatRoom(Integer chatRoomId) {
@@ -60,32 +59,55 @@ public class ChatRoomService {
         if (user != null) {
             userInChatRoom = mapper.userToUserInChatRoom(user);
         }
-        userInChatRoomRepository.addUser(chatRoomId, sessionId, userInChatRoom);
+        // 세션 index 가 없는 세션은 ChatRetentionSweeper 가 지우므로 index 를 먼저 남긴다
+        chatRoomIdsBySession.computeIfAbsent(sessionId, key -> ConcurrentHashMap.newKeySet()).add(chatRoomId);
+        sessionRoomRepository.add(sessionId, chatRoomId);
+        if (userInChatRoomRepository.addUser(chatRoomId, sessionId, userInChatRoom)) {
+            chatPresenceService.join(chatRoomId);
+        }
     }
 
+    /**
+     * 채팅방은 처음 구독할 때 만들어진다. (예: 코인 마켓별 채팅방)
+     */
     public void makeChatRoom(Integer chatRoomId) {
-        Set<String> chatRooms = chatRoomRepository.findAll();
-        int numberOfChatRooms = chatRooms.size();
-        if (numberOfChatRooms + 1 != chatRoomId) {
+        if (chatRoomId == null || chatRoomId < 1 || chatRoomId > MAX_CHAT_ROOM_ID) {
             throw new BusinessLogicException(ExceptionCode.INVALID_CHAT_ROOM_ID);
         }
         chatRoomRepository.create(chatRoomId);
     }
 
+    /**
+     * 세션 -> 채팅방 index 로 세션이 있던 채팅방에서만 지운다. 이 서버의 세션이면 Redis 를 읽지 않는다.
+     */
     public UserInfoInChatRoom deleteUserFromChatRoom(String sessionId) {
-        Set<String> chatRoomKeys = chatRoomRepository.findAll();
         UserInfoInChatRoom user = new UserInfoInChatRoom();
-        chatRoomKeys.stream().forEach(chatRoomKey -> {
-            boolean doesContain = userInChatRoomRepository.contain(chatRoomKey, sessionId);
-            if (doesContain) {
-                user.setChatRoomId(chatRoomUtils.parseChatRoomId(chatRoomKey));
-                user.setUser(userInChatRoomRepository.findBySessionId(chatRoomKey, sessionId));
-                userInChatRoomRepository.removeUserBySessionId(chatRoomKey, sessionId);
-            }
+        Set<Integer> chatRoomIds = chatRoomIdsBySession.remove(sessionId);
+        if (chatRoomIds == null) {
+            chatRoomIds = sessionRoomRepository.findChatRoomIds(sessionId);
+        }
+        if (chatRoomIds.isEmpty()) {
+            return user;
+        }
+        Map<Integer, UserInChatRoom> removed = userInChatRoomRepository.removeSession(chatRoomIds, sessionId);
+        sessionRoomRepository.delete(sessionId);
+        removed.forEach((chatRoomId, userInChatRoom) -> {
+            chatPresenceService.leave(chatRoomId);
+            user.setChatRoomId(chatRoomId);
+            user.setUser(userInChatRoom);
         });
         return user;
     }
 
+    /**
+     * 이 서버에 연결된 세션의 index TTL 을 늘린다. 종료된 서버의 세션 index 만 만료된다.
+     */
+    @Scheduled(fixedDelayString = "${chat.session.refresh-interval-millis:180000}")
+    public void refreshSessions() {
+        scheduledJobRunner.run("chat-session-refresh", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(1),
+                () -> sessionRoomRepository.touch(chatRoomIdsBySession.keySet()));
+    }
+
     public List<UserInChatRoom> findUsersInChatRoom(Integer chatRoomId) {
         findVerifiedChatRoom(chatRoomId);
         List<UserInChatRoom> users = userInChatRoomRepository.findAllByChatRoomId(chatRoomId);
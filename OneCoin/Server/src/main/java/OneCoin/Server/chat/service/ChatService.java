@@ -1,25 +1,23 @@
 package OneCoin.Server.chat.service;
 
 import OneCoin.Server.chat.entity.ChatMessage;
-import OneCoin.Server.chat.entity.ChatRoom;
 import OneCoin.Server.chat.repository.ChatMessageRdbRepository;
 import OneCoin.Server.chat.repository.ChatMessageRepository;
+import OneCoin.Server.chat.repository.RecentChatMessageCache;
 import OneCoin.Server.chat.constant.MessageType;
-import OneCoin.Server.chat.repository.LastSavedRepository;
-import OneCoin.Server.chat.repository.LastSentScoreRepository;
 import OneCoin.Server.config.auth.utils.UserUtilsForWebSocket;
-import OneCoin.Server.exception.BusinessLogicException;
-import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.user.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -28,13 +26,14 @@ public class ChatService {
     private final ChatMessageRepository chatMessageRepository;
     private final UserUtilsForWebSocket userInfoUtils;
     private final ChatMessageRdbRepository chatMessageRdbRepository;
-    private final LastSavedRepository lastSavedRepository;
-    private final ChatRoomService chatRoomService;
-    private final LastSentScoreRepository lastSentScoreRepository;
-    private final String NOTHING_LEFT_TO_SEND = "NOTHING_LEFT_TO_SEND";
-    private final String RDB_PREFIX = "index";
-    private final String CHATROOM_PREFIX = "ChatRoom";
-    private final String SESSION_PREFIX = "SessionId";
+    private final ChatMessageFlusher chatMessageFlusher;
+    private final RecentChatMessageCache recentChatMessageCache;
+
+    @PostConstruct
+    private void initChatMessageId() {
+        Long lastChatMessageId = chatMessageRdbRepository.findMaxChatMessageId();
+        chatMessageRepository.initIdIfAbsent(lastChatMessageId == null ? 0L : lastChatMessageId);
+    }
 
     public ChatMessage makeEnterOrLeaveChatMessage(MessageType messageType, Integer chatRoomId, User user) {
         ChatMessage chatMessage = ChatMessage.builder()
@@ -60,57 +59,60 @@ public class ChatService {
         return chatMessage;
     }
 
-    public List<ChatMessage> getChatMessages(Integer chatRoomId, String sessionId) {
-        String scoreAsString = lastSentScoreRepository.get(makeLastSentKey(chatRoomId, sessionId));
-        if(isNothingLeftToSend(scoreAsString)) {
-            throw new BusinessLogicException(ExceptionCode.NO_CHAT_IN_RDB_EXIST);
-        }
-        if(isRdbRetrieving(scoreAsString)) {
-            Long lastSentIndex = Long.parseLong(scoreAsString.replace(RDB_PREFIX, ""));
-            return getMessagesFromRdb(chatRoomId, lastSentIndex - 1L, sessionId);
+    /**
+     * <pre>
+     *     before 보다 작은 id 의 메시지를 최신순으로 NUMBER_OF_CHATS_TO_SHOW 개
+     *     Redis 에서 먼저 찾고, 모자라면 Redis 에서 찾은 가장 오래된 id 이전부터 RDB 에서 채운다.
+     *     before 가 없으면 가장 최근 메시지부터, 다음 조회는 받은 메시지 중 가장 작은 id 를 before 로 보낸다.
+     *     이 서버에 구독자가 있는 채팅방은 RecentChatMessageCache 로 채울 수 있으면 메시지를 Redis 에서 읽지 않는다.
+     *     pub/sub 에서 빠진 메시지가 있으면 버퍼의 페이지가 비어 있으므로, 같은 id 범위의 Redis 메시지 수(ZCOUNT)와 비교한 뒤 사용하고,
+     *     다르면 버퍼를 비워 다음 첫 페이지 조회 때 다시 채운다.
+     * </pre>
+     */
+    public List<ChatMessage> getChatMessages(Integer chatRoomId, Long before) {
+        long cursor = before == null ? Long.MAX_VALUE : before;
+        long limit = chatMessageRepository.getNUMBER_OF_CHATS_TO_SHOW();
+        List<ChatMessage> recent = recentChatMessageCache.findBefore(chatRoomId, cursor, limit);
+        if (recent != null) {
+            if (hasNoGap(chatRoomId, cursor, limit, recent)) {
+                return recent;
+            }
+            recentChatMessageCache.clear(chatRoomId);
         }
-        double lastSentScore = getNextScoreOfRecentlySent(scoreAsString);
-        Double oldestScoreToSend = chatMessageRepository.getScoreOfLastChatWithLimitN(chatRoomId, lastSentScore);
-        if (isNoChatLeftInCache(oldestScoreToSend)) {
-            return getMessagesFromRdbFirstTime(chatRoomId, lastSentScore, sessionId);
+        List<ChatMessage> messages = findChatMessages(chatRoomId, cursor, limit);
+        if (before == null) {
+            recentChatMessageCache.warm(chatRoomId, messages, limit);
         }
-        lastSentScoreRepository.save(makeLastSentKey(chatRoomId, sessionId), oldestScoreToSend.toString());
-        return chatMessageRepository.getMessagesFromRoomByScore(chatRoomId, oldestScoreToSend, lastSentScore);
+        return messages;
     }
 
-    public boolean isNoChatLeftInCache(Double scoreOfLastChat) {
-        if (scoreOfLastChat == null) return true;
-        return false;
+    /**
+     * 버퍼의 페이지가 가장 오래된 id 부터 cursor 전까지 Redis 의 메시지를 빠짐없이 담고 있는지
+     * (모자란 페이지는 채팅방의 첫 메시지부터 담고 있어야 한다)
+     */
+    private boolean hasNoGap(Integer chatRoomId, long cursor, long limit, List<ChatMessage> recent) {
+        long fromId = recent.size() == limit ? recent.get(recent.size() - 1).getChatMessageId() : 0L;
+        return chatMessageRepository.count(chatRoomId, fromId, cursor - 1) == recent.size();
     }
 
-    public void saveInMemoryChatMessagesToRdb() {
-        List<ChatRoom> chatRooms = chatRoomService.findAllChatRooms();
-        for(ChatRoom chatRoom : chatRooms) {
-            Integer chatRoomId = chatRoom.getChatRoomId();
-            String recentScore = lastSavedRepository.get(chatRoomId);
-            List<ChatMessage> messages;
-            if(recentScore == null) {
-                messages = chatMessageRepository.findAllInAscOrder(chatRoomId);
-                Double latestScore = chatMessageRepository.getScoreOfLatestChat(chatRoomId, Double.MIN_VALUE);
-                if(latestScore == null) continue;
-                lastSavedRepository.save(chatRoomId, latestScore.toString());
-            } else {
-                double recentScoreAsDouble = Double.parseDouble(recentScore);
-                Double latestScore = chatMessageRepository.getScoreOfLatestChat(chatRoomId, recentScoreAsDouble);
-                if(latestScore == null) {
-                    continue;
-                }
-                messages = chatMessageRepository.findByScoreInAcsOrder(chatRoomId, recentScoreAsDouble, latestScore);
-                lastSavedRepository.save(chatRoomId, latestScore.toString());
-            }
-            if(messages.size() == 0) return;
-            chatMessageRdbRepository.saveAll(messages);
+    private List<ChatMessage> findChatMessages(Integer chatRoomId, long cursor, long limit) {
+        List<ChatMessage> messages = new ArrayList<>(chatMessageRepository.findBefore(chatRoomId, cursor, limit));
+        if (messages.size() == limit) {
+            return messages;
+        }
+        if (!messages.isEmpty()) {
+            cursor = messages.get(messages.size() - 1).getChatMessageId();
         }
+        messages.addAll(chatMessageRdbRepository.findByChatRoomIdAndChatMessageIdLessThanOrderByChatMessageIdDesc(
+                chatRoomId, cursor, PageRequest.of(0, (int) limit - messages.size())));
+        return messages;
     }
 
-    public void deleteLastSentInfo(String sessionId) {
-        lastSentScoreRepository.delete(makeLastSentKey(1, sessionId));
-        lastSentScoreRepository.delete(makeLastSentKey(2, sessionId));
+    /**
+     * 아직 RDB 에 저장되지 않은 메시지를 모두 저장한다. 평소에는 ChatMessageFlusher 가 주기적으로 저장한다.
+     */
+    public int saveInMemoryChatMessagesToRdb() {
+        return chatMessageFlusher.flush();
     }
 
     private ChatMessage setCurrentTime(ChatMessage chatMessage) {
@@ -136,53 +138,4 @@ public class ChatService {
         chatMessage.setUserId(userId);
         chatMessage.setUserDisplayName(displayName);
     }
-
-    private String makeLastSentKey(Integer chatRoomId, String sessionId) {
-        return CHATROOM_PREFIX + chatRoomId + SESSION_PREFIX + sessionId;
-    }
-    private boolean isRdbRetrieving(String lastSentScoreAsString) {
-        if(lastSentScoreAsString != null && lastSentScoreAsString.startsWith(RDB_PREFIX)) return true;
-        return false;
-    }
-    private boolean isNothingLeftToSend(String lastSentScoreAsString) {
-        if(lastSentScoreAsString != null && lastSentScoreAsString.equals(NOTHING_LEFT_TO_SEND)) return true;
-        return false;
-    }
-
-    private List<ChatMessage> getMessagesFromRdbFirstTime(Integer chatRoomId, Double lastSentScore, String sessionId) {
-        List<ChatMessage> lastSentMessage = chatMessageRepository.getWithScore(chatRoomId, lastSentScore + 1L);
-        Long lastSentIndex = getSmallestIndex(lastSentMessage);
-        return getMessagesFromRdb(chatRoomId, lastSentIndex, sessionId);
-    }
-
-    private List<ChatMessage> getMessagesFromRdb(Integer chatRoomId, Long lastSentIndex, String sessionId) {
-        List<ChatMessage> messagesToSend = chatMessageRdbRepository.findTop30ByChatRoomIdAndChatMessageIdLessThanEqualOrderByChatMessageIdDesc(
-                chatRoomId, lastSentIndex);
-        if(messagesToSend.size() == 0) {
-            lastSentScoreRepository.save(makeLastSentKey(chatRoomId, sessionId), NOTHING_LEFT_TO_SEND);
-            return null;
-        }
-        Long oldestIndexToSend = messagesToSend.get(messagesToSend.size() - 1).getChatMessageId();
-        lastSentScoreRepository.save(makeLastSentKey(chatRoomId, sessionId), RDB_PREFIX + oldestIndexToSend);
-        return messagesToSend;
-    }
-
-    private double getNextScoreOfRecentlySent(String recentScoreAsString) {
-        if (recentScoreAsString == null) {
-            return Double.MAX_VALUE;
-        }
-        return Double.parseDouble(recentScoreAsString) - 1L;
-    }
-
-    private Long getSmallestIndex(List<ChatMessage> messages) {
-        Long index = Long.MAX_VALUE;
-        for(ChatMessage chatMessage : messages) {
-            Optional<ChatMessage> foundMessage = chatMessageRdbRepository.findByMessageAndChatAtAndUserId(chatMessage.getMessage(), chatMessage.getChatAt(), chatMessage.getUserId());
-            if(foundMessage.isPresent() && foundMessage.get().getChatMessageId() < index) {
-                index = foundMessage.get().getChatMessageId();
-            }
-        }
-        if(index != Long.MAX_VALUE && index - 1L != 0L) return index;
-        return Long.MAX_VALUE;
-    }
 }
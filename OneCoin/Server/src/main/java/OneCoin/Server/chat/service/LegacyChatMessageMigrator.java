@@ -0,0 +1,133 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * <pre>
+ *     chatMessageId 를 쓰기 전의 채팅방 key(ChatRoom{N}Message, score : 저장 시각 ms)에 남은 메시지를 한 번 옮긴다.
+ *     이전에는 하루 한 번 batch 로만 RDB 에 저장했으므로, 마지막 batch(ChatRoom{N}LastSavedKey) 이후 메시지는 RDB 에 없다.
+ *     그 메시지에 id 를 발급해 chat-messages:{N} 에 저장하면, ChatMessageFlusher 가 RDB 로 옮긴다.
+ *     - 여러 서버 중 lease 를 얻은 한 곳에서만 실행하고, 모두 옮긴 뒤 완료 표시를 남긴다.
+ *     - 옮긴 메시지는 바로 이전 key 에서 지우므로, 중간에 실패해도 다음 시작 때 남은 메시지부터 이어서 옮긴다.
+ *     - 배포 이후 보낸 메시지보다 큰 id 를 받으므로, 그 사이 메시지가 있으면 이전 메시지가 뒤에 조회된다.
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyChatMessageMigrator {
+    private final String LEGACY_KEY_PREFIX = "ChatRoom";
+    private final String LEGACY_KEY_SUFFIX = "Message";
+    private final String LEGACY_LAST_SAVED_SUFFIX = "LastSavedKey";
+    private final String LEASE_KEY = "chat-messages:legacy-migration-lease";
+    private final String MIGRATED_KEY = "chat-messages:legacy-migrated";
+    private final Duration LEASE = Duration.ofMinutes(5);
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0", Long.class);
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * ChatService 가 id 발급 key 를 RDB 의 마지막 id 로 맞춘 뒤에 실행한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(MIGRATED_KEY))) {
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(LEASE_KEY, token, LEASE))) {
+            return;
+        }
+        try {
+            int count = 0;
+            for (String legacyKey : scanKeys(LEGACY_KEY_PREFIX + "*" + LEGACY_KEY_SUFFIX)) {
+                count += migrateRoom(legacyKey);
+            }
+            stringRedisTemplate.opsForValue().set(MIGRATED_KEY, "1");
+            log.info("[CHAT] migrated {} unsaved messages from legacy chat room keys", count);
+        } catch (Exception e) {
+            log.error("[CHAT] legacy chat message migration failed, will retry on next start", e);
+        } finally {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LEASE_KEY), token);
+        }
+    }
+
+    private int migrateRoom(String legacyKey) {
+        Integer chatRoomId = parseChatRoomId(legacyKey);
+        if (chatRoomId == null) {
+            return 0;
+        }
+        String lastSavedKey = LEGACY_KEY_PREFIX + chatRoomId + LEGACY_LAST_SAVED_SUFFIX;
+        String lastSaved = stringRedisTemplate.opsForValue().get(lastSavedKey);
+        double from = lastSaved == null ? Double.NEGATIVE_INFINITY : Double.parseDouble(lastSaved) + 1;
+        Set<String> members = stringRedisTemplate.opsForZSet().rangeByScore(legacyKey, from, Double.POSITIVE_INFINITY);
+        int count = 0;
+        if (members != null) {
+            for (String member : members) { // 오래된 순
+                ChatMessage chatMessage = toChatMessage(member);
+                chatMessage.setChatMessageId(null);
+                chatMessage.setChatRoomId(chatRoomId);
+                chatMessageRepository.save(chatMessage);
+                stringRedisTemplate.opsForZSet().remove(legacyKey, member);
+                count++;
+            }
+        }
+        stringRedisTemplate.delete(List.of(legacyKey, lastSavedKey));
+        return count;
+    }
+
+    private Integer parseChatRoomId(String legacyKey) {
+        try {
+            return Integer.parseInt(legacyKey.substring(LEGACY_KEY_PREFIX.length(), legacyKey.length() - LEGACY_KEY_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private ChatMessage toChatMessage(String json) {
+        try {
+            return objectMapper.readValue(json, ChatMessage.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable legacy chat message", e);
+        }
+    }
+
+    private List<String> scanKeys(String pattern) {
+        return stringRedisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return keys;
+        });
+    }
+}
@@ -0,0 +1,211 @@
+package OneCoin.Server.chat.utils;
+
+import OneCoin.Server.chat.constant.MessageType;
+import OneCoin.Server.chat.entity.ChatMessage;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * <pre>
+ *     Redis 에 저장하는 ChatMessage 의 binary 형식
+ *     [MAGIC][VERSION] 다음에 (field id << 3 | wire type) varint tag 와 값이 이어진다. null 인 field 는 쓰지 않는다.
+ *     wire type 0 : varint, 2 : 길이(varint) + UTF-8 문자열
+ *     chatAt 은 epoch micros(UTC 기준 LocalDateTime) varint 로 쓰고, 다시 문자열로 바꿨을 때 원래 값과 같지 않으면
+ *     (시각으로 읽을 수 없는 값, 나노초 단위, 다른 표기) 문자열 field 로 쓴다. epoch millis field 는 이전 데이터를 읽을 때만 쓴다.
+ *     모르는 field 는 wire type 으로 건너뛰므로 field 를 추가해도 이전 서버가 읽을 수 있다.
+ *     MAGIC 으로 시작하지 않으면 이전 형식(GenericJackson2JsonRedisSerializer 의 JSON)으로 읽는다.
+ *     chatMessageId 를 Redis 가 발급할 때는 id 없이 encode 한 값을 넘기고, 저장 Lua 가 header 바로 뒤에 ID_TAG 와 id varint 를 끼워 넣는다.
+ * </pre>
+ */
+@Component
+public class ChatMessageCodec {
+    public static final byte MAGIC = (byte) 0xCE;
+    public static final byte VERSION = 1;
+    private static final int VARINT = 0;
+    private static final int LENGTH_DELIMITED = 2;
+    private static final int CHAT_MESSAGE_ID = 1;
+    private static final int TYPE = 2;
+    private static final int MESSAGE = 3;
+    private static final int CHAT_AT_MILLIS = 4;
+    private static final int USER_ID = 5;
+    private static final int CHAT_ROOM_ID = 6;
+    private static final int USER_DISPLAY_NAME = 7;
+    private static final int CHAT_AT_TEXT = 8;
+    private static final int CHAT_AT_MICROS = 9;
+    public static final int HEADER_LENGTH = 2;
+    public static final int ID_TAG = CHAT_MESSAGE_ID << 3 | VARINT;
+    private final ObjectReader legacyReader;
+
+    public ChatMessageCodec(ObjectMapper objectMapper) {
+        this.legacyReader = objectMapper.readerFor(ChatMessage.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public byte[] encode(ChatMessage chatMessage) {
+        return encode(chatMessage, true);
+    }
+
+    /**
+     * chatMessageId field 를 뺀 binary
+     */
+    public byte[] encodeWithoutId(ChatMessage chatMessage) {
+        return encode(chatMessage, false);
+    }
+
+    private byte[] encode(ChatMessage chatMessage, boolean withId) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(MAGIC);
+        out.write(VERSION);
+        if (withId) {
+            writeVarint(out, CHAT_MESSAGE_ID, chatMessage.getChatMessageId());
+        }
+        if (chatMessage.getType() != null) {
+            writeVarint(out, TYPE, (long) chatMessage.getType().ordinal());
+        }
+        writeString(out, MESSAGE, chatMessage.getMessage());
+        writeChatAt(out, chatMessage.getChatAt());
+        writeVarint(out, USER_ID, chatMessage.getUserId());
+        if (chatMessage.getChatRoomId() != null) {
+            writeVarint(out, CHAT_ROOM_ID, chatMessage.getChatRoomId().longValue());
+        }
+        writeString(out, USER_DISPLAY_NAME, chatMessage.getUserDisplayName());
+        return out.toByteArray();
+    }
+
+    public ChatMessage decode(byte[] bytes) {
+        if (bytes == null) return null;
+        if (bytes.length < 2 || bytes[0] != MAGIC) {
+            return decodeLegacy(bytes);
+        }
+        Reader reader = new Reader(bytes, 2); // 이후 버전도 같은 tag 형식이면 아는 field 만 읽는다
+        ChatMessage chatMessage = new ChatMessage();
+        while (reader.hasRemaining()) {
+            long tag = reader.readVarint();
+            int fieldId = (int) (tag >>> 3);
+            int wireType = (int) (tag & 0x7);
+            if (wireType == VARINT) {
+                long value = reader.readVarint();
+                switch (fieldId) {
+                    case CHAT_MESSAGE_ID: chatMessage.setChatMessageId(value); break;
+                    case TYPE: chatMessage.setType(typeOf(value)); break;
+                    case CHAT_AT_MILLIS: chatMessage.setChatAt(toChatAt(value * 1000L)); break;
+                    case CHAT_AT_MICROS: chatMessage.setChatAt(toChatAt(value)); break;
+                    case USER_ID: chatMessage.setUserId(value); break;
+                    case CHAT_ROOM_ID: chatMessage.setChatRoomId((int) value); break;
+                    default: break;
+                }
+            } else if (wireType == LENGTH_DELIMITED) {
+                String value = reader.readString();
+                switch (fieldId) {
+                    case MESSAGE: chatMessage.setMessage(value); break;
+                    case USER_DISPLAY_NAME: chatMessage.setUserDisplayName(value); break;
+                    case CHAT_AT_TEXT: chatMessage.setChatAt(value); break;
+                    default: break;
+                }
+            } else {
+                throw new IllegalArgumentException("unknown wire type " + wireType + " in chat message");
+            }
+        }
+        return chatMessage;
+    }
+
+    private ChatMessage decodeLegacy(byte[] bytes) {
+        try {
+            return legacyReader.readValue(bytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("unreadable chat message", e);
+        }
+    }
+
+    private void writeChatAt(ByteArrayOutputStream out, String chatAt) {
+        if (chatAt == null) return;
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(chatAt);
+            long epochMicros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), dateTime);
+            if (toChatAt(epochMicros).equals(chatAt)) {
+                writeVarint(out, CHAT_AT_MICROS, epochMicros);
+                return;
+            }
+        } catch (DateTimeParseException | ArithmeticException e) {
+            // 문자열로 쓴다
+        }
+        writeString(out, CHAT_AT_TEXT, chatAt);
+    }
+
+    private String toChatAt(long epochMicros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L),
+                (int) Math.floorMod(epochMicros, 1_000_000L) * 1_000, ZoneOffset.UTC).toString();
+    }
+
+    private MessageType typeOf(long ordinal) {
+        MessageType[] types = MessageType.values();
+        return ordinal < types.length ? types[(int) ordinal] : null;
+    }
+
+    private void writeVarint(ByteArrayOutputStream out, int fieldId, Long value) {
+        if (value == null) return;
+        writeRawVarint(out, ((long) fieldId << 3) | VARINT);
+        writeRawVarint(out, value);
+    }
+
+    private void writeString(ByteArrayOutputStream out, int fieldId, String value) {
+        if (value == null) return;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeRawVarint(out, ((long) fieldId << 3) | LENGTH_DELIMITED);
+        writeRawVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeRawVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        boolean hasRemaining() {
+            return position < bytes.length;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= bytes.length) break;
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("malformed varint in chat message");
+        }
+
+        String readString() {
+            int length = (int) readVarint();
+            if (length < 0 || position + length > bytes.length) {
+                throw new IllegalArgumentException("malformed string in chat message");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -7,7 +7,9 @@ public class ChatRoomUtils {
     public final String KEY_FOR_CHAT_ROOMS = "ChatRooms";
     private final String PREFIX_OF_KEY = "ChatRoom";
     private final String SUFFIX_OF_KEY = "Session";
-    private final String SUFFIX_OF_LAST_CHAT_KEY = "LastSavedKey";
+    private final String SUFFIX_OF_LAST_CHAT_KEY = "LastSavedId";
+    private final String PREFIX_OF_CHANNEL = "chat:room:";
+    private final String PREFIX_OF_DESTINATION = "/topic/rooms/";
 
     public Integer parseChatRoomId(String key) {
         String chatRoomIdAsString = key.replace(PREFIX_OF_KEY, "");
@@ -22,4 +24,42 @@ public class ChatRoomUtils {
     public String makeLastChatMessageKey(Integer chatRoomId) {
         return PREFIX_OF_KEY + String.valueOf(chatRoomId) + SUFFIX_OF_LAST_CHAT_KEY;
     }
+
+    /**
+     * 모든 채팅방의 세션 key 에 맞는 SCAN pattern
+     */
+    public String makeKeyPattern() {
+        return PREFIX_OF_KEY + "*" + SUFFIX_OF_KEY;
+    }
+
+    public String makeLastChatMessageKeyPattern() {
+        return PREFIX_OF_KEY + "*" + SUFFIX_OF_LAST_CHAT_KEY;
+    }
+
+    /**
+     * 채팅방별 Redis pub/sub channel
+     */
+    public String makeChannel(Integer chatRoomId) {
+        return PREFIX_OF_CHANNEL + chatRoomId;
+    }
+
+    public Integer parseChatRoomIdFromChannel(String channel) {
+        return Integer.parseInt(channel.substring(PREFIX_OF_CHANNEL.length()));
+    }
+
+    public String makeDestination(Integer chatRoomId) {
+        return PREFIX_OF_DESTINATION + chatRoomId;
+    }
+
+    /**
+     * 채팅방 구독 destination(/topic/rooms/{chatRoomId}) 이 아니면 null
+     */
+    public Integer parseChatRoomIdFromDestination(String destination) {
+        if (destination == null || !destination.startsWith(PREFIX_OF_DESTINATION)) return null;
+        try {
+            return Integer.parseInt(destination.substring(PREFIX_OF_DESTINATION.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
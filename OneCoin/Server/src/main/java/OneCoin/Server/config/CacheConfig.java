@@ -0,0 +1,40 @@
+package OneCoin.Server.config;
+
+import OneCoin.Server.rank.service.RankSnapshotService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * <pre>
+ *     기간 순위, 순위 기록 캐시
+ *     서버마다 따로 가지는 캐시이므로 snapshot 을 저장한 서버만 바로 비워진다.
+ *     다른 서버는 TTL 이 지나면 다시 읽으므로, 항목 수와 TTL 로 크기와 오래된 정도를 제한한다.
+ *     @CacheEvict 는 트랜잭션 커밋 뒤에 실행된다.
+ * </pre>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    @Bean
+    public CacheManager cacheManager(@Value("${rank.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${rank.cache.ttl-seconds:600}") long ttlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds)));
+        cacheManager.setCacheNames(List.of(
+                RankSnapshotService.PERIOD_RANKS_CACHE,
+                RankSnapshotService.RANK_HISTORIES_CACHE
+        ));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -1,6 +1,5 @@
 package OneCoin.Server.config;
 
-import OneCoin.Server.chat.listener.RedisListener;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,10 +8,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -27,24 +25,13 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int port;
 
+    /**
+     * 채팅방 channel 구독은 ChatRoomSubscriptionRegistry 가 이 서버의 구독자 수에 따라 추가, 해제한다.
+     */
     @Bean
-    public ChannelTopic channelTopic() {
-        return new ChannelTopic("chat");
-    }
-
-    @Bean
-    public MessageListenerAdapter listenerAdapterForSending(RedisListener listener) {
-        return new MessageListenerAdapter(listener, "sendMessage");
-    }
-
-    @Bean // Redis Channel(Topic)에서 메시지를 받고 주입된 리스너에게 비동기적으로 displat하는 컨테이너
-    public RedisMessageListenerContainer redisMessageListenerContainer(
-            RedisConnectionFactory connectionFactory,
-            MessageListenerAdapter listenerAdapter,
-            ChannelTopic channelTopic) {
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
-        container.addMessageListener(listenerAdapter, channelTopic);
         return container;
     }
 
@@ -63,4 +50,18 @@ public class RedisConfig {
         redisTemplate.setHashValueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
         return redisTemplate;
     }
+
+    /**
+     * 채팅 메시지는 ChatMessageCodec 으로 직접 encode 한 byte[] 를 그대로 저장한다.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> chatMessageRedisTemplate() {
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory());
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(RedisSerializer.byteArray());
+        return redisTemplate;
+    }
 }
@@ -0,0 +1,74 @@
+package OneCoin.Server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * <pre>
+ *     @Scheduled 는 trigger 용 scheduler 에서 실행되고,
+ *     실제 작업은 ScheduledJobRunner 를 통해 실시간 push(realtime), 무거운 작업(batch) pool 로 나눠 실행한다.
+ *     batch 작업이 오래 걸려도 realtime 작업의 실행 시점이 밀리지 않는다.
+ *     leader lease, cluster heartbeat 는 trigger 가 밀려 lease 가 끝나지 않도록 전용 heartbeatScheduler 에서 실행한다.
+ * </pre>
+ */
+@Configuration
+public class SchedulerConfig implements SchedulingConfigurer {
+    @Value("${scheduler.trigger.pool-size:2}")
+    private int triggerPoolSize;
+    @Value("${scheduler.realtime.pool-size:2}")
+    private int realtimePoolSize;
+    @Value("${scheduler.batch.pool-size:2}")
+    private int batchPoolSize;
+    @Value("${scheduler.heartbeat.pool-size:2}")
+    private int heartbeatPoolSize;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(triggerScheduler());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler triggerScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(triggerPoolSize);
+        scheduler.setThreadNamePrefix("Trigger-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler heartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(heartbeatPoolSize);
+        scheduler.setThreadNamePrefix("Heartbeat-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor realtimeJobExecutor() {
+        return createJobExecutor(realtimePoolSize, "Realtime-");
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor batchJobExecutor() {
+        return createJobExecutor(batchPoolSize, "Batch-");
+    }
+
+    private ThreadPoolTaskExecutor createJobExecutor(int poolSize, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(100); // 작업별로 동시에 하나만 들어오므로 작업 수를 넘지 않는다
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
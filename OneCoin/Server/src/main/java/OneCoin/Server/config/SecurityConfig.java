@@ -66,6 +66,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         .antMatchers(HttpMethod.GET, "/api/order/**").hasRole("USER")
                         .antMatchers(HttpMethod.POST, "/api/order/**").hasRole("USER")
+                        .antMatchers(HttpMethod.GET, "/api/ranks/me/**").hasRole("USER")
                         .antMatchers(HttpMethod.GET, "/ws/chat/**").permitAll()
                         .antMatchers(HttpMethod.POST, "/api/users").permitAll()
                         .antMatchers(HttpMethod.PATCH, "/api/users/**").hasRole("USER")
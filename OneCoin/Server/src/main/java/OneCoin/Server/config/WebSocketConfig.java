@@ -3,6 +3,7 @@ package OneCoin.Server.config;
 import OneCoin.Server.chat.controller.MessageInterceptor;
 import OneCoin.Server.chat.controller.RegisterController;
 import OneCoin.Server.config.auth.utils.UserUtilsForWebSocket;
+import OneCoin.Server.rateLimit.RateLimiter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -21,6 +22,7 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private final UserUtilsForWebSocket userUtilsForWebSocket;
     private final RegisterController registerController;
+    private final RateLimiter rateLimiter;
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -39,13 +41,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setApplicationDestinationPrefixes("/app");
         // /topic으로 시작하면 구독하는 것
         // 일단 여기서는 스프링에서 기본적으로 제공하는 simple broker를 사용
-        registry.enableSimpleBroker("/topic", "/info");
+        registry.enableSimpleBroker("/topic", "/info", "/queue");
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(new MessageInterceptor(
-                userUtilsForWebSocket, registerController));
+                userUtilsForWebSocket, registerController, rateLimiter));
     }
 
 
@@ -11,6 +11,7 @@ public class WebSocketSecurityConfig extends AbstractSecurityWebSocketMessageBro
         //TODO: 비공개 채팅방 개설시 수정 필요
         messages
                 .simpSubscribeDestMatchers("/topic/**").permitAll() //구독은 누구나
+                .simpSubscribeDestMatchers("/user/queue/**").hasRole("USER") //유저별 알림은 유저만
                 .simpDestMatchers("/app/**").hasRole("USER"); //발행은 유저만
     }
 
@@ -6,7 +6,6 @@ import OneCoin.Server.config.auth.utils.UserUtilsForWebSocket;
 import OneCoin.Server.user.entity.Role;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
@@ -43,7 +42,7 @@ public class WebSocketAuthService {
 
     private Authentication getAuthentication(Map<String, Object> claims) {
         List<GrantedAuthority> authorities = customAuthorityUtils.createAuthorities(Role.valueOf((String) claims.get("roles")));
-        Authentication authentication = new UsernamePasswordAuthenticationToken(claims, null, authorities);
+        Authentication authentication = new WebSocketAuthenticationToken(claims, authorities);
         return authentication;
     }
 }
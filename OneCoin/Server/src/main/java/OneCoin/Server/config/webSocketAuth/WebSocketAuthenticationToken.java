@@ -0,0 +1,24 @@
+package OneCoin.Server.config.webSocketAuth;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     getName() 이 userId 를 반환한다.
+ *     /user/queue/** 로 유저별 메시지를 보낼 때 userId 로 세션을 찾는다.
+ * </pre>
+ */
+public class WebSocketAuthenticationToken extends UsernamePasswordAuthenticationToken {
+    public WebSocketAuthenticationToken(Map<String, Object> claims, Collection<? extends GrantedAuthority> authorities) {
+        super(claims, null, authorities);
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(((Map<?, ?>) getPrincipal()).get("id"));
+    }
+}
@@ -8,6 +8,7 @@ import OneCoin.Server.deposit.mapper.DepositMapper;
 import OneCoin.Server.deposit.service.DepositService;
 import OneCoin.Server.dto.PageResponseDto;
 import OneCoin.Server.dto.SingleResponseDto;
+import OneCoin.Server.utils.IdempotencyUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -29,22 +30,27 @@ public class DepositController {
     private final DepositService depositService;
     private final DepositMapper depositMapper;
     private final BalanceService balanceService;
+    private final IdempotencyUtil idempotencyUtil;
 
-    public DepositController(DepositService depositService, DepositMapper depositMapper, BalanceService balanceService) {
+    public DepositController(DepositService depositService, DepositMapper depositMapper, BalanceService balanceService, IdempotencyUtil idempotencyUtil) {
         this.depositService = depositService;
         this.depositMapper = depositMapper;
         this.balanceService = balanceService;
+        this.idempotencyUtil = idempotencyUtil;
     }
 
     @PostMapping
     public ResponseEntity postDeposit(@Valid @RequestBody DepositDto.Post requestBody,
-                                      @AuthenticationPrincipal Map<String, Object> userInfo) {
-        Deposit deposit = depositMapper.depositPostToDeposit(requestBody);
-        Balance balance = balanceService.findBalanceByUserId(Long.parseLong(userInfo.get("id").toString()));
-        deposit.setBalance(balance);
-        Deposit createdDeposit = depositService.createDeposit(deposit);
+                                      @AuthenticationPrincipal Map<String, Object> userInfo,
+                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyUtil.execute(idempotencyKey, "POST /api/deposits", requestBody, () -> {
+            Deposit deposit = depositMapper.depositPostToDeposit(requestBody);
+            Balance balance = balanceService.findBalanceByUserId(Long.parseLong(userInfo.get("id").toString()));
+            deposit.setBalance(balance);
+            Deposit createdDeposit = depositService.createDeposit(deposit);
 
-        return new ResponseEntity(new SingleResponseDto<>(depositMapper.depositToDepositResponse(createdDeposit)), HttpStatus.CREATED);
+            return new ResponseEntity(new SingleResponseDto<>(depositMapper.depositToDepositResponse(createdDeposit)), HttpStatus.CREATED);
+        });
     }
 
     @GetMapping
@@ -5,6 +5,7 @@ import OneCoin.Server.balance.service.BalanceService;
 import OneCoin.Server.deposit.entity.Deposit;
 import OneCoin.Server.deposit.repository.DepositRepository;
 import OneCoin.Server.order.service.TransactionHistoryService;
+import OneCoin.Server.utils.UserLockUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.support.PagedListHolder;
 import org.springframework.data.domain.Page;
@@ -13,24 +14,32 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class DepositService {
     private final DepositRepository depositRepository;
     private final BalanceService balanceService;
     private final TransactionHistoryService transactionHistoryService;
+    private final UserLockUtil userLockUtil;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * <pre>
      *     입금
+     *     주문, 체결과 같은 유저 lock 으로 Balance 를 읽고-더하고-저장하는 구간을 직렬화한다.
+     *     lock 은 트랜잭션 밖에서 잡아 lock 을 기다리는 동안 DB connection 을 점유하지 않는다.
      * </pre>
      */
-    @Transactional
     public Deposit createDeposit(Deposit deposit) {
+        long userId = deposit.getBalance().getUser().getUserId();
+        return userLockUtil.executeWithLock(userId, () -> transactionTemplate.execute(status -> deposit(deposit)));
+    }
+
+    private Deposit deposit(Deposit deposit) {
         deposit.setBalance(balanceService.updateBalance(deposit));
         deposit.setRemainingBalance(deposit.getBalance().getBalance());
         transactionHistoryService.createTransactionHistoryByDeposit(deposit);
@@ -42,6 +51,7 @@ public class DepositService {
      *     balanceId 로 입금 목록 조회
      * </pre>
      */
+    @Transactional(readOnly = true)
     public Page<Deposit> findDepositsByBalanceId(Balance balance, int page, int size) {
         List<Deposit> depositList = depositRepository.findByBalance_BalanceId(balance.getBalanceId());
 
@@ -31,7 +31,15 @@ public enum ExceptionCode {
     UNDEFINED_PLATFORM(404, "Platform not found"),
     NOT_VALID_AUTHENTICATION(404, "Unvalid authentication"),
     NO_CHAT_IN_CACHE_EXIST(404, "No chat in cache"),
-    NO_CHAT_IN_RDB_EXIST(404, "No chat in RDB");;
+    NO_CHAT_IN_RDB_EXIST(404, "No chat in RDB"),
+    USER_LOCK_TIMEOUT(503, "Too many concurrent requests for this user"),
+    ID_GENERATOR_UNAVAILABLE(503, "Id generator is not available. Try again later."),
+    ORDER_QUEUE_FULL(429, "Too many orders. Try again later."),
+    ORDER_INTAKE_FAILED(500, "Failed to place the order. Try again later."),
+    IDEMPOTENCY_KEY_REUSED(422, "Idempotency-Key was already used for a different request"),
+    IDEMPOTENT_REQUEST_IN_PROGRESS(409, "A request with the same Idempotency-Key is still in progress"),
+    RATE_LIMIT_EXCEEDED(429, "Too many requests. Try again later."),
+    RANK_NOT_FOUND(404, "No rank yet");
 
     private final int code;
     private final String description;
@@ -1,10 +1,14 @@
 package OneCoin.Server.order.controller;
 
 import OneCoin.Server.dto.MultiResponseDto;
+import OneCoin.Server.dto.SingleResponseDto;
 import OneCoin.Server.order.dto.OrderDto;
 import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.OrderIntake;
 import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.order.service.OrderIntakeService;
 import OneCoin.Server.order.service.OrderService;
+import OneCoin.Server.utils.IdempotencyUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,15 +22,36 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
     private final OrderMapper mapper;
+    private final IdempotencyUtil idempotencyUtil;
 
     @PostMapping("/{code}")
     public ResponseEntity postOrder(@PathVariable("code") String code,
-                                    @Valid @RequestBody OrderDto.Post orderPostDto) {
-        Order order = mapper.postDtoToOrder(orderPostDto);
-        orderService.createOrder(order, code);
+                                    @Valid @RequestBody OrderDto.Post orderPostDto,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyUtil.execute(idempotencyKey, "POST /api/order/" + code, orderPostDto, () -> {
+            Order order = mapper.postDtoToOrder(orderPostDto);
+            if (orderIntakeService.isEnabled()) { // 비동기 접수: 결과는 /user/queue/orders 또는 GET /intake/{order-id} 로 확인
+                OrderIntake orderIntake = orderIntakeService.submit(order, code);
+                return new ResponseEntity(new SingleResponseDto<>(mapper.orderIntakeToResponse(orderIntake)), HttpStatus.ACCEPTED);
+            }
+            orderService.createOrder(order, code);
 
-        return new ResponseEntity(HttpStatus.CREATED);
+            return new ResponseEntity(HttpStatus.CREATED);
+        });
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity postOrders(@Valid @RequestBody OrderDto.BatchPost batchPostDto,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyUtil.execute(idempotencyKey, "POST /api/order/batch", batchPostDto, () -> {
+            List<Order> orders = mapper.postDtosToOrders(batchPostDto.getOrders());
+            List<Order> createdOrders = orderService.createOrders(orders, batchPostDto.getCode());
+            List<OrderDto.GetResponse> responseDto = mapper.orderToGetResponse(createdOrders);
+
+            return new ResponseEntity(new MultiResponseDto<>(responseDto), HttpStatus.CREATED);
+        });
     }
 
     @GetMapping("/non-trading")
@@ -37,6 +62,20 @@ public class OrderController {
         return new ResponseEntity(new MultiResponseDto<>(responseDto), HttpStatus.OK);
     }
 
+    @GetMapping("/intake/{order-id}")
+    public ResponseEntity getOrderIntake(@PathVariable("order-id") long orderId) {
+        OrderIntake orderIntake = orderIntakeService.findOrderIntake(orderId);
+
+        return new ResponseEntity(new SingleResponseDto<>(mapper.orderIntakeToResponse(orderIntake)), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/non-trading")
+    public ResponseEntity deleteNonTradingOrders(@RequestParam(value = "code", required = false) String code) {
+        orderService.cancelOrders(code);
+
+        return new ResponseEntity(HttpStatus.NO_CONTENT);
+    }
+
     @DeleteMapping("/non-trading/{order-id}")
     public ResponseEntity deleteNonTradingOrder(@PathVariable("order-id") long orderId) {
         orderService.cancelOrder(orderId);
@@ -6,8 +6,13 @@ import OneCoin.Server.validator.Price;
 import lombok.Getter;
 import lombok.Setter;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 public class OrderDto {
     @Getter
@@ -32,6 +37,18 @@ public class OrderDto {
         private String orderType;
     }
 
+    @Getter
+    @Setter
+    public static class BatchPost {
+        @NotBlank(message = "빈 필드는 허용하지 않습니다.")
+        private String code;
+
+        @NotEmpty(message = "빈 필드는 허용하지 않습니다.")
+        @Size(max = 50, message = "한 번에 최대 50개까지 주문할 수 있습니다.")
+        @Valid
+        private List<Post> orders;
+    }
+
     @Getter
     @Setter
     public static class GetResponse {
@@ -45,4 +62,22 @@ public class OrderDto {
         private String amount;
         private String completedAmount;
     }
+
+    @Getter
+    @Setter
+    public static class IntakeResponse {
+        private long orderId;
+        private String code;
+        private String status;
+        private String message;
+    }
+
+    @Getter
+    @Setter
+    public static class Event {
+        private String eventType; // FILLED, PARTIALLY_FILLED, CANCELED
+        private GetResponse order;
+        private String walletDelta;
+        private String balanceDelta;
+    }
 }
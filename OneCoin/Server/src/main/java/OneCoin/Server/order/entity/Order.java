@@ -16,9 +16,8 @@ import java.time.LocalDateTime;
 @RedisHash("order")
 public class Order {
     @Id
-    private Integer orderId;
+    private Long orderId;
 
-    @Indexed
     private BigDecimal limit;
 
     private BigDecimal market;
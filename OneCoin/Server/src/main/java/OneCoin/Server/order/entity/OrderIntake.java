@@ -0,0 +1,20 @@
+package OneCoin.Server.order.entity;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderIntake {
+    private Long orderId;
+
+    private Long userId;
+
+    private String code;
+
+    private String status; // PENDING, ACCEPTED, REJECTED
+
+    private String message; // 거절 사유
+}
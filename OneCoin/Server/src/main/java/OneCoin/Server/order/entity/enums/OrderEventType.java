@@ -0,0 +1,14 @@
+package OneCoin.Server.order.entity.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+public enum OrderEventType {
+    FILLED("FILLED"),
+    PARTIALLY_FILLED("PARTIALLY_FILLED"),
+    CANCELED("CANCELED");
+
+    @Getter
+    private final String type;
+}
@@ -0,0 +1,14 @@
+package OneCoin.Server.order.entity.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+public enum OrderIntakeStatus {
+    PENDING("PENDING"),
+    ACCEPTED("ACCEPTED"),
+    REJECTED("REJECTED");
+
+    @Getter
+    private final String status;
+}
@@ -2,6 +2,7 @@ package OneCoin.Server.order.mapper;
 
 import OneCoin.Server.order.dto.OrderDto;
 import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.OrderIntake;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,5 +14,11 @@ public interface OrderMapper {
     @Mapping(target = "orderTime", expression = "java(java.time.LocalDateTime.now())")
     Order postDtoToOrder(OrderDto.Post postDto);
 
+    List<Order> postDtosToOrders(List<OrderDto.Post> postDtos);
+
+    OrderDto.GetResponse orderToGetResponse(Order order);
+
     List<OrderDto.GetResponse> orderToGetResponse(List<Order> orders);
+
+    OrderDto.IntakeResponse orderIntakeToResponse(OrderIntake orderIntake);
 }
@@ -0,0 +1,182 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ *     미체결 주문 가격 index
+ *     key : order-index:{code}:{orderType}, member : orderId, score : 지정가
+ *     실제 체결 가격과 교차하는 주문 id 만 범위 조회한다.
+ * </pre>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OrderIndexRepository {
+    private final String KEY_PREFIX = "order-index:";
+    private final String MIGRATED_KEY = "order-index:migrated";
+    private final String LEGACY_LIMIT_INDEX_PATTERN = "order:limit:*";
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderRepository orderRepository;
+    private ZSetOperations<String, String> operations;
+
+    @PostConstruct
+    private void init() {
+        operations = stringRedisTemplate.opsForZSet();
+        migrate();
+    }
+
+    public void add(Order order) {
+        operations.add(makeKey(order.getCode(), order.getOrderType()), String.valueOf(order.getOrderId()), order.getLimit().doubleValue());
+    }
+
+    public void remove(Order order) {
+        operations.remove(makeKey(order.getCode(), order.getOrderType()), String.valueOf(order.getOrderId()));
+    }
+
+    /**
+     * 여러 주문을 한 번의 pipeline 으로 추가한다.
+     */
+    public void addAll(List<Order> orders) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (Order order : orders) {
+                stringRedisConnection.zAdd(makeKey(order.getCode(), order.getOrderType()), order.getLimit().doubleValue(), String.valueOf(order.getOrderId()));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 여러 주문을 한 번의 pipeline 으로 삭제한다.
+     */
+    public void removeAll(List<Order> orders) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (Order order : orders) {
+                stringRedisConnection.zRem(makeKey(order.getCode(), order.getOrderType()), String.valueOf(order.getOrderId()));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * <pre>
+     *     매수 : 지정가 >= 체결 가격
+     *     매도 : 지정가 <= 체결 가격
+     *     double 변환은 단조 증가이므로 교차하는 주문이 누락되지 않는다. (정확한 비교는 호출하는 쪽에서 BigDecimal 로)
+     * </pre>
+     */
+    public List<Long> findCrossingOrderIds(String code, String orderType, BigDecimal tradePrice) {
+        String key = makeKey(code, orderType);
+        double price = tradePrice.doubleValue();
+        Set<String> members = orderType.equals(TransactionType.BID.getType())
+                ? operations.rangeByScore(key, price, Double.POSITIVE_INFINITY)
+                : operations.rangeByScore(key, Double.NEGATIVE_INFINITY, price);
+
+        List<Long> orderIds = new ArrayList<>();
+        if (members == null) {
+            return orderIds;
+        }
+        for (String member : members) {
+            orderIds.add(Long.parseLong(member));
+        }
+        return orderIds;
+    }
+
+    /**
+     * 주문 id 를 ZSCAN 으로 batchSize 개씩 나눠 전달한다.
+     */
+    public void scanOrderIds(String code, String orderType, int batchSize, Consumer<List<Long>> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        List<Long> orderIds = new ArrayList<>();
+        try (Cursor<ZSetOperations.TypedTuple<String>> cursor = operations.scan(makeKey(code, orderType), options)) {
+            while (cursor.hasNext()) {
+                orderIds.add(Long.parseLong(cursor.next().getValue()));
+                if (orderIds.size() == batchSize) {
+                    consumer.accept(orderIds);
+                    orderIds = new ArrayList<>();
+                }
+            }
+        }
+        if (!orderIds.isEmpty()) {
+            consumer.accept(orderIds);
+        }
+    }
+
+    public void removeByOrderIds(String code, String orderType, List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Object[] members = orderIds.stream().map(String::valueOf).toArray();
+        operations.remove(makeKey(code, orderType), members);
+    }
+
+    public void deleteAll() {
+        List<String> keys = scanKeys(KEY_PREFIX + "*:*");
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+
+    private String makeKey(String code, String orderType) {
+        return KEY_PREFIX + code + ":" + orderType;
+    }
+
+    /**
+     * <pre>
+     *     기존 미체결 주문으로 index 를 한 번 채우고, 사용하지 않는 @Indexed limit index key 를 삭제한다.
+     *     완료 표시는 모두 끝난 뒤에 남기므로, 중간에 실패하면 다음 시작 때 다시 실행한다. (여러 번 실행해도 결과는 같다)
+     * </pre>
+     */
+    private void migrate() {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(MIGRATED_KEY))) {
+            return;
+        }
+        int count = 0;
+        for (Order order : orderRepository.findAll()) {
+            if (order.getLimit() == null || order.getOrderType() == null || order.getCode() == null) {
+                continue;
+            }
+            add(order);
+            count++;
+        }
+        List<String> legacyKeys = scanKeys(LEGACY_LIMIT_INDEX_PATTERN);
+        if (!legacyKeys.isEmpty()) {
+            stringRedisTemplate.delete(legacyKeys);
+        }
+        stringRedisTemplate.opsForValue().set(MIGRATED_KEY, "1");
+        log.info("[ORDER] {} open orders indexed by price", count);
+    }
+
+    private List<String> scanKeys(String pattern) {
+        return stringRedisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return keys;
+        });
+    }
+}
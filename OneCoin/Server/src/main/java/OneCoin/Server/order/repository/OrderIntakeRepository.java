@@ -0,0 +1,68 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.OrderIntake;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <pre>
+ *     비동기 주문 접수 상태
+ *     key : order-intake:{orderId}, 일정 시간이 지나면 만료된다.
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderIntakeRepository {
+    private final String KEY_PREFIX = "order-intake:";
+    private final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+    private final StringRedisTemplate stringRedisTemplate;
+    private HashOperations<String, String, String> operations;
+
+    @PostConstruct
+    private void init() {
+        operations = stringRedisTemplate.opsForHash();
+    }
+
+    public void save(OrderIntake orderIntake) {
+        String key = makeKey(orderIntake.getOrderId());
+        Map<String, String> fields = new HashMap<>();
+        fields.put("userId", String.valueOf(orderIntake.getUserId()));
+        fields.put("code", orderIntake.getCode());
+        fields.put("status", orderIntake.getStatus());
+        if (orderIntake.getMessage() != null) {
+            fields.put("message", orderIntake.getMessage());
+        }
+        operations.putAll(key, fields);
+        stringRedisTemplate.expire(key, TIME_TO_LIVE);
+    }
+
+    public Optional<OrderIntake> findById(long orderId) {
+        Map<String, String> fields = operations.entries(makeKey(orderId));
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(OrderIntake.builder()
+                .orderId(orderId)
+                .userId(Long.parseLong(fields.get("userId")))
+                .code(fields.get("code"))
+                .status(fields.get("status"))
+                .message(fields.get("message"))
+                .build());
+    }
+
+    public void delete(long orderId) {
+        stringRedisTemplate.delete(makeKey(orderId));
+    }
+
+    private String makeKey(long orderId) {
+        return KEY_PREFIX + orderId;
+    }
+}
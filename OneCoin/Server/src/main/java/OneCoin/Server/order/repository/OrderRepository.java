@@ -8,6 +8,8 @@ import java.util.List;
 public interface OrderRepository extends CrudRepository<Order, Long> {
     List<Order> findAllByUserId(Long userId);
 
+    List<Order> findAllByUserIdAndCode(Long userId, String code);
+
     List<Order> findAllByOrderTypeAndCode(String orderType, String code);
 
     List<Order> findAllByUserIdAndOrderTypeAndCode(Long userId, String orderType, String code);
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -43,4 +44,26 @@ public interface TransactionHistoryRepository extends JpaRepository<TransactionH
             "GROUP BY " +
             "   t.user")
     List<UserRoi> findAllSumOfAskSettledAmount();
+
+    @Query("SELECT " +
+            "   new OneCoin.Server.rank.dao.UserRoi(t.user.userId, t.user.displayName, SUM(t.settledAmount))" +
+            "FROM " +
+            "   TransactionHistory t " +
+            "WHERE " +
+            "   t.transactionType = 'BID' " +
+            "   AND t.user.userId BETWEEN :fromUserId AND :toUserId " +
+            "GROUP BY " +
+            "   t.user")
+    List<UserRoi> findSumOfBidSettledAmountByUserIdBetween(@Param("fromUserId") long fromUserId, @Param("toUserId") long toUserId);
+
+    @Query("SELECT " +
+            "   new OneCoin.Server.rank.dao.UserRoi(t.user.userId, SUM(t.settledAmount))" +
+            "FROM " +
+            "   TransactionHistory t " +
+            "WHERE " +
+            "   t.transactionType = 'ASK' " +
+            "   AND t.user.userId BETWEEN :fromUserId AND :toUserId " +
+            "GROUP BY " +
+            "   t.user")
+    List<UserRoi> findSumOfAskSettledAmountByUserIdBetween(@Param("fromUserId") long fromUserId, @Param("toUserId") long toUserId);
 }
@@ -1,13 +1,241 @@
 package OneCoin.Server.order.repository;
 
 import OneCoin.Server.order.entity.Wallet;
-import org.springframework.data.repository.CrudRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
-public interface WalletRepository extends CrudRepository<Wallet, Long> {
-    Optional<Wallet> findByUserIdAndCode(long userId, String code);
+/**
+ * <pre>
+ *     유저별 wallet 을 하나의 Hash 로 저장한다.
+ *     key : wallets:{userId}, field : 코인 코드, value : "보유 수량,평단가"
+ *     유저의 wallet 조회(단건, 전체)가 한 번의 요청으로 끝난다.
+ *     코인별 보유 유저 index : wallet-holders:{code} (Set, member : userId)
+ *     wallet 과 index 는 Lua 로 한 번에 변경해, 한쪽만 반영된 상태가 남지 않는다.
+ * </pre>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class WalletRepository {
+    /**
+     * KEYS[1] : wallets:{userId}, KEYS[2] : wallet-holders:{code}
+     * ARGV[1] : 코인 코드, ARGV[2] : "보유 수량,평단가", ARGV[3] : userId
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) " +
+            "return redis.call('SADD', KEYS[2], ARGV[3])", Long.class);
+    /**
+     * KEYS[1] : wallets:{userId}, KEYS[2] : wallet-holders:{code}
+     * ARGV[1] : 코인 코드, ARGV[2] : userId
+     */
+    private static final RedisScript<Long> DELETE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "return redis.call('SREM', KEYS[2], ARGV[2])", Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0", Long.class);
+    private final String KEY_PREFIX = "wallets:";
+    private final String HOLDERS_KEY_PREFIX = "wallet-holders:";
+    private final String HOLDERS_INDEXED_KEY = "wallet-holders:indexed";
+    private final String MIGRATION_LEASE_KEY = "wallet-holders:migration-lease";
+    private final Duration MIGRATION_LEASE = Duration.ofMinutes(5);
+    private final String LEGACY_KEYSPACE = "wallet";
+    private final String DELIMITER = ",";
+    private final StringRedisTemplate stringRedisTemplate;
+    private HashOperations<String, String, String> operations;
 
-    List<Wallet> findAllByUserId(long userId);
+    @PostConstruct
+    private void init() {
+        operations = stringRedisTemplate.opsForHash();
+        migrate();
+    }
+
+    public Wallet save(Wallet wallet) {
+        stringRedisTemplate.execute(SAVE_SCRIPT, List.of(makeKey(wallet.getUserId()), makeHoldersKey(wallet.getCode())),
+                wallet.getCode(), pack(wallet), String.valueOf(wallet.getUserId()));
+        return wallet;
+    }
+
+    public void delete(Wallet wallet) {
+        stringRedisTemplate.execute(DELETE_SCRIPT, List.of(makeKey(wallet.getUserId()), makeHoldersKey(wallet.getCode())),
+                wallet.getCode(), String.valueOf(wallet.getUserId()));
+    }
+
+    public Optional<Wallet> findByUserIdAndCode(long userId, String code) {
+        String value = operations.get(makeKey(userId), code);
+        if (value == null) {
+            return Optional.empty();
+        }
+        return Optional.of(unpack(userId, code, value));
+    }
+
+    public List<Wallet> findAllByUserId(long userId) {
+        Map<String, String> entries = operations.entries(makeKey(userId));
+        List<Wallet> wallets = new ArrayList<>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            wallets.add(unpack(userId, entry.getKey(), entry.getValue()));
+        }
+        return wallets;
+    }
+
+    public List<Wallet> findAll() {
+        List<Wallet> wallets = new ArrayList<>();
+        for (String key : scanKeys(KEY_PREFIX + "*")) {
+            wallets.addAll(findAllByUserId(parseUserId(key)));
+        }
+        return wallets;
+    }
+
+    /**
+     * 해당 코인을 보유한 유저 id
+     */
+    public Set<Long> findUserIdsByCode(String code) {
+        Set<String> members = stringRedisTemplate.opsForSet().members(makeHoldersKey(code));
+        Set<Long> userIds = new HashSet<>();
+        if (members == null) {
+            return userIds;
+        }
+        for (String member : members) {
+            userIds.add(Long.parseLong(member));
+        }
+        return userIds;
+    }
+
+    public void deleteAll() {
+        List<String> keys = scanKeys(KEY_PREFIX + "*");
+        keys.addAll(scanKeys(HOLDERS_KEY_PREFIX + "KRW-*"));
+        keys.add(HOLDERS_INDEXED_KEY);
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+
+    private String makeKey(long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private String makeHoldersKey(String code) {
+        return HOLDERS_KEY_PREFIX + code;
+    }
+
+    private long parseUserId(String key) {
+        return Long.parseLong(key.substring(KEY_PREFIX.length()));
+    }
+
+    private String pack(Wallet wallet) {
+        return wallet.getAmount().toPlainString() + DELIMITER + wallet.getAveragePrice().toPlainString();
+    }
+
+    private Wallet unpack(long userId, String code, String value) {
+        int index = value.indexOf(DELIMITER);
+        return Wallet.builder()
+                .amount(new BigDecimal(value.substring(0, index)))
+                .averagePrice(new BigDecimal(value.substring(index + 1)))
+                .userId(userId)
+                .code(code)
+                .build();
+    }
+
+    private List<String> scanKeys(String pattern) {
+        return stringRedisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return keys;
+        });
+    }
+
+    /**
+     * <pre>
+     *     여러 서버 중 lease 를 얻은 한 곳에서만 한 번 실행한다.
+     *     먼저 옮긴 서버가 체결로 바꾼 wallet 을 다른 서버가 이전 값으로 덮어쓰지 않도록, lease 를 얻은 뒤 완료 표시를 다시 확인한다.
+     *     완료 표시는 모두 끝난 뒤에 남기므로, 중간에 실패하면 다음 시작 때 다시 실행한다.
+     * </pre>
+     */
+    private void migrate() {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(HOLDERS_INDEXED_KEY))) {
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(MIGRATION_LEASE_KEY, token, MIGRATION_LEASE))) {
+            return;
+        }
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(HOLDERS_INDEXED_KEY))) {
+                return;
+            }
+            migrateLegacyWallets();
+            indexHolders();
+            stringRedisTemplate.opsForValue().set(HOLDERS_INDEXED_KEY, "1");
+        } finally {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(MIGRATION_LEASE_KEY), token);
+        }
+    }
+
+    /**
+     * <pre>
+     *     기존 @RedisHash("wallet") 형태로 저장된 wallet 을 새 구조로 옮기고
+     *     wallet:{id}, wallet:userId:*, wallet:code:* 등의 index key 를 삭제한다.
+     * </pre>
+     */
+    private void migrateLegacyWallets() {
+        Set<String> walletIds = stringRedisTemplate.opsForSet().members(LEGACY_KEYSPACE);
+        if (walletIds == null || walletIds.isEmpty()) {
+            return;
+        }
+        for (String walletId : walletIds) {
+            Map<String, String> legacy = operations.entries(LEGACY_KEYSPACE + ":" + walletId);
+            if (legacy.get("userId") == null || legacy.get("code") == null) {
+                continue;
+            }
+            Wallet wallet = Wallet.builder()
+                    .amount(new BigDecimal(legacy.get("amount")))
+                    .averagePrice(new BigDecimal(legacy.get("averagePrice")))
+                    .userId(Long.parseLong(legacy.get("userId")))
+                    .code(legacy.get("code"))
+                    .build();
+            save(wallet);
+        }
+        List<String> legacyKeys = scanKeys(LEGACY_KEYSPACE + ":*");
+        legacyKeys.add(LEGACY_KEYSPACE);
+        stringRedisTemplate.delete(legacyKeys);
+        log.info("[WALLET] {} legacy wallets migrated", walletIds.size());
+    }
+
+    /**
+     * 보유 유저 index 가 생기기 전에 저장된 wallet 을 index 에 반영한다.
+     */
+    private void indexHolders() {
+        List<Wallet> wallets = findAll();
+        for (Wallet wallet : wallets) {
+            stringRedisTemplate.opsForSet().add(makeHoldersKey(wallet.getCode()), String.valueOf(wallet.getUserId()));
+        }
+        log.info("[WALLET] {} wallets indexed by holder", wallets.size());
+    }
 }
@@ -0,0 +1,89 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.dto.MultiResponseDto;
+import OneCoin.Server.order.dto.OrderDto;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.OrderEventType;
+import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.utils.ScheduledJobRunner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ *     체결, 부분 체결, 취소 이벤트를 OrderMessageRelay 를 통해 /user/queue/orders 로 전송한다.
+ *     이벤트는 유저별로 모았다가 주기적으로 한 번에 보낸다. (체결이 몰릴 때 메시지 수 감소)
+ *     트랜잭션 안에서 발행된 이벤트는 커밋된 뒤에만 큐에 넣는다. (롤백된 변경은 전송하지 않음)
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventPublisher {
+    private final OrderMapper mapper;
+    private final OrderMessageRelay orderMessageRelay;
+    private final ScheduledJobRunner scheduledJobRunner;
+    private final Map<Long, List<OrderDto.Event>> pendingEvents = new ConcurrentHashMap<>();
+
+    /**
+     * @param walletDelta  보유 코인 수량 변화량
+     * @param balanceDelta 원화 잔액 변화량
+     */
+    public void publish(OrderEventType eventType, Order order, BigDecimal walletDelta, BigDecimal balanceDelta) {
+        OrderDto.Event event = new OrderDto.Event();
+        event.setEventType(eventType.getType());
+        event.setOrder(mapper.orderToGetResponse(order)); // 이후 order 가 변경되어도 영향이 없도록 바로 복사
+        event.setWalletDelta(walletDelta.toPlainString());
+        event.setBalanceDelta(balanceDelta.toPlainString());
+
+        long userId = order.getUserId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(userId, event);
+                }
+            });
+            return;
+        }
+        enqueue(userId, event);
+    }
+
+    /**
+     * <pre>
+     *     추가와 flush 의 remove 가 같은 key 의 lock 으로 직렬화되므로,
+     *     remove 로 꺼낸 리스트에는 더 이상 이벤트가 추가되지 않는다.
+     * </pre>
+     */
+    private void enqueue(long userId, OrderDto.Event event) {
+        pendingEvents.compute(userId, (key, events) -> {
+            List<OrderDto.Event> queue = events == null ? new ArrayList<>() : events;
+            queue.add(event);
+            return queue;
+        });
+    }
+
+    @Scheduled(fixedDelay = 200)
+    public void flushPeriodically() {
+        scheduledJobRunner.run("order-event-flush", ScheduledJobRunner.Pool.REALTIME, Duration.ofMillis(200), this::flush);
+    }
+
+    public void flush() {
+        for (Long userId : pendingEvents.keySet()) {
+            List<OrderDto.Event> events = pendingEvents.remove(userId); // 보낸 유저는 map 에서 제거
+            if (events == null || events.isEmpty()) {
+                continue;
+            }
+            orderMessageRelay.send(userId, new MultiResponseDto<>(events));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.config.auth.utils.LoggedInUserInfoUtils;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.OrderIntake;
+import OneCoin.Server.order.entity.enums.OrderIntakeStatus;
+import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.order.repository.OrderIntakeRepository;
+import OneCoin.Server.utils.IdGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ *     비동기 주문 접수 (order.async-intake.enabled=true 일 때만 사용)
+ *     요청 스레드에서는 검증 후 마켓별 큐에 넣고 주문 id 를 바로 반환한다.
+ *     마켓별 단일 스레드가 순서대로 주문을 처리하고, 결과는 OrderMessageRelay 를 통해 /user/queue/orders 로 전송한다.
+ *     큐가 가득 차면 429 를 반환한다.
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderIntakeService {
+    private final OrderService orderService;
+    private final CoinService coinService;
+    private final LoggedInUserInfoUtils loggedInUserInfoUtils;
+    private final IdGenerator idGenerator;
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderMapper mapper;
+    private final OrderMessageRelay orderMessageRelay;
+    private final Map<String, ThreadPoolTaskExecutor> marketQueues = new ConcurrentHashMap<>();
+
+    @Value("${order.async-intake.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.async-intake.queue-capacity:500}")
+    private int queueCapacity;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public OrderIntake submit(Order order, String code) {
+        long userId = loggedInUserInfoUtils.extractUserId();
+        coinService.verifyCoinExists(code);
+        order.setOrderId(idGenerator.nextId());
+
+        OrderIntake orderIntake = OrderIntake.builder()
+                .orderId(order.getOrderId())
+                .userId(userId)
+                .code(code)
+                .status(OrderIntakeStatus.PENDING.getStatus())
+                .build();
+        orderIntakeRepository.save(orderIntake);
+
+        try {
+            getMarketQueue(code).execute(() -> place(order, code, orderIntake));
+        } catch (TaskRejectedException e) {
+            orderIntakeRepository.delete(order.getOrderId());
+            throw new BusinessLogicException(ExceptionCode.ORDER_QUEUE_FULL);
+        }
+        return orderIntake;
+    }
+
+    public OrderIntake findOrderIntake(long orderId) {
+        long userId = loggedInUserInfoUtils.extractUserId();
+        OrderIntake orderIntake = orderIntakeRepository.findById(orderId)
+                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.NO_EXISTS_ORDER));
+        if (orderIntake.getUserId() != userId) {
+            throw new BusinessLogicException(ExceptionCode.NOT_YOUR_ORDER);
+        }
+        return orderIntake;
+    }
+
+    private void place(Order order, String code, OrderIntake orderIntake) {
+        try {
+            orderService.placeOrder(order, code, orderIntake.getUserId());
+            orderIntake.setStatus(OrderIntakeStatus.ACCEPTED.getStatus());
+        } catch (BusinessLogicException e) {
+            orderIntake.setStatus(OrderIntakeStatus.REJECTED.getStatus());
+            orderIntake.setMessage(e.getExceptionCode().getDescription());
+        } catch (Exception e) { // 내부 예외 메시지는 유저에게 보내지 않는다
+            log.error("[ORDER] intake failed {}", orderIntake.getOrderId(), e);
+            orderIntake.setStatus(OrderIntakeStatus.REJECTED.getStatus());
+            orderIntake.setMessage(ExceptionCode.ORDER_INTAKE_FAILED.getDescription());
+        }
+        orderIntakeRepository.save(orderIntake);
+        orderMessageRelay.send(orderIntake.getUserId(), mapper.orderIntakeToResponse(orderIntake));
+    }
+
+    private ThreadPoolTaskExecutor getMarketQueue(String code) {
+        return marketQueues.computeIfAbsent(code, key -> {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(1);
+            executor.setMaxPoolSize(1);
+            executor.setQueueCapacity(queueCapacity);
+            executor.setThreadNamePrefix("Order-" + key + "-");
+            executor.initialize();
+            return executor;
+        });
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        marketQueues.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+}
@@ -0,0 +1,75 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ *     /user/queue/orders 로 보낼 메시지를 order:user-messages channel 로 발행한다.
+ *     체결은 leader 에서만 일어나지만 유저의 WebSocket 세션은 어느 서버에나 있을 수 있으므로,
+ *     모든 서버가 channel 을 구독하고 자기 서버에 접속한 유저에게만 전달한다.
+ *     발행 형식은 "{userId}:{JSON}" 이고, 받은 쪽은 JSON 을 객체로 바꾸지 않고 그대로 보낸다.
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderMessageRelay implements MessageListener {
+    public static final String CHANNEL = "order:user-messages";
+    private final String DESTINATION = "/queue/orders";
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final JsonUtil jsonUtil;
+
+    @PostConstruct
+    private void init() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public void send(long userId, Object payload) {
+        stringRedisTemplate.convertAndSend(CHANNEL, userId + ":" + jsonUtil.toJson(payload));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        byte[] body = message.getBody();
+        int separator = indexOfSeparator(body);
+        if (separator < 0) {
+            log.warn("[ORDER] malformed user message");
+            return;
+        }
+        String userId = new String(body, 0, separator, StandardCharsets.UTF_8);
+        byte[] json = Arrays.copyOfRange(body, separator + 1, body.length);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        simpMessagingTemplate.send(simpMessagingTemplate.getUserDestinationPrefix() + userId + DESTINATION,
+                MessageBuilder.createMessage(json, accessor.getMessageHeaders()));
+    }
+
+    private int indexOfSeparator(byte[] body) {
+        for (int i = 0; i < body.length; i++) {
+            if (body[i] == ':') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -7,48 +7,143 @@ import OneCoin.Server.exception.BusinessLogicException;
 import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.OrderEventType;
 import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.OrderIndexRepository;
 import OneCoin.Server.order.repository.OrderRepository;
 import OneCoin.Server.user.entity.User;
 import OneCoin.Server.utils.CalculationUtil;
+import OneCoin.Server.utils.IdGenerator;
+import OneCoin.Server.utils.UserLockUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * <pre>
+ *     유저 lock 은 트랜잭션 밖에서 잡고, lock 안에서 TransactionTemplate 으로 트랜잭션을 연다.
+ *     lock 을 기다리는 동안 DB connection 을 들고 있지 않고, 커밋된 뒤에 lock 이 풀린다.
+ * </pre>
+ */
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
+    private final OrderIndexRepository orderIndexRepository;
     private final CoinService coinService;
     private final WalletService walletService;
     private final LoggedInUserInfoUtils loggedInUserInfoUtils;
     private final CalculationUtil calculationUtil;
     private final BalanceService balanceService;
     private final TransactionHistoryService transactionHistoryService;
+    private final UserLockUtil userLockUtil;
+    private final IdGenerator idGenerator;
+    private final OrderEventPublisher orderEventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public void createOrder(Order order, String code) {
         User user = loggedInUserInfoUtils.extractUser();
         coinService.verifyCoinExists(code);
-        long userId = user.getUserId();
+        order.setOrderId(idGenerator.nextId());
+        placeOrder(order, code, user.getUserId());
+    }
+
+    /**
+     * <pre>
+     *     검증과 잔액 차감을 먼저 커밋한 뒤 Redis 에 주문을 저장한다.
+     *     Redis 저장이 실패하면 저장된 주문을 지우고 차감한 잔액을 돌려준다.
+     * </pre>
+     */
+    public void placeOrder(Order order, String code, long userId) {
         BigDecimal amount = order.getAmount();
+        order.setUserId(userId);
+        order.setCode(code);
+
+        userLockUtil.executeWithLock(userId, () -> {
+            BigDecimal debit = transactionTemplate.execute(status -> {
+                if (order.getOrderType().equals(TransactionType.ASK.getType())) { // 매도
+                    Wallet wallet = walletService.findVerifiedWalletWithCoin(userId, code);
+                    BigDecimal prevOrderAmount = getPrevAskOrderAmount(userId, code);
+                    checkUserCoinAmount(wallet, amount, prevOrderAmount);
+                }
+                if (order.getOrderType().equals(TransactionType.BID.getType())) { // 매수
+                    return subtractUserBalance(userId, order.getLimit(), amount);
+                }
+                return BigDecimal.ZERO;
+            });
+            saveOrders(userId, List.of(order), debit);
+        });
+    }
+
+    /**
+     * <pre>
+     *     여러 주문을 한 번에 생성한다.
+     *     같은 wallet, balance 기준으로 전체 주문을 검증하고 잔액은 한 번만 차감한다.
+     * </pre>
+     */
+    public List<Order> createOrders(List<Order> orders, String code) {
+        User user = loggedInUserInfoUtils.extractUser();
+        coinService.verifyCoinExists(code);
+        long userId = user.getUserId();
+        for (Order order : orders) {
+            order.setOrderId(idGenerator.nextId());
+            order.setUserId(userId);
+            order.setCode(code);
+        }
 
-        if (order.getOrderType().equals(TransactionType.ASK.getType())) { // 매도
+        userLockUtil.executeWithLock(userId, () -> {
+            BigDecimal debit = transactionTemplate.execute(status -> validateAndDebit(userId, code, orders));
+            saveOrders(userId, orders, debit);
+        });
+        return orders;
+    }
+
+    private BigDecimal validateAndDebit(long userId, String code, List<Order> orders) {
+        BigDecimal totalAskAmount = BigDecimal.ZERO;
+        BigDecimal totalBidPrice = BigDecimal.ZERO;
+        for (Order order : orders) {
+            if (order.getOrderType().equals(TransactionType.ASK.getType())) {
+                totalAskAmount = totalAskAmount.add(order.getAmount());
+            }
+            if (order.getOrderType().equals(TransactionType.BID.getType())) {
+                totalBidPrice = totalBidPrice.add(calculationUtil.calculateByAddingCommission(order.getLimit(), order.getAmount()));
+            }
+        }
+
+        if (totalAskAmount.compareTo(BigDecimal.ZERO) > 0) { // 매도
             Wallet wallet = walletService.findVerifiedWalletWithCoin(userId, code);
             BigDecimal prevOrderAmount = getPrevAskOrderAmount(userId, code);
-            checkUserCoinAmount(wallet, amount, prevOrderAmount);
+            checkUserCoinAmount(wallet, totalAskAmount, prevOrderAmount);
         }
-        if (order.getOrderType().equals(TransactionType.BID.getType())) { // 매수
-            BigDecimal price = order.getLimit();
-            subtractUserBalance(userId, price, amount);
+        if (totalBidPrice.compareTo(BigDecimal.ZERO) > 0) { // 매수
+            balanceService.updateBalanceByBid(userId, totalBidPrice);
+        }
+        return totalBidPrice;
+    }
+
+    /**
+     * <pre>
+     *     잔액 차감이 커밋된 뒤 Redis 에 주문과 인덱스를 저장한다.
+     *     중간에 실패하면 일부만 저장된 주문을 지우고 차감액을 새 트랜잭션으로 환불한 뒤 예외를 다시 던진다.
+     * </pre>
+     */
+    private void saveOrders(long userId, List<Order> orders, BigDecimal debit) {
+        try {
+            orderRepository.saveAll(orders);
+            orderIndexRepository.addAll(orders);
+        } catch (RuntimeException e) {
+            orderIndexRepository.removeAll(orders);
+            orderRepository.deleteAll(orders);
+            if (debit.compareTo(BigDecimal.ZERO) > 0) {
+                transactionTemplate.executeWithoutResult(status -> balanceService.updateBalanceByAskOrCancelBid(userId, debit));
+            }
+            throw e;
         }
-        order.setUserId(user.getUserId());
-        order.setCode(code);
-        orderRepository.save(order);
     }
 
     public void checkUserCoinAmount(Wallet wallet, BigDecimal orderAmount, BigDecimal prevOrderAmount) {
@@ -73,20 +168,63 @@ public class OrderService {
         return amount;
     }
 
-    private void subtractUserBalance(long userId, BigDecimal price, BigDecimal amount) {
+    private BigDecimal subtractUserBalance(long userId, BigDecimal price, BigDecimal amount) {
         BigDecimal totalBidPrice = calculationUtil.calculateByAddingCommission(price, amount);
         balanceService.updateBalanceByBid(userId, totalBidPrice);
+        return totalBidPrice;
     }
 
     public void cancelOrder(long orderId) {
-        Order order = findVerifiedOrder(orderId);
-        long userId = verifyUserOrder(order);
+        long userId = verifyUserOrder(findVerifiedOrder(orderId));
 
-        if (order.getOrderType().equals(TransactionType.BID.getType())) { // 매수 주문 취소 시 balance 환불
-            giveBalanceBack(userId, order.getLimit(), order.getAmount());
-        }
-        savePartialTradedOrdersToTransactionHistory(order);
-        orderRepository.delete(order);
+        userLockUtil.executeWithLock(userId, () -> transactionTemplate.executeWithoutResult(status -> {
+            Order order = findVerifiedOrder(orderId); // lock 을 잡기 전에 체결되었을 수 있으므로 다시 조회
+
+            BigDecimal refund = BigDecimal.ZERO;
+            if (order.getOrderType().equals(TransactionType.BID.getType())) { // 매수 주문 취소 시 balance 환불
+                refund = giveBalanceBack(userId, order.getLimit(), order.getAmount());
+            }
+            savePartialTradedOrdersToTransactionHistory(order);
+            orderRepository.delete(order);
+            orderIndexRepository.remove(order);
+            orderEventPublisher.publish(OrderEventType.CANCELED, order, BigDecimal.ZERO, refund);
+        }));
+    }
+
+    /**
+     * <pre>
+     *     미체결 주문을 모두 취소한다. (code 가 없으면 전체 코인)
+     *     매수 주문의 환불 금액은 합산해서 한 번에 돌려준다.
+     * </pre>
+     */
+    public void cancelOrders(String code) {
+        User user = loggedInUserInfoUtils.extractUser();
+        long userId = user.getUserId();
+
+        userLockUtil.executeWithLock(userId, () -> transactionTemplate.executeWithoutResult(status -> {
+            List<Order> orders = code == null
+                    ? orderRepository.findAllByUserId(userId)
+                    : orderRepository.findAllByUserIdAndCode(userId, code);
+            if (orders.isEmpty()) {
+                throw new BusinessLogicException(ExceptionCode.NO_EXISTS_ORDER);
+            }
+
+            BigDecimal totalRefund = BigDecimal.ZERO;
+            for (Order order : orders) {
+                BigDecimal refund = BigDecimal.ZERO;
+                if (order.getOrderType().equals(TransactionType.BID.getType())) {
+                    refund = calculationUtil.calculateByAddingCommission(order.getLimit(), order.getAmount());
+                    totalRefund = totalRefund.add(refund);
+                }
+                savePartialTradedOrdersToTransactionHistory(order);
+                orderEventPublisher.publish(OrderEventType.CANCELED, order, BigDecimal.ZERO, refund);
+            }
+            if (totalRefund.compareTo(BigDecimal.ZERO) > 0) {
+                balanceService.updateBalanceByAskOrCancelBid(userId, totalRefund);
+            }
+            orderRepository.deleteAll(orders);
+            orderIndexRepository.removeAll(orders);
+        }));
     }
 
     private Order findVerifiedOrder(long orderId) {
@@ -103,9 +241,10 @@ public class OrderService {
         return userId;
     }
 
-    private void giveBalanceBack(long userId, BigDecimal cancelPrice, BigDecimal cancelAmount) {
+    private BigDecimal giveBalanceBack(long userId, BigDecimal cancelPrice, BigDecimal cancelAmount) {
         BigDecimal totalCancelPrice = calculationUtil.calculateByAddingCommission(cancelPrice, cancelAmount);
         balanceService.updateBalanceByAskOrCancelBid(userId, totalCancelPrice);
+        return totalCancelPrice;
     }
 
     private void savePartialTradedOrdersToTransactionHistory(Order order) {
@@ -6,41 +6,85 @@ import OneCoin.Server.exception.BusinessLogicException;
 import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.OrderEventType;
+import OneCoin.Server.order.entity.enums.TransactionType;
 import OneCoin.Server.order.mapper.WalletMapper;
+import OneCoin.Server.order.repository.OrderIndexRepository;
 import OneCoin.Server.order.repository.OrderRepository;
 import OneCoin.Server.order.repository.WalletRepository;
+import OneCoin.Server.rank.repository.RankAggregateRepository;
 import OneCoin.Server.user.entity.User;
 import OneCoin.Server.utils.CalculationUtil;
+import OneCoin.Server.utils.UserLockUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class WalletService {
     private final WalletRepository walletRepository;
     private final OrderRepository orderRepository;
+    private final OrderIndexRepository orderIndexRepository;
     private final WalletMapper mapper;
     private final BalanceService balanceService;
     private final TransactionHistoryService transactionHistoryService;
     private final CalculationUtil calculationUtil;
     private final LoggedInUserInfoUtils loggedInUserInfoUtils;
+    private final UserLockUtil userLockUtil;
+    private final OrderEventPublisher orderEventPublisher;
+    private final RankAggregateRepository rankAggregateRepository;
+
+    public void completeBidOrder(Order order, BigDecimal tradeVolume) {
+        userLockUtil.executeWithLock(order.getUserId(), () -> {
+            Optional<Order> optionalOrder = orderRepository.findById(order.getOrderId());
+            if (optionalOrder.isEmpty()) { // 이미 취소 또는 체결된 주문
+                return;
+            }
+            Order currentOrder = optionalOrder.get();
+            Wallet findWallet = findMyWallet(currentOrder.getUserId(), currentOrder.getCode());
+
+            if (findWallet != null) {
+                updateWalletByBid(findWallet, currentOrder, tradeVolume);
+            } else {
+                createWallet(currentOrder, tradeVolume);
+            }
+        });
+    }
+
+    public void completeAskOrder(Order order, BigDecimal tradeVolume) {
+        userLockUtil.executeWithLock(order.getUserId(), () -> {
+            Optional<Order> optionalOrder = orderRepository.findById(order.getOrderId());
+            if (optionalOrder.isEmpty()) { // 이미 취소 또는 체결된 주문
+                return;
+            }
+            Order currentOrder = optionalOrder.get();
+            Wallet findWallet = findMyWallet(currentOrder.getUserId(), currentOrder.getCode());
+            updateWalletByAsk(findWallet, currentOrder, tradeVolume);
+        });
+    }
 
     public void createWallet(Order order, BigDecimal tradeVolume) {
+        OrderEventType eventType = fillEventType(order, tradeVolume);
         BigDecimal completedAmount = getCompletedAmount(order, tradeVolume);
         Wallet newWallet = mapper.bidOrderToNewWallet(order, completedAmount);
         walletRepository.save(newWallet);
+        publishFillEvent(eventType, order, completedAmount);
     }
 
     public void updateWalletByBid(Wallet wallet, Order order, BigDecimal tradeVolume) {
+        OrderEventType eventType = fillEventType(order, tradeVolume);
         BigDecimal completedAmount = getCompletedAmount(order, tradeVolume);
         Wallet updatedWallet = mapper.bidOrderToUpdatedWallet(wallet, order.getLimit(), completedAmount);
         walletRepository.save(updatedWallet);
+        publishFillEvent(eventType, order, completedAmount);
     }
 
     public void updateWalletByAsk(Wallet wallet, Order order, BigDecimal tradeVolume) {
+        OrderEventType eventType = fillEventType(order, tradeVolume);
         BigDecimal completedAmount = getCompletedAmount(order, tradeVolume);
         Wallet updatedWallet = mapper.askOrderToUpdatedWallet(wallet, completedAmount);
         if (verifyWalletAmountZero(updatedWallet)) {
@@ -49,8 +93,20 @@ public class WalletService {
             walletRepository.save(updatedWallet);
         }
         addUserBalance(order.getUserId(), order.getLimit(), completedAmount);
+        publishFillEvent(eventType, order, completedAmount);
+    }
+
+    private OrderEventType fillEventType(Order order, BigDecimal tradeVolume) {
+        if (order.getAmount().compareTo(tradeVolume) <= 0) {
+            return OrderEventType.FILLED;
+        }
+        return OrderEventType.PARTIALLY_FILLED;
     }
 
+    /**
+     * 주문 수량을 체결된 만큼 줄이고 체결 수량을 반환한다.
+     * 체결 이벤트는 wallet, balance 를 저장한 뒤에 발행하므로 여기서 발행하지 않는다.
+     */
     private BigDecimal getCompletedAmount(Order order, BigDecimal tradeVolume) {
         BigDecimal orderAmount = order.getAmount();
 
@@ -58,12 +114,36 @@ public class WalletService {
         if (comparison <= 0) {
             order.setCompletedAmount(order.getCompletedAmount().add(orderAmount));
             deleteCompletedOrder(order);
+            addRankAggregate(order, orderAmount);
             return orderAmount;
         }
         saveRemainingAmount(order, tradeVolume);
+        addRankAggregate(order, tradeVolume);
         return tradeVolume;
     }
 
+    /**
+     * 체결될 때마다 수익률 계산용 매수, 매도 총액을 누적한다.
+     */
+    private void addRankAggregate(Order order, BigDecimal completedAmount) {
+        if (order.getOrderType().equals(TransactionType.BID.getType())) {
+            BigDecimal totalBidPrice = calculationUtil.calculateByAddingCommission(order.getLimit(), completedAmount);
+            rankAggregateRepository.addBid(order.getUserId(), totalBidPrice);
+            return;
+        }
+        BigDecimal totalAskPrice = calculationUtil.calculateBySubtractingCommission(order.getLimit(), completedAmount);
+        rankAggregateRepository.addAsk(order.getUserId(), totalAskPrice);
+    }
+
+    private void publishFillEvent(OrderEventType eventType, Order order, BigDecimal completedAmount) {
+        if (order.getOrderType().equals(TransactionType.BID.getType())) { // 매수 대금은 주문 시 차감
+            orderEventPublisher.publish(eventType, order, completedAmount, BigDecimal.ZERO);
+            return;
+        }
+        BigDecimal totalAskPrice = calculationUtil.calculateBySubtractingCommission(order.getLimit(), completedAmount);
+        orderEventPublisher.publish(eventType, order, completedAmount.negate(), totalAskPrice);
+    }
+
     private void saveRemainingAmount(Order order, BigDecimal completedAmount) {
         order.setAmount(order.getAmount().subtract(completedAmount));
         order.setCompletedAmount(order.getCompletedAmount().add(completedAmount));
@@ -73,6 +153,7 @@ public class WalletService {
     private void deleteCompletedOrder(Order order) {
         transactionHistoryService.createTransactionHistoryByOrder(order);
         orderRepository.delete(order);
+        orderIndexRepository.remove(order);
     }
 
     private boolean verifyWalletAmountZero(Wallet wallet) {
@@ -1,29 +1,75 @@
 package OneCoin.Server.rank.controller;
 
+import OneCoin.Server.dto.MultiResponseDto;
+import OneCoin.Server.dto.SingleResponseDto;
+import OneCoin.Server.rank.dao.UserRoi;
 import OneCoin.Server.rank.dto.RankDto;
 import OneCoin.Server.rank.entity.Rank;
+import OneCoin.Server.rank.entity.RankSnapshot;
+import OneCoin.Server.rank.entity.enums.RankPeriod;
 import OneCoin.Server.rank.mapper.RankMapper;
 import OneCoin.Server.rank.service.RankService;
+import OneCoin.Server.rank.service.RankSnapshotService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/ranks")
+@Validated
 public class RankController {
     private final RankService rankService;
     private final RankMapper rankMapper;
+    private final RankSnapshotService rankSnapshotService;
 
     @GetMapping
-    public ResponseEntity getRanks() {
-        List<Rank> top10Roi = rankService.getTop10();
-        RankDto rankDto = rankMapper.userRoisToRankDtos(top10Roi);
+    public ResponseEntity getRanks(@Positive @RequestParam(name = "page", required = false, defaultValue = "1") int page,
+                                   @Positive @Max(100) @RequestParam(name = "size", required = false, defaultValue = "10") int size) {
+        List<UserRoi> userRois = rankService.findRois(page, size);
+        RankDto rankDto = rankMapper.userRoisToRankDto(userRois, page, size, rankService.countRankedUsers(), rankService.findReferenceDate());
         return new ResponseEntity(rankDto, HttpStatus.OK);
     }
+
+    @GetMapping("/me")
+    public ResponseEntity getMyRank(@AuthenticationPrincipal Map<String, Object> userInfo) {
+        Rank rank = rankService.findMyRank(Long.parseLong(userInfo.get("id").toString()));
+        return new ResponseEntity(new SingleResponseDto<>(rank), HttpStatus.OK);
+    }
+
+    /**
+     * 일간, 주간, 월간 수익률 순위 (하루 한 번 저장되는 snapshot 기준)
+     */
+    @GetMapping("/period")
+    public ResponseEntity getPeriodRanks(@RequestParam(name = "period", required = false, defaultValue = "DAY") RankPeriod period,
+                                         @Positive @RequestParam(name = "page", required = false, defaultValue = "1") int page,
+                                         @Positive @Max(100) @RequestParam(name = "size", required = false, defaultValue = "10") int size) {
+        LocalDate latestDate = rankSnapshotService.findLatestSnapshotDate();
+        List<UserRoi> periodRois = rankSnapshotService.findPeriodRois(period, latestDate);
+        int from = Math.min((page - 1) * size, periodRois.size());
+        int to = Math.min(from + size, periodRois.size());
+        RankDto rankDto = rankMapper.userRoisToRankDto(periodRois.subList(from, to), page, size, periodRois.size(),
+                latestDate == null ? null : latestDate.toString());
+        return new ResponseEntity(rankDto, HttpStatus.OK);
+    }
+
+    @GetMapping("/me/history")
+    public ResponseEntity getMyRankHistory(@AuthenticationPrincipal Map<String, Object> userInfo,
+                                           @Positive @Max(365) @RequestParam(name = "days", required = false, defaultValue = "30") int days) {
+        long userId = Long.parseLong(userInfo.get("id").toString());
+        List<RankSnapshot> snapshots = rankSnapshotService.findHistories(userId, days, rankSnapshotService.findLatestSnapshotDate());
+        return new ResponseEntity(new MultiResponseDto<>(rankMapper.snapshotsToHistories(snapshots)), HttpStatus.OK);
+    }
 }
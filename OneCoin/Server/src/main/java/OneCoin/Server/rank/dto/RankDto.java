@@ -1,5 +1,6 @@
 package OneCoin.Server.rank.dto;
 
+import OneCoin.Server.dto.PageInfo;
 import OneCoin.Server.rank.entity.Rank;
 import lombok.Builder;
 import lombok.Getter;
@@ -13,4 +14,13 @@ import java.util.List;
 public class RankDto {
     private String referenceDate;
     private List<Rank> users;
+    private PageInfo pageInfo;
+
+    @Getter
+    @Builder
+    public static class History {
+        private String snapshotDate;
+        private Integer rank;
+        private String roi;
+    }
 }
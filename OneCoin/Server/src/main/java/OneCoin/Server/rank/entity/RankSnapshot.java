@@ -0,0 +1,50 @@
+package OneCoin.Server.rank.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * <pre>
+ *     하루 한 번 저장하는 유저별 수익률 누적값
+ *     기간 수익률은 두 날짜의 snapshot 차이로 계산한다.
+ * </pre>
+ */
+@Entity
+@Table(
+        name = "RANK_SNAPSHOTS",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"userId", "snapshotDate"}),
+        indexes = @Index(columnList = "snapshotDate")
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long rankSnapshotId;
+
+    @Column(nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false, updatable = false)
+    private double sumOfBids; // 매수 총액
+
+    @Column(nullable = false, updatable = false)
+    private double sumOfAsks; // 매도 총액
+
+    @Column(nullable = false, updatable = false)
+    private double sumOfCurrentCoinValues; // 보유 코인 평가 금액
+
+    @Column(nullable = false, updatable = false)
+    private double roi;
+
+    @Column(updatable = false)
+    private Integer ranking; // snapshot 시점 순위
+}
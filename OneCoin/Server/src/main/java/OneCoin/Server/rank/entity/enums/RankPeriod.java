@@ -0,0 +1,14 @@
+package OneCoin.Server.rank.entity.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum RankPeriod {
+    DAY(1),
+    WEEK(7),
+    MONTH(30);
+
+    private final int days;
+}
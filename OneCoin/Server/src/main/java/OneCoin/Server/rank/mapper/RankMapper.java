@@ -1,36 +1,69 @@
 package OneCoin.Server.rank.mapper;
 
+import OneCoin.Server.dto.PageInfo;
 import OneCoin.Server.rank.dao.UserRoi;
 import OneCoin.Server.rank.dto.RankDto;
 import OneCoin.Server.rank.entity.Rank;
+import OneCoin.Server.rank.entity.RankSnapshot;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class RankMapper {
-    public RankDto userRoisToRankDtos(List<Rank> userRois) {
+    public RankDto userRoisToRankDto(List<UserRoi> userRois, int page, int size, long totalElements, String referenceDate) {
+        int totalPages = (int) ((totalElements + size - 1) / size);
         RankDto rankDto = RankDto.builder()
-                .referenceDate(LocalDateTime.now().toString())
-                .users(userRois)
+                .referenceDate(referenceDate)
+                .users(userRoisToRanks(userRois, (page - 1) * size + 1))
+                .pageInfo(new PageInfo(page, size, totalElements, totalPages))
                 .build();
         return rankDto;
     }
 
-    public List<Rank> userRoisToRankEntities(List<UserRoi> userRois) {
+    public List<Rank> userRoisToRanks(List<UserRoi> userRois, int firstRank) {
         List<Rank> users = new ArrayList<>();
         for (int i = 0; i < userRois.size(); i++) {
-            UserRoi userRoi = userRois.get(i);
-            String roi = String.format("%.2f", userRoi.getTotalRoi() * 100.0) + "%";
-            Rank dto = Rank.builder()
-                    .rank(i + 1)
-                    .displayName(userRoi.getUserDisplayName())
-                    .roi(roi)
-                    .build();
-            users.add(dto);
+            users.add(userRoiToRank(userRois.get(i), firstRank + i));
         }
         return users;
     }
-}
\ No newline at end of file
+
+    public Rank userRoiToRank(UserRoi userRoi, int rank) {
+        return Rank.builder()
+                .rank(rank)
+                .displayName(userRoi.getUserDisplayName())
+                .roi(formatRoi(userRoi.getTotalRoi()))
+                .build();
+    }
+
+    public RankSnapshot userRoiToSnapshot(UserRoi userRoi, LocalDate snapshotDate, Integer rank) {
+        return RankSnapshot.builder()
+                .userId(userRoi.getUserId())
+                .snapshotDate(snapshotDate)
+                .sumOfBids(userRoi.getSumOfBids())
+                .sumOfAsks(userRoi.getSumOfAsks())
+                .sumOfCurrentCoinValues(userRoi.getSumOfCurrentCoinValues())
+                .roi(userRoi.getTotalRoi())
+                .ranking(rank)
+                .build();
+    }
+
+    public List<RankDto.History> snapshotsToHistories(List<RankSnapshot> snapshots) {
+        List<RankDto.History> histories = new ArrayList<>();
+        for (RankSnapshot snapshot : snapshots) {
+            histories.add(RankDto.History.builder()
+                    .snapshotDate(snapshot.getSnapshotDate().toString())
+                    .rank(snapshot.getRanking())
+                    .roi(formatRoi(snapshot.getRoi()))
+                    .build());
+        }
+        return histories;
+    }
+
+    private String formatRoi(double roi) {
+        return String.format("%.2f", roi * 100.0) + "%";
+    }
+}
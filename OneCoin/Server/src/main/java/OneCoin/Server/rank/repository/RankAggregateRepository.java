@@ -0,0 +1,256 @@
+package OneCoin.Server.rank.repository;
+
+import OneCoin.Server.rank.dao.UserRoi;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ *     수익률 계산용 유저별 누적값
+ *     rank-aggregate:{userId}  (Hash) bids : 매수 총액, asks : 매도 총액
+ *     rank-aggregate:dirty     (Set)  누적값 또는 보유 코인이 바뀌어 다시 계산해야 하는 유저
+ *     rank-aggregate:seeded           누적값을 거래내역으로 채웠다는 표시, 이 표시가 있을 때만 체결 금액을 누적한다.
+ *     rank-aggregate:unseeded-fills (Set) 표시가 생기기 전에 체결된 유저, 채운 뒤 유저 lock 안에서 다시 계산한다.
+ *     rank-aggregate:prices    (Hash) 마지막 계산에 사용한 코인별 현재가
+ *     rank-aggregate:roi       (ZSet) 유저별 수익률, 순위표
+ *     rank-aggregate:updated-at       마지막으로 순위표를 갱신한 시각
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+public class RankAggregateRepository {
+    /**
+     * KEYS[1] : rank-aggregate:{userId}, KEYS[2] : dirty, KEYS[3] : seeded, KEYS[4] : unseeded-fills
+     * ARGV[1] : bids 또는 asks, ARGV[2] : 체결 금액, ARGV[3] : userId
+     * 채우기 전에는 누적하지 않고 유저만 기록해, 거래내역으로 채운 값과 중복되거나 덮어써지지 않게 한다.
+     */
+    private static final RedisScript<Long> FILL_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[3]) == 1 then " +
+            "  redis.call('HINCRBYFLOAT', KEYS[1], ARGV[1], ARGV[2]) " +
+            "else " +
+            "  redis.call('SADD', KEYS[4], ARGV[3]) " +
+            "end " +
+            "return redis.call('SADD', KEYS[2], ARGV[3])", Long.class);
+    private final String KEY_PREFIX = "rank-aggregate:";
+    private final String DIRTY_KEY = "rank-aggregate:dirty";
+    private final String PRICES_KEY = "rank-aggregate:prices";
+    private final String ROI_KEY = "rank-aggregate:roi";
+    private final String SEEDED_KEY = "rank-aggregate:seeded";
+    private final String UNSEEDED_FILLS_KEY = "rank-aggregate:unseeded-fills";
+    private final String UPDATED_AT_KEY = "rank-aggregate:updated-at";
+    private final String BIDS = "bids";
+    private final String ASKS = "asks";
+    private final StringRedisTemplate stringRedisTemplate;
+    private HashOperations<String, String, String> hashOperations;
+    private ZSetOperations<String, String> zSetOperations;
+
+    @PostConstruct
+    private void init() {
+        hashOperations = stringRedisTemplate.opsForHash();
+        zSetOperations = stringRedisTemplate.opsForZSet();
+    }
+
+    public void addBid(long userId, BigDecimal settledAmount) {
+        addFill(userId, BIDS, settledAmount);
+    }
+
+    public void addAsk(long userId, BigDecimal settledAmount) {
+        addFill(userId, ASKS, settledAmount);
+    }
+
+    private void addFill(long userId, String field, BigDecimal settledAmount) {
+        stringRedisTemplate.execute(FILL_SCRIPT, List.of(makeKey(userId), DIRTY_KEY, SEEDED_KEY, UNSEEDED_FILLS_KEY),
+                field, settledAmount.toPlainString(), String.valueOf(userId));
+    }
+
+    /**
+     * 거래내역으로 계산한 결과로 누적값을 덮어쓴다. 채우기 전이거나, 유저 lock 안에서 호출한다.
+     */
+    public void save(UserRoi userRoi) {
+        Map<String, String> values = new HashMap<>();
+        values.put(BIDS, String.valueOf(userRoi.getSumOfBids()));
+        values.put(ASKS, String.valueOf(userRoi.getSumOfAsks()));
+        hashOperations.putAll(makeKey(userRoi.getUserId()), values);
+        markDirty(userRoi.getUserId());
+    }
+
+    /**
+     * 채우기 전에 체결된 유저를 꺼내면서 Set 에서 제거한다.
+     */
+    public Set<Long> popUnseededFillUserIds(long count) {
+        return pop(UNSEEDED_FILLS_KEY, count);
+    }
+
+    /**
+     * bids, asks 만 채워진 UserRoi, 누적값이 없으면 null
+     */
+    public UserRoi findByUserId(long userId) {
+        Map<String, String> values = hashOperations.entries(makeKey(userId));
+        if (values.isEmpty()) {
+            return null;
+        }
+        UserRoi userRoi = new UserRoi();
+        userRoi.setUserId(userId);
+        userRoi.setSumOfBids(Double.parseDouble(values.getOrDefault(BIDS, "0")));
+        userRoi.setSumOfAsks(Double.parseDouble(values.getOrDefault(ASKS, "0")));
+        return userRoi;
+    }
+
+    public void markDirty(long userId) {
+        stringRedisTemplate.opsForSet().add(DIRTY_KEY, String.valueOf(userId));
+    }
+
+    /**
+     * dirty 유저를 꺼내면서 Set 에서 제거한다.
+     */
+    public Set<Long> popDirtyUserIds(long count) {
+        return pop(DIRTY_KEY, count);
+    }
+
+    private Set<Long> pop(String key, long count) {
+        List<String> members = stringRedisTemplate.opsForSet().pop(key, count);
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (members == null) {
+            return userIds;
+        }
+        for (String member : members) {
+            userIds.add(Long.parseLong(member));
+        }
+        return userIds;
+    }
+
+    public Map<String, String> findLastPrices() {
+        return hashOperations.entries(PRICES_KEY);
+    }
+
+    public void saveLastPrices(Map<String, String> prices) {
+        if (!prices.isEmpty()) {
+            hashOperations.putAll(PRICES_KEY, prices);
+        }
+    }
+
+    public void saveRoi(long userId, double roi) {
+        zSetOperations.add(ROI_KEY, String.valueOf(userId), roi);
+    }
+
+    public void removeRoi(long userId) {
+        zSetOperations.remove(ROI_KEY, String.valueOf(userId));
+    }
+
+    /**
+     * 수익률 내림차순으로 offset 부터 size 명
+     */
+    public List<UserRoi> findRois(long offset, int size) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = zSetOperations.reverseRangeWithScores(ROI_KEY, offset, offset + size - 1);
+        List<UserRoi> userRois = new ArrayList<>();
+        if (tuples == null) {
+            return userRois;
+        }
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            UserRoi userRoi = new UserRoi();
+            userRoi.setUserId(Long.parseLong(tuple.getValue()));
+            userRoi.setTotalRoi(tuple.getScore());
+            userRois.add(userRoi);
+        }
+        return userRois;
+    }
+
+    /**
+     * 0 부터 시작하는 순위, 순위표에 없으면 null
+     */
+    public Long findRank(long userId) {
+        return zSetOperations.reverseRank(ROI_KEY, String.valueOf(userId));
+    }
+
+    public Double findRoi(long userId) {
+        return zSetOperations.score(ROI_KEY, String.valueOf(userId));
+    }
+
+    /**
+     * 순위표의 유저 id 를 ZSCAN 으로 batchSize 개씩 나눠 전달한다.
+     */
+    public void scanRankedUserIds(int batchSize, Consumer<List<Long>> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        List<Long> userIds = new ArrayList<>();
+        try (Cursor<ZSetOperations.TypedTuple<String>> cursor = zSetOperations.scan(ROI_KEY, options)) {
+            while (cursor.hasNext()) {
+                userIds.add(Long.parseLong(cursor.next().getValue()));
+                if (userIds.size() == batchSize) {
+                    consumer.accept(userIds);
+                    userIds = new ArrayList<>();
+                }
+            }
+        }
+        if (!userIds.isEmpty()) {
+            consumer.accept(userIds);
+        }
+    }
+
+    public long countRois() {
+        Long count = zSetOperations.zCard(ROI_KEY);
+        return count == null ? 0 : count;
+    }
+
+    public void saveUpdatedAt(LocalDateTime updatedAt) {
+        stringRedisTemplate.opsForValue().set(UPDATED_AT_KEY, updatedAt.toString());
+    }
+
+    public String findUpdatedAt() {
+        return stringRedisTemplate.opsForValue().get(UPDATED_AT_KEY);
+    }
+
+    public boolean isSeeded() {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(SEEDED_KEY));
+    }
+
+    /**
+     * 누적값을 모두 채운 뒤에 호출한다.
+     */
+    public void markSeeded() {
+        stringRedisTemplate.opsForValue().set(SEEDED_KEY, "1");
+    }
+
+    public void deleteAll() {
+        List<String> keys = scanKeys(KEY_PREFIX + "*");
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+
+    private List<String> scanKeys(String pattern) {
+        return stringRedisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return keys;
+        });
+    }
+
+    private String makeKey(long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
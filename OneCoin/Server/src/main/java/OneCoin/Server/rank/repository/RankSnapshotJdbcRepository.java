@@ -0,0 +1,72 @@
+package OneCoin.Server.rank.repository;
+
+import OneCoin.Server.rank.dao.UserRoi;
+import OneCoin.Server.rank.entity.RankSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ *     rankSnapshotId 가 IDENTITY 라 JPA saveAll 은 batch insert 를 하지 못하고, 영속성 컨텍스트에 snapshot 이 쌓인다.
+ *     JDBC batch insert 로 SCAN 한 page 씩 저장한다.
+ *     기간 수익률은 두 날짜의 snapshot 을 DB 에서 join 해 계산하고 상위 몇 명만 가져온다.
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+public class RankSnapshotJdbcRepository {
+    private final String INSERT_SQL = "INSERT INTO rank_snapshots " +
+            "(user_id, snapshot_date, sum_of_bids, sum_of_asks, sum_of_current_coin_values, roi, ranking) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    /**
+     * 기간 투입 금액 = 기간 매수 총액 + 시작 평가 금액, 기간 회수 금액 = 기간 매도 총액 + 마지막 평가 금액
+     * 시작 snapshot 이 없거나 투입 금액이 없는 유저는 제외된다.
+     */
+    private final String PERIOD_ROI_SQL = "SELECT e.user_id, " +
+            "(e.sum_of_asks - s.sum_of_asks + e.sum_of_current_coin_values " +
+            " - (e.sum_of_bids - s.sum_of_bids + s.sum_of_current_coin_values)) " +
+            " / (e.sum_of_bids - s.sum_of_bids + s.sum_of_current_coin_values) AS period_roi " +
+            "FROM rank_snapshots e " +
+            "JOIN rank_snapshots s ON s.user_id = e.user_id AND s.snapshot_date = ? " +
+            "WHERE e.snapshot_date = ? " +
+            "AND e.sum_of_bids - s.sum_of_bids + s.sum_of_current_coin_values > 0 " +
+            "ORDER BY period_roi DESC, e.user_id " +
+            "LIMIT ?";
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public int insertAll(List<RankSnapshot> snapshots) {
+        if (snapshots.isEmpty()) return 0;
+        List<Object[]> rows = new ArrayList<>(snapshots.size());
+        for (RankSnapshot snapshot : snapshots) {
+            rows.add(new Object[]{
+                    snapshot.getUserId(),
+                    snapshot.getSnapshotDate(),
+                    snapshot.getSumOfBids(),
+                    snapshot.getSumOfAsks(),
+                    snapshot.getSumOfCurrentCoinValues(),
+                    snapshot.getRoi(),
+                    snapshot.getRanking()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return snapshots.size();
+    }
+
+    /**
+     * 기간 수익률 내림차순으로 size 명, userId 와 totalRoi 만 채워진다.
+     */
+    public List<UserRoi> findPeriodRois(LocalDate startDate, LocalDate endDate, int size) {
+        return jdbcTemplate.query(PERIOD_ROI_SQL, (rs, rowNum) -> {
+            UserRoi userRoi = new UserRoi();
+            userRoi.setUserId(rs.getLong("user_id"));
+            userRoi.setTotalRoi(rs.getDouble("period_roi"));
+            return userRoi;
+        }, startDate, endDate, size);
+    }
+}
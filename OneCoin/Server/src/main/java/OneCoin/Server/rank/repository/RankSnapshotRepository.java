@@ -0,0 +1,23 @@
+package OneCoin.Server.rank.repository;
+
+import OneCoin.Server.rank.entity.RankSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RankSnapshotRepository extends JpaRepository<RankSnapshot, Long> {
+    List<RankSnapshot> findAllByUserIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDate(Long userId, LocalDate from);
+
+    @Query("SELECT MAX(r.snapshotDate) FROM RankSnapshot r")
+    LocalDate findLatestSnapshotDate();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RankSnapshot r WHERE r.snapshotDate = :snapshotDate")
+    int deleteAllBySnapshotDate(@Param("snapshotDate") LocalDate snapshotDate);
+}
@@ -1,38 +1,49 @@
 package OneCoin.Server.rank.service;
 
-import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.order.entity.Wallet;
-import OneCoin.Server.order.repository.OrderRepository;
-import OneCoin.Server.order.repository.TransactionHistoryRepository;
 import OneCoin.Server.order.repository.WalletRepository;
 import OneCoin.Server.rank.dao.UserRoi;
 import OneCoin.Server.rank.entity.Rank;
-import OneCoin.Server.rank.repository.RankRepository;
+import OneCoin.Server.rank.mapper.RankMapper;
+import OneCoin.Server.rank.repository.RankAggregateRepository;
 import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import OneCoin.Server.upbit.entity.enums.CoinList;
 import OneCoin.Server.upbit.repository.TickerRepository;
 import OneCoin.Server.user.entity.User;
 import OneCoin.Server.user.repository.UserRepository;
+import OneCoin.Server.utils.UserLockUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RankService {
-    private final TransactionHistoryRepository transactionHistoryRepository;
     private final TickerRepository tickerRepository;
     private final WalletRepository walletRepository;
-    private final RankRepository rankRepository;
-    private final OrderRepository orderRepository;
     private final UserRepository userRepository;
-
+    private final RankAggregateRepository rankAggregateRepository;
+    private final RankMapper mapper;
+    private final RoiCalculator roiCalculator;
+    private final UserLockUtil userLockUtil;
+    private final int TOP_SIZE = 10;
+    private final long DIRTY_BATCH_SIZE = 1000;
 
     /** 수익률 = (판가격 - 산가격) / 산가격
      * 판가격 = 실제로 판 거 + 아직 안 판 거의 현재 가격
@@ -42,95 +53,186 @@ public class RankService {
      * 실제 판 거 : transaction history ask 총합
      * 아직 안 판 거 : wallet * 수량 * 코인 현재가의 총합
      *
+     * 결과를 모두 모으므로 테스트, 소규모 데이터 용도. 누적값 초기화는 seedAggregates 를 사용한다.
      * @return
      */
+    public List<UserRoi> calculateAllRois() {
+        List<UserRoi> allRoi = Collections.synchronizedList(new ArrayList<>());
+        roiCalculator.forEachUserRoi(allRoi::add);
+        if (allRoi.isEmpty()) return null;
+        return allRoi;
+    }
 
+    /**
+     * <pre>
+     *     체결, 스왑으로 누적값이 바뀐 유저와 현재가가 바뀐 코인을 보유한 유저만 다시 계산해 순위표(ZSet)에 반영한다.
+     *     매수, 매도 총액은 체결 시점에 누적되므로 거래내역 전체를 집계하지 않는다.
+     * </pre>
+     * @return 다시 계산한 유저 수
+     */
+    public int updateRois() {
+        seedAggregates();
+        Map<String, String> prices = findCurrentPrices();
+        Set<Long> userIds = findAffectedUserIds(prices);
+        for (Long userId : userIds) {
+            recalculate(userId, prices);
+        }
+        rankAggregateRepository.saveLastPrices(prices);
+        rankAggregateRepository.saveUpdatedAt(LocalDateTime.now());
+        return userIds.size();
+    }
 
+    /**
+     * <pre>
+     *     누적값이 없던 상태에서 전체 계산 결과로 채운다.
+     *     채우기 전에는 체결 금액을 누적하지 않으므로, 거래내역으로 계산한 값으로 덮어써도 잃는 체결이 없다.
+     *     완료 표시는 모두 채운 뒤에 남기므로, 중간에 실패하면 다음 갱신 때 처음부터 다시 채운다.
+     *     채우는 동안 체결된 유저는 읽은 시점에 따라 빠지거나 두 번 세어질 수 있으므로,
+     *     완료 표시 뒤 유저 lock 안에서 거래내역으로 다시 계산한다. (lock 안에서는 그 유저의 체결이 끼어들지 않는다)
+     * </pre>
+     */
+    public void seedAggregates() {
+        if (rankAggregateRepository.isSeeded()) {
+            return;
+        }
+        AtomicInteger count = new AtomicInteger();
+        roiCalculator.forEachUserRoi(userRoi -> {
+            rankAggregateRepository.save(userRoi);
+            count.incrementAndGet();
+        });
+        rankAggregateRepository.markSeeded();
+        int reseeded = reseedUsersFilledDuringSeeding();
+        log.info("Seeded rank aggregates of {} users, reseeded {} users filled during seeding", count.get(), reseeded);
+    }
 
-    public List<UserRoi> calculateAllRois() {
-        Map<Long, UserRoi> allRoi = new HashMap<>();
-        //유저별 매수가격 총액 O(n)
-        setUserBids(allRoi);
-        //유저별 부분체결의 체결 총액
-        setPartialBids(allRoi);
-        //유저별 매도가격 총액 O(n)
-        setUserAsks(allRoi);
-        // 유저별 현재 코인 가격 총액 O(n)
-        setCurrentCoinValues(allRoi);
-        // 계산 : ROI  = {(매도가격 총액 + 현재 가격 총액) - 매수가격 총액 } / 매수가격 총액 O(n)
-        return calculateAll(allRoi);
-    }
-
-    private void setPartialBids(Map<Long, UserRoi> allRoi) {
-        List<Order> orders = (List<Order>) orderRepository.findAll();
-        for(Order order : orders) {
-            Long userId = order.getUserId();
-            double bid = order.getCompletedAmount().multiply(order.getLimit()).doubleValue();
-            if(bid == 0.0) continue;
-            UserRoi userRoi = allRoi.get(userId);
-            if(userRoi == null) {
-                User user = userRepository.findById(userId).get();
-                UserRoi userRoiCreated = new UserRoi();
-                userRoiCreated.setUserId(userId);
-                userRoiCreated.setUserDisplayName(user.getDisplayName());
-                allRoi.put(userId, userRoiCreated);
-                userRoi = allRoi.get(userId);
+    private int reseedUsersFilledDuringSeeding() {
+        int count = 0;
+        while (true) {
+            Set<Long> userIds = rankAggregateRepository.popUnseededFillUserIds(DIRTY_BATCH_SIZE);
+            for (Long userId : userIds) {
+                userLockUtil.executeWithLock(userId, () -> rankAggregateRepository.save(roiCalculator.calculateAggregate(userId)));
             }
-            userRoi.addSumOfBids(bid);
+            count += userIds.size();
+            if (userIds.size() < DIRTY_BATCH_SIZE) break;
         }
+        return count;
     }
 
-    public List<UserRoi> calculateTop10() {
-        List<UserRoi> allRoi = calculateAllRois();
-        if(allRoi == null) return null;
-        return allRoi.stream().sorted().limit(10).collect(Collectors.toList());
+    private Map<String, String> findCurrentPrices() {
+        Map<String, String> prices = new HashMap<>();
+        for (String code : CoinList.CODES) {
+            TickerDto ticker = tickerRepository.findTickerByCode(code);
+            if (ticker == null || ticker.getTradePrice() == null) continue;
+            prices.put(code, ticker.getTradePrice());
+        }
+        return prices;
     }
 
-    public void update(List<Rank> top10) {
-        rankRepository.deleteAll();
-        rankRepository.saveAll(top10);
+    private Set<Long> findAffectedUserIds(Map<String, String> prices) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        Map<String, String> lastPrices = rankAggregateRepository.findLastPrices();
+        for (Map.Entry<String, String> price : prices.entrySet()) {
+            if (price.getValue().equals(lastPrices.get(price.getKey()))) continue;
+            userIds.addAll(walletRepository.findUserIdsByCode(price.getKey()));
+        }
+        while (true) {
+            Set<Long> dirtyUserIds = rankAggregateRepository.popDirtyUserIds(DIRTY_BATCH_SIZE);
+            userIds.addAll(dirtyUserIds);
+            if (dirtyUserIds.size() < DIRTY_BATCH_SIZE) break;
+        }
+        return userIds;
     }
 
-    public List<Rank> getTop10() {
-        return rankRepository.findAll();
+    private void recalculate(long userId, Map<String, String> prices) {
+        UserRoi userRoi = calculateRoi(userId, prices);
+        if (userRoi == null) {
+            rankAggregateRepository.removeRoi(userId);
+            return;
+        }
+        rankAggregateRepository.saveRoi(userId, userRoi.getTotalRoi());
     }
 
-    private void setUserBids(Map<Long, UserRoi> allRoi) {
-        List<UserRoi> bids = transactionHistoryRepository.findAllSumOfBidSettledAmount();
-        if(bids.size() == 0) return;
-        for (UserRoi roi : bids) {
-            allRoi.put(roi.getUserId(), roi);
+    /**
+     * 누적값과 현재가로 계산한 수익률, 순위표는 갱신하지 않는다.
+     */
+    public List<UserRoi> calculateRois(Collection<Long> userIds) {
+        Map<String, String> prices = findCurrentPrices();
+        List<UserRoi> userRois = new ArrayList<>();
+        for (Long userId : userIds) {
+            UserRoi userRoi = calculateRoi(userId, prices);
+            if (userRoi != null) {
+                userRois.add(userRoi);
+            }
         }
+        return userRois;
     }
 
-    private void setUserAsks(Map<Long, UserRoi> allRoi) {
-        List<UserRoi> asks = transactionHistoryRepository.findAllSumOfAskSettledAmount();
-        if(asks.size() == 0) return;
-        for (UserRoi roi : asks) {
-            Long userId = roi.getUserId();
-            allRoi.get(userId).setSumOfAsks(roi.getSumOfAsks());
+    private UserRoi calculateRoi(long userId, Map<String, String> prices) {
+        UserRoi userRoi = rankAggregateRepository.findByUserId(userId);
+        if (userRoi == null || userRoi.getSumOfBids() == 0.0) { // 매수 기록이 없으면 순위에서 제외
+            return null;
+        }
+        for (Wallet wallet : walletRepository.findAllByUserId(userId)) {
+            String price = prices.get(wallet.getCode());
+            if (price == null) continue;
+            userRoi.addSumOfCurrentCoinValues(wallet.getAmount().multiply(new BigDecimal(price)).doubleValue());
         }
+        userRoi.calculate();
+        return userRoi;
+    }
+
+    /**
+     * 순위표의 page 번째 페이지 (1 부터 시작)
+     */
+    public List<UserRoi> findRois(int page, int size) {
+        List<UserRoi> userRois = rankAggregateRepository.findRois((long) (page - 1) * size, size);
+        setDisplayNames(userRois);
+        return userRois;
     }
 
-    private void setCurrentCoinValues(Map<Long, UserRoi> allRoi) {
-        List<Wallet> wallets = (List<Wallet>) walletRepository.findAll();
-        if(wallets.size() == 0) return;
-        for (Wallet wallet : wallets) {
-            Long userId = wallet.getUserId();
-            UserRoi userROI = allRoi.get(userId);
-            if(userROI == null) continue;
-            TickerDto ticker = tickerRepository.findTickerByCode(wallet.getCode());
-            double currentValueOfCoinOfUser = wallet.getAmount().doubleValue() * Double.valueOf(ticker.getTradePrice());
-            userROI.addSumOfCurrentCoinValues(currentValueOfCoinOfUser);
+    public List<Rank> getTop10() {
+        return mapper.userRoisToRanks(findRois(1, TOP_SIZE), 1);
+    }
+
+    public Rank findMyRank(long userId) {
+        Long rank = rankAggregateRepository.findRank(userId);
+        Double roi = rankAggregateRepository.findRoi(userId);
+        if (rank == null || roi == null) {
+            throw new BusinessLogicException(ExceptionCode.RANK_NOT_FOUND);
         }
+        UserRoi userRoi = new UserRoi();
+        userRoi.setUserId(userId);
+        userRoi.setTotalRoi(roi);
+        setDisplayNames(List.of(userRoi));
+        return mapper.userRoiToRank(userRoi, rank.intValue() + 1);
     }
 
-    private List<UserRoi> calculateAll(Map<Long, UserRoi> allRoi) {
-        if(allRoi.size() == 0) return null;
-        List<UserRoi> rois = new ArrayList<>(allRoi.values());
-        for (UserRoi userROI : rois) {
-            userROI.calculate();
+    public long countRankedUsers() {
+        return rankAggregateRepository.countRois();
+    }
+
+    public String findReferenceDate() {
+        return rankAggregateRepository.findUpdatedAt();
+    }
+
+    public void setDisplayNames(List<UserRoi> userRois) {
+        if (userRois.isEmpty()) return;
+        Map<Long, String> displayNames = new HashMap<>();
+        List<Long> userIds = userRois.stream().map(UserRoi::getUserId).collect(Collectors.toList());
+        for (User user : userRepository.findAllById(userIds)) {
+            displayNames.put(user.getUserId(), user.getDisplayName());
+        }
+        for (UserRoi userRoi : userRois) {
+            userRoi.setUserDisplayName(displayNames.get(userRoi.getUserId()));
         }
-        return rois;
+    }
+
+    /**
+     * 전체 재계산
+     */
+    public List<UserRoi> calculateTop10() {
+        List<UserRoi> top10 = roiCalculator.calculateTopRois(TOP_SIZE);
+        if (top10.isEmpty()) return null;
+        return top10;
     }
 }
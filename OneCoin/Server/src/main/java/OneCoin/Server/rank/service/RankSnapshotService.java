@@ -0,0 +1,94 @@
+package OneCoin.Server.rank.service;
+
+import OneCoin.Server.rank.dao.UserRoi;
+import OneCoin.Server.rank.entity.RankSnapshot;
+import OneCoin.Server.rank.entity.enums.RankPeriod;
+import OneCoin.Server.rank.mapper.RankMapper;
+import OneCoin.Server.rank.repository.RankAggregateRepository;
+import OneCoin.Server.rank.repository.RankSnapshotJdbcRepository;
+import OneCoin.Server.rank.repository.RankSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ *     일별 수익률 snapshot 저장, 기간별 순위, 유저별 순위 기록
+ *     기간 수익률 = (기간 매도 총액 + 마지막 평가 금액 - 기간 투입 금액) / 기간 투입 금액
+ *     기간 투입 금액 = 기간 매수 총액 + 시작 평가 금액
+ *     시작 snapshot 이 없는 유저는 기간 수익률을 알 수 없으므로 기간 순위에서 제외한다.
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankSnapshotService {
+    public static final String PERIOD_RANKS_CACHE = "periodRanks";
+    public static final String RANK_HISTORIES_CACHE = "rankHistories";
+    private final int SNAPSHOT_BATCH_SIZE = 500;
+    private final int PERIOD_RANK_SIZE = 100;
+    private final RankService rankService;
+    private final RankAggregateRepository rankAggregateRepository;
+    private final RankSnapshotRepository rankSnapshotRepository;
+    private final RankSnapshotJdbcRepository rankSnapshotJdbcRepository;
+    private final RankMapper mapper;
+
+    /**
+     * <pre>
+     *     순위표의 모든 유저 누적값을 snapshotDate 로 저장한다. 같은 날짜로 다시 실행하면 덮어쓴다.
+     *     삭제와 저장을 한 트랜잭션으로 묶어, 중간에 실패해도 일부만 저장된 날짜가 조회되지 않는다.
+     *     SCAN 한 page 마다 JDBC batch insert 로 저장해 영속성 컨텍스트에 snapshot 이 쌓이지 않는다.
+     *     캐시 삭제는 커밋 뒤에 일어난다. (CacheConfig)
+     * </pre>
+     * @return 저장한 유저 수
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {PERIOD_RANKS_CACHE, RANK_HISTORIES_CACHE}, allEntries = true)
+    public int saveSnapshots(LocalDate snapshotDate) {
+        rankSnapshotRepository.deleteAllBySnapshotDate(snapshotDate);
+        AtomicInteger count = new AtomicInteger();
+        rankAggregateRepository.scanRankedUserIds(SNAPSHOT_BATCH_SIZE, userIds -> {
+            List<RankSnapshot> snapshots = new ArrayList<>();
+            for (UserRoi userRoi : rankService.calculateRois(userIds)) {
+                Long rank = rankAggregateRepository.findRank(userRoi.getUserId());
+                snapshots.add(mapper.userRoiToSnapshot(userRoi, snapshotDate, rank == null ? null : rank.intValue() + 1));
+            }
+            count.addAndGet(rankSnapshotJdbcRepository.insertAll(snapshots));
+        });
+        return count.get();
+    }
+
+    public LocalDate findLatestSnapshotDate() {
+        return rankSnapshotRepository.findLatestSnapshotDate();
+    }
+
+    /**
+     * 마지막 snapshot 기준 기간 수익률 상위 PERIOD_RANK_SIZE 명
+     */
+    @Cacheable(cacheNames = PERIOD_RANKS_CACHE, key = "#period.name() + ':' + #latestDate")
+    public List<UserRoi> findPeriodRois(RankPeriod period, LocalDate latestDate) {
+        if (latestDate == null) return List.of();
+        List<UserRoi> userRois = new ArrayList<>(rankSnapshotJdbcRepository.findPeriodRois(
+                latestDate.minusDays(period.getDays()), latestDate, PERIOD_RANK_SIZE));
+        rankService.setDisplayNames(userRois);
+        return Collections.unmodifiableList(userRois);
+    }
+
+    /**
+     * 최근 days 일 동안의 내 순위, 수익률
+     */
+    @Cacheable(cacheNames = RANK_HISTORIES_CACHE, key = "#userId + ':' + #days + ':' + #latestDate")
+    public List<RankSnapshot> findHistories(long userId, int days, LocalDate latestDate) {
+        if (latestDate == null) return List.of();
+        return rankSnapshotRepository.findAllByUserIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDate(userId, latestDate.minusDays(days));
+    }
+}
@@ -0,0 +1,207 @@
+package OneCoin.Server.rank.service;
+
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.OrderIndexRepository;
+import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.order.repository.TransactionHistoryRepository;
+import OneCoin.Server.order.repository.WalletRepository;
+import OneCoin.Server.rank.dao.UserRoi;
+import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import OneCoin.Server.upbit.entity.enums.CoinList;
+import OneCoin.Server.upbit.repository.TickerRepository;
+import OneCoin.Server.user.entity.User;
+import OneCoin.Server.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ *     전체 유저 수익률 계산
+ *     유저 id 를 PARTITION_SIZE 단위 구간으로 나눠 ForkJoinPool 에서 병렬로 계산하고,
+ *     계산된 유저는 바로 consumer 로 넘겨 전체 유저를 메모리에 올리지 않는다.
+ *     현재가는 계산 시작 시점에 한 번만 읽은 snapshot 을 사용한다.
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoiCalculator {
+    private final int PARTITION_SIZE = 1000;
+    private final int ORDER_SCAN_BATCH_SIZE = 500;
+    private final TransactionHistoryRepository transactionHistoryRepository;
+    private final TickerRepository tickerRepository;
+    private final WalletRepository walletRepository;
+    private final OrderRepository orderRepository;
+    private final OrderIndexRepository orderIndexRepository;
+    private final UserRepository userRepository;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @PreDestroy
+    private void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * 매수 기록이 있는 모든 유저의 수익률을 계산해 consumer 에 넘긴다. consumer 는 여러 thread 에서 호출된다.
+     */
+    public void forEachUserRoi(Consumer<UserRoi> consumer) {
+        Long maxUserId = userRepository.findMaxUserId();
+        if (maxUserId == null) return;
+        Map<String, BigDecimal> prices = snapshotPrices();
+        NavigableMap<Long, Double> partialBids = snapshotPartialBids();
+        pool.invoke(new PartitionTask(1, maxUserId, prices, partialBids, consumer));
+    }
+
+    /**
+     * <pre>
+     *     한 유저의 매수, 매도 총액만 계산한다. (거래내역 + 부분 체결된 미체결 매수 주문)
+     *     체결과 겹치지 않도록 유저 lock 안에서 호출한다.
+     * </pre>
+     */
+    public UserRoi calculateAggregate(long userId) {
+        UserRoi userRoi = new UserRoi();
+        userRoi.setUserId(userId);
+        for (UserRoi bid : transactionHistoryRepository.findSumOfBidSettledAmountByUserIdBetween(userId, userId)) {
+            userRoi.addSumOfBids(bid.getSumOfBids());
+        }
+        for (Order order : orderRepository.findAllByUserId(userId)) {
+            if (!TransactionType.BID.getType().equals(order.getOrderType())) continue;
+            userRoi.addSumOfBids(order.getCompletedAmount().multiply(order.getLimit()).doubleValue());
+        }
+        for (UserRoi ask : transactionHistoryRepository.findSumOfAskSettledAmountByUserIdBetween(userId, userId)) {
+            userRoi.setSumOfAsks(ask.getSumOfAsks());
+        }
+        return userRoi;
+    }
+
+    /**
+     * 수익률 상위 size 명, 크기가 size 인 heap 으로 고른다.
+     */
+    public List<UserRoi> calculateTopRois(int size) {
+        PriorityQueue<UserRoi> heap = new PriorityQueue<>(Comparator.reverseOrder()); // head 가 가장 낮은 수익률
+        forEachUserRoi(userRoi -> {
+            synchronized (heap) {
+                heap.offer(userRoi);
+                if (heap.size() > size) {
+                    heap.poll();
+                }
+            }
+        });
+        List<UserRoi> top = new ArrayList<>(heap);
+        Collections.sort(top);
+        return top;
+    }
+
+    private Map<String, BigDecimal> snapshotPrices() {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (String code : CoinList.CODES) {
+            TickerDto ticker = tickerRepository.findTickerByCode(code);
+            if (ticker == null || ticker.getTradePrice() == null) continue;
+            prices.put(code, new BigDecimal(ticker.getTradePrice()));
+        }
+        return Map.copyOf(prices);
+    }
+
+    /**
+     * 부분 체결된 미체결 매수 주문의 체결 금액, 미체결 매수 주문 index 를 ZSCAN 으로 순회한다.
+     */
+    private NavigableMap<Long, Double> snapshotPartialBids() {
+        NavigableMap<Long, Double> partialBids = new TreeMap<>();
+        for (String code : CoinList.CODES) {
+            orderIndexRepository.scanOrderIds(code, TransactionType.BID.getType(), ORDER_SCAN_BATCH_SIZE, orderIds -> {
+                for (Order order : orderRepository.findAllById(orderIds)) {
+                    double bid = order.getCompletedAmount().multiply(order.getLimit()).doubleValue();
+                    if (bid == 0.0) continue;
+                    partialBids.merge(order.getUserId(), bid, Double::sum);
+                }
+            });
+        }
+        return Collections.unmodifiableNavigableMap(partialBids);
+    }
+
+    private class PartitionTask extends RecursiveAction {
+        private final long fromUserId;
+        private final long toUserId;
+        private final Map<String, BigDecimal> prices;
+        private final NavigableMap<Long, Double> partialBids;
+        private final Consumer<UserRoi> consumer;
+
+        PartitionTask(long fromUserId, long toUserId, Map<String, BigDecimal> prices, NavigableMap<Long, Double> partialBids, Consumer<UserRoi> consumer) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.prices = prices;
+            this.partialBids = partialBids;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            if (toUserId - fromUserId < PARTITION_SIZE) {
+                calculatePartition();
+                return;
+            }
+            long middle = fromUserId + (toUserId - fromUserId) / 2;
+            invokeAll(new PartitionTask(fromUserId, middle, prices, partialBids, consumer),
+                    new PartitionTask(middle + 1, toUserId, prices, partialBids, consumer));
+        }
+
+        private void calculatePartition() {
+            Map<Long, UserRoi> rois = new HashMap<>();
+            for (UserRoi bid : transactionHistoryRepository.findSumOfBidSettledAmountByUserIdBetween(fromUserId, toUserId)) {
+                rois.put(bid.getUserId(), bid);
+            }
+            addPartialBids(rois);
+            for (UserRoi ask : transactionHistoryRepository.findSumOfAskSettledAmountByUserIdBetween(fromUserId, toUserId)) {
+                UserRoi userRoi = rois.get(ask.getUserId());
+                if (userRoi == null) continue;
+                userRoi.setSumOfAsks(ask.getSumOfAsks());
+            }
+            for (UserRoi userRoi : rois.values()) {
+                for (Wallet wallet : walletRepository.findAllByUserId(userRoi.getUserId())) {
+                    BigDecimal price = prices.get(wallet.getCode());
+                    if (price == null) continue;
+                    userRoi.addSumOfCurrentCoinValues(wallet.getAmount().multiply(price).doubleValue());
+                }
+                userRoi.calculate();
+                consumer.accept(userRoi);
+            }
+        }
+
+        private void addPartialBids(Map<Long, UserRoi> rois) {
+            List<Long> newUserIds = new ArrayList<>();
+            for (Map.Entry<Long, Double> partialBid : partialBids.subMap(fromUserId, true, toUserId, true).entrySet()) {
+                long userId = partialBid.getKey();
+                UserRoi userRoi = rois.get(userId);
+                if (userRoi == null) {
+                    userRoi = new UserRoi();
+                    userRoi.setUserId(userId);
+                    rois.put(userId, userRoi);
+                    newUserIds.add(userId);
+                }
+                userRoi.addSumOfBids(partialBid.getValue());
+            }
+            if (newUserIds.isEmpty()) return;
+            for (User user : userRepository.findAllById(newUserIds)) {
+                rois.get(user.getUserId()).setUserDisplayName(user.getDisplayName());
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package OneCoin.Server.rateLimit;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     주문, 스왑 요청의 유저별 처리율 제한
+ *     제한을 넘으면 429 와 Retry-After, X-RateLimit-* 헤더를 반환한다.
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RateLimitPolicy policy = resolvePolicy(request);
+        Long userId = extractUserId();
+        if (policy == null || userId == null) { // 비회원 요청은 인증 단계에서 거절된다
+            return true;
+        }
+
+        RateLimitResult result = rateLimiter.tryConsume(policy, userId);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(policy.getCapacity()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(result.getRemainingTokens()));
+        if (!result.isAllowed()) {
+            response.setHeader("Retry-After", String.valueOf(result.getRetryAfterSeconds()));
+            throw new BusinessLogicException(ExceptionCode.RATE_LIMIT_EXCEEDED);
+        }
+        return true;
+    }
+
+    private RateLimitPolicy resolvePolicy(HttpServletRequest request) {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return null;
+        }
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/order")) {
+            return RateLimitPolicy.ORDER;
+        }
+        if (uri.startsWith("/api/swaps")) {
+            return RateLimitPolicy.SWAP;
+        }
+        return null;
+    }
+
+    private Long extractUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Map)) {
+            return null;
+        }
+        Object id = ((Map<?, ?>) authentication.getPrincipal()).get("id");
+        return id == null ? null : ((Number) id).longValue();
+    }
+}
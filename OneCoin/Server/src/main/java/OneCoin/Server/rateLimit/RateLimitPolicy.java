@@ -0,0 +1,22 @@
+package OneCoin.Server.rateLimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * <pre>
+ *     endpoint 별 유저당 제한
+ *     capacity : 순간적으로 허용하는 요청 수, tokensPerSecond : 초당 충전량
+ * </pre>
+ */
+@Getter
+@AllArgsConstructor
+public enum RateLimitPolicy {
+    ORDER("order", 20, 10),
+    SWAP("swap", 5, 1),
+    CHAT("chat", 5, 2);
+
+    private final String name;
+    private final long capacity;
+    private final double tokensPerSecond;
+}
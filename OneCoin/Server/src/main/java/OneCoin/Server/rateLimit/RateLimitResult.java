@@ -0,0 +1,12 @@
+package OneCoin.Server.rateLimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RateLimitResult {
+    private final boolean allowed;
+    private final long remainingTokens;
+    private final long retryAfterSeconds; // 거절된 경우 다시 시도할 수 있을 때까지 남은 시간
+}
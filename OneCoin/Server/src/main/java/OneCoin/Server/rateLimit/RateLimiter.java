@@ -0,0 +1,111 @@
+package OneCoin.Server.rateLimit;
+
+import OneCoin.Server.utils.ScheduledJobRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *     유저별, 정책별 token bucket
+ *     기본은 서버 메모리에서 동작하고,
+ *     rate-limit.redis-enabled=true 이면 Redis Lua script 로 여러 서버가 같은 제한을 공유한다.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+    private static final String KEY_PREFIX = "rate-limit:";
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) " +
+            "local rate = tonumber(ARGV[2]) " +
+            "local now = tonumber(ARGV[3]) " +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+            "local tokens = tonumber(bucket[1]) or capacity " +
+            "local ts = tonumber(bucket[2]) or now " +
+            "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000) " +
+            "local allowed = 0 " +
+            "if tokens >= 1 then tokens = tokens - 1 allowed = 1 end " +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now) " +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 1000) + 1000) " +
+            "local retryAfter = 0 " +
+            "if allowed == 0 then retryAfter = math.ceil((1 - tokens) / rate) end " +
+            "return {allowed, math.floor(tokens), retryAfter}",
+            List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduledJobRunner scheduledJobRunner;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<RateLimitPolicy, Counter> allowedCounters = new EnumMap<>(RateLimitPolicy.class);
+    private final Map<RateLimitPolicy, Counter> rejectedCounters = new EnumMap<>(RateLimitPolicy.class);
+    private final boolean redisEnabled;
+
+    public RateLimiter(StringRedisTemplate stringRedisTemplate,
+                       MeterRegistry meterRegistry,
+                       ScheduledJobRunner scheduledJobRunner,
+                       @Value("${rate-limit.redis-enabled:false}") boolean redisEnabled) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.scheduledJobRunner = scheduledJobRunner;
+        this.redisEnabled = redisEnabled;
+        for (RateLimitPolicy policy : RateLimitPolicy.values()) {
+            allowedCounters.put(policy, meterRegistry.counter("rate_limit.requests", "policy", policy.getName(), "result", "allowed"));
+            rejectedCounters.put(policy, meterRegistry.counter("rate_limit.requests", "policy", policy.getName(), "result", "rejected"));
+        }
+        meterRegistry.gaugeMapSize("rate_limit.buckets", Tags.empty(), buckets);
+    }
+
+    public RateLimitResult tryConsume(RateLimitPolicy policy, long userId) {
+        RateLimitResult result = redisEnabled ? tryConsumeInRedis(policy, userId) : tryConsumeInMemory(policy, userId);
+        (result.isAllowed() ? allowedCounters : rejectedCounters).get(policy).increment();
+        return result;
+    }
+
+    private RateLimitResult tryConsumeInMemory(RateLimitPolicy policy, long userId) {
+        TokenBucket bucket = buckets.computeIfAbsent(makeKey(policy, userId),
+                key -> new TokenBucket(policy.getCapacity(), policy.getTokensPerSecond()));
+        return bucket.tryConsume();
+    }
+
+    private RateLimitResult tryConsumeInRedis(RateLimitPolicy policy, long userId) {
+        try {
+            List<?> result = stringRedisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(makeKey(policy, userId)),
+                    String.valueOf(policy.getCapacity()),
+                    String.valueOf(policy.getTokensPerSecond()),
+                    String.valueOf(System.currentTimeMillis()));
+            return new RateLimitResult(((Number) result.get(0)).longValue() == 1,
+                    ((Number) result.get(1)).longValue(),
+                    ((Number) result.get(2)).longValue());
+        } catch (Exception e) { // Redis 장애 시 서버 메모리 기준으로 제한
+            log.warn("[RATE LIMIT] redis unavailable, fallback to local bucket", e);
+            return tryConsumeInMemory(policy, userId);
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictIdleBucketsPeriodically() {
+        scheduledJobRunner.run("rate-limit-evict", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(1), this::evictIdleBuckets);
+    }
+
+    public void evictIdleBuckets() {
+        buckets.values().removeIf(bucket -> bucket.isIdle(IDLE_NANOS));
+    }
+
+    private String makeKey(RateLimitPolicy policy, long userId) {
+        return KEY_PREFIX + policy.getName() + ":" + userId;
+    }
+}
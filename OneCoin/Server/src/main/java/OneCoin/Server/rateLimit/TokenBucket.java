@@ -0,0 +1,58 @@
+package OneCoin.Server.rateLimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <pre>
+ *     lock 없이 CAS 로 동작하는 token bucket
+ *     요청 시점에 경과 시간만큼 token 을 충전하고 하나를 소비한다.
+ * </pre>
+ */
+public class TokenBucket {
+    private final long capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    public RateLimitResult tryConsume() {
+        while (true) {
+            State prev = state.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, prev.tokens + (now - prev.refilledAt) * tokensPerNano);
+
+            if (tokens < 1) {
+                long retryAfterSeconds = (long) Math.ceil((1 - tokens) / tokensPerNano / TimeUnit.SECONDS.toNanos(1));
+                return new RateLimitResult(false, 0, Math.max(1, retryAfterSeconds));
+            }
+            State next = new State(tokens - 1, now);
+            if (state.compareAndSet(prev, next)) {
+                return new RateLimitResult(true, (long) next.tokens, 0);
+            }
+        }
+    }
+
+    /**
+     * 가득 찬 상태로 일정 시간 사용되지 않은 bucket 은 정리해도 결과가 같다.
+     */
+    public boolean isIdle(long idleNanos) {
+        State current = state.get();
+        long elapsed = System.nanoTime() - current.refilledAt;
+        return elapsed > idleNanos && current.tokens + elapsed * tokensPerNano >= capacity;
+    }
+
+    private static class State {
+        private final double tokens;
+        private final long refilledAt;
+
+        private State(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import OneCoin.Server.swap.dto.SwapDto;
 import OneCoin.Server.swap.entity.Swap;
 import OneCoin.Server.swap.mapper.SwapMapper;
 import OneCoin.Server.swap.service.SwapService;
+import OneCoin.Server.utils.IdempotencyUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -27,20 +28,25 @@ import java.util.Map;
 public class SwapController {
     private final SwapService swapService;
     private final SwapMapper swapMapper;
+    private final IdempotencyUtil idempotencyUtil;
 
-    public SwapController(SwapService swapService, SwapMapper swapMapper) {
+    public SwapController(SwapService swapService, SwapMapper swapMapper, IdempotencyUtil idempotencyUtil) {
         this.swapService = swapService;
         this.swapMapper = swapMapper;
+        this.idempotencyUtil = idempotencyUtil;
     }
 
     @PostMapping
     public ResponseEntity postSwap(@Valid @RequestBody SwapDto.Post requestBody,
-                                   @AuthenticationPrincipal Map<String, Object> userInfo) {
-        Swap swap = swapService.createSwap(swapMapper.swapPostToSwap(requestBody), Long.parseLong(userInfo.get("id").toString()));
+                                   @AuthenticationPrincipal Map<String, Object> userInfo,
+                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyUtil.execute(idempotencyKey, "POST /api/swaps", requestBody, () -> {
+            Swap swap = swapService.createSwap(swapMapper.swapPostToSwap(requestBody), Long.parseLong(userInfo.get("id").toString()));
 
-        return new ResponseEntity(
-                new SingleResponseDto<>(swapMapper.swapToSwapResponseDto(swap)), HttpStatus.CREATED
-        );
+            return new ResponseEntity(
+                    new SingleResponseDto<>(swapMapper.swapToSwapResponseDto(swap)), HttpStatus.CREATED
+            );
+        });
     }
 
     @GetMapping("/calculates")
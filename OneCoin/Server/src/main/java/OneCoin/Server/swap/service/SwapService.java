@@ -6,6 +6,7 @@ import OneCoin.Server.order.entity.enums.Commission;
 import OneCoin.Server.order.service.OrderService;
 import OneCoin.Server.order.service.TransactionHistoryService;
 import OneCoin.Server.order.service.WalletService;
+import OneCoin.Server.rank.repository.RankAggregateRepository;
 import OneCoin.Server.swap.entity.ExchangeRate;
 import OneCoin.Server.swap.entity.Swap;
 import OneCoin.Server.swap.mapper.SwapWalletMapper;
@@ -13,17 +14,18 @@ import OneCoin.Server.swap.repository.SwapRepository;
 import OneCoin.Server.upbit.repository.TickerRepository;
 import OneCoin.Server.user.entity.User;
 import OneCoin.Server.user.service.UserService;
+import OneCoin.Server.utils.UserLockUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class SwapService {
     private final SwapRepository swapRepository;
@@ -34,6 +36,9 @@ public class SwapService {
     private final WalletService walletService;
     private final SwapWalletMapper swapWalletMapper;
     private final TransactionHistoryService transactionHistoryService;
+    private final UserLockUtil userLockUtil;
+    private final RankAggregateRepository rankAggregateRepository;
+    private final TransactionTemplate transactionTemplate;
     private final BigDecimal swapCommission = Commission.SWAP.getRate();    // 수수료
     private final BigDecimal swapAmount = BigDecimal.ONE.subtract(swapCommission);        // 수수료 제외량
 
@@ -66,10 +71,15 @@ public class SwapService {
     /**
      * <pre>
      *      코인 스왑
+     *      lock 은 트랜잭션 밖에서 잡아 lock 을 기다리는 동안 DB connection 을 점유하지 않는다.
      * </pre>
      */
 
     public Swap createSwap(Swap swap, Long userId) {
+        return userLockUtil.executeWithLock(userId, () -> transactionTemplate.execute(status -> swapCoin(swap, userId)));
+    }
+
+    private Swap swapCoin(Swap swap, Long userId) {
         User user = userService.findUser(userId);
         String givenCoinCode = swap.getGivenCoin().getCode();
         String takenCoinCode = swap.getTakenCoin().getCode();
@@ -109,6 +119,7 @@ public class SwapService {
         
         // Transaction History 저장
         transactionHistoryService.createTransactionHistoryBySwap(swap);
+        rankAggregateRepository.markDirty(userId);
 
         return swapRepository.save(swap);
     }
@@ -118,6 +129,7 @@ public class SwapService {
      *     스왑 정보 리스트 가져오기
      * </pre>
      */
+    @Transactional(readOnly = true)
     public Page<Swap> findSwaps(int page, int size) {
         return swapRepository.findAll(PageRequest.of(page, size));
     }
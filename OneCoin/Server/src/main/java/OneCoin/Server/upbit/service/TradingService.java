@@ -1,8 +1,8 @@
 package OneCoin.Server.upbit.service;
 
 import OneCoin.Server.order.entity.Order;
-import OneCoin.Server.order.entity.Wallet;
 import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.OrderIndexRepository;
 import OneCoin.Server.order.repository.OrderRepository;
 import OneCoin.Server.order.service.WalletService;
 import OneCoin.Server.upbit.entity.Trade;
@@ -11,12 +11,14 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class TradingService {
     private final OrderRepository orderRepository;
+    private final OrderIndexRepository orderIndexRepository;
     private final WalletService walletService;
 
     @EventListener
@@ -25,7 +27,7 @@ public class TradingService {
         BigDecimal tradeVolume = new BigDecimal(trade.getTradeVolume());
         String orderType = trade.getOrderType();
 
-        List<Order> orders = orderRepository.findAllByOrderTypeAndCode(orderType, trade.getCode());
+        List<Order> orders = findCrossingOrders(trade.getCode(), orderType, tradePrice);
         if (orders.isEmpty()) {
             return;
         }
@@ -46,22 +48,31 @@ public class TradingService {
         }
     }
 
+    private List<Order> findCrossingOrders(String code, String orderType, BigDecimal tradePrice) {
+        List<Long> orderIds = orderIndexRepository.findCrossingOrderIds(code, orderType, tradePrice);
+        List<Order> orders = new ArrayList<>();
+        if (orderIds.isEmpty()) {
+            return orders;
+        }
+        orderRepository.findAllById(orderIds).forEach(orders::add);
+
+        if (orders.size() < orderIds.size()) { // index 에만 남아있는 주문 정리
+            List<Long> staleOrderIds = new ArrayList<>(orderIds);
+            orders.forEach(order -> staleOrderIds.remove(order.getOrderId()));
+            orderIndexRepository.removeByOrderIds(code, orderType, staleOrderIds);
+        }
+        return orders;
+    }
+
     private void tradeBid(List<Order> orders, BigDecimal tradeVolume) {
         for (Order order : orders) {
-            Wallet findWallet = walletService.findMyWallet(order.getUserId(), order.getCode());
-
-            if (findWallet != null) {
-                walletService.updateWalletByBid(findWallet, order, tradeVolume);
-            } else {
-                walletService.createWallet(order, tradeVolume);
-            }
+            walletService.completeBidOrder(order, tradeVolume);
         }
     }
 
     private void tradeAsk(List<Order> orders, BigDecimal tradeVolume) {
         for (Order order : orders) {
-            Wallet findWallet = walletService.findMyWallet(order.getUserId(), order.getCode());
-            walletService.updateWalletByAsk(findWallet, order, tradeVolume);
+            walletService.completeAskOrder(order, tradeVolume);
         }
     }
 }
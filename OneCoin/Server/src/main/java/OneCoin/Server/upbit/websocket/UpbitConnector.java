@@ -0,0 +1,79 @@
+package OneCoin.Server.upbit.websocket;
+
+import OneCoin.Server.upbit.entity.enums.CoinList;
+import OneCoin.Server.upbit.service.UpbitHandlingService;
+import OneCoin.Server.upbit.websocket.listener.UpbitWebSocketListener;
+import OneCoin.Server.utils.JsonUtil;
+import OneCoin.Server.utils.LeadershipChangedEvent;
+import OneCoin.Server.utils.ScheduledJobRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * <pre>
+ *     Upbit 시세 수신(현재가, 체결, 호가)은 leader 서버에서만 한다.
+ *     leader 가 되면 연결하고 leader 를 잃으면 끊는다. 연결이 끊기면 주기적으로 다시 연결한다.
+ *     다른 서버는 leader 가 Redis 에 저장한 시세를 사용한다.
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpbitConnector {
+    private final String URL = "wss://api.upbit.com/websocket/v1";
+    private final OkHttpClient okHttpClient;
+    private final JsonUtil jsonUtil;
+    private final UpbitHandlingService upbitHandlingService;
+    private final ScheduledJobRunner scheduledJobRunner;
+    private WebSocket webSocket;
+
+    @EventListener
+    public void onLeadershipChanged(LeadershipChangedEvent event) {
+        if (event.isLeader()) {
+            connect();
+        } else {
+            disconnect();
+        }
+    }
+
+    @Scheduled(fixedDelay = 10000)
+    public void reconnectIfClosed() {
+        scheduledJobRunner.runOnLeader("upbit-reconnect", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(5), this::connect);
+    }
+
+    @PreDestroy
+    public synchronized void disconnect() {
+        if (webSocket == null) {
+            return;
+        }
+        webSocket.close(1000, "leadership released");
+        webSocket = null;
+        log.info("[UPBIT] disconnected");
+    }
+
+    private synchronized void connect() {
+        if (webSocket != null) {
+            return;
+        }
+        Request request = new Request.Builder().url(URL).build();
+        UpbitWebSocketListener webSocketListener = new UpbitWebSocketListener(jsonUtil, upbitHandlingService, this::onDisconnected);
+        webSocketListener.setParameter(CoinList.CODES);
+        webSocket = okHttpClient.newWebSocket(request, webSocketListener);
+        log.info("[UPBIT] connecting");
+    }
+
+    private synchronized void onDisconnected(WebSocket closed) {
+        if (webSocket == closed) {
+            webSocket = null;
+        }
+    }
+}
@@ -15,12 +15,14 @@ import org.jetbrains.annotations.NotNull;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @RequiredArgsConstructor
 public class UpbitWebSocketListener extends WebSocketListener {
     private final JsonUtil jsonUtil;
     private final UpbitHandlingService upbitHandlingService;
+    private final Consumer<WebSocket> onDisconnected;
     private String parameter;
 
     public String getParameter() {
@@ -39,6 +41,7 @@ public class UpbitWebSocketListener extends WebSocketListener {
     @Override
     public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
         log.warn("Socket Closed: {}, {}", code, reason);
+        onDisconnected.accept(webSocket);
     }
 
     @Override
@@ -50,6 +53,7 @@ public class UpbitWebSocketListener extends WebSocketListener {
     @Override
     public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, Response response) {
         log.error("Socket Error: {}", t.getMessage());
+        onDisconnected.accept(webSocket);
     }
 
     @Override
@@ -6,11 +6,13 @@ import OneCoin.Server.upbit.dto.orderbook.OrderBookDto;
 import OneCoin.Server.upbit.dto.ticker.TickerDto;
 import OneCoin.Server.upbit.repository.OrderBookRepository;
 import OneCoin.Server.upbit.repository.TickerRepository;
+import OneCoin.Server.utils.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
 
 @Component
@@ -19,9 +21,14 @@ public class UpbitWebSocketPublisher {
     private final SimpMessagingTemplate messagingTemplate;
     private final TickerRepository tickerRepository;
     private final OrderBookRepository orderBookRepository;
+    private final ScheduledJobRunner scheduledJobRunner;
 
     @Scheduled(fixedDelay = 1000)
     public void send() {
+        scheduledJobRunner.run("upbit-market-push", ScheduledJobRunner.Pool.REALTIME, Duration.ofMillis(500), this::sendMarket);
+    }
+
+    private void sendMarket() {
         List<TickerDto> tickerDto = tickerRepository.findTickers();
         List<OrderBookDto> orderBookDto = orderBookRepository.findOrderBooks();
         MarketDto marketDto = new MarketDto(tickerDto, orderBookDto);
@@ -3,6 +3,7 @@ package OneCoin.Server.user.repository;
 
 import OneCoin.Server.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
@@ -21,4 +22,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * 닉네임으로 계정 존재 여부 검색
      */
     Boolean existsByDisplayName(String displayName);
+
+    /**
+     * 가장 큰 유저 id, 유저가 없으면 null
+     */
+    @Query("SELECT MAX(u.userId) FROM users u")
+    Long findMaxUserId();
 }
@@ -0,0 +1,81 @@
+package OneCoin.Server.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <pre>
+ *     살아있는 서버 목록과 consistent hashing 으로 key(채팅방 등)를 맡을 서버를 정한다.
+ *     cluster:nodes (ZSet) member : nodeId, score : 마지막 heartbeat 시각
+ *     heartbeat 는 expire 의 1/3 주기로 heartbeatScheduler 에서 실행한다.
+ *     expire 동안 heartbeat 가 없는 서버는 목록에서 빠지고, 그 서버가 맡던 key 는 다른 서버로 옮겨진다.
+ *     목록이 바뀌는 동안에는 두 서버가 같은 key 를 맡을 수 있으므로, 맡은 작업은 중복 실행되어도 안전해야 한다.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+    private static final String KEY = "cluster:nodes";
+    private final int VIRTUAL_NODES = 100;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TaskScheduler heartbeatScheduler;
+    private final String nodeId;
+    private final long expireMillis;
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembership(StringRedisTemplate stringRedisTemplate,
+                             LeaderElection leaderElection,
+                             @Qualifier("heartbeatScheduler") TaskScheduler heartbeatScheduler,
+                             @Value("${cluster.node-expire-millis:15000}") long expireMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.nodeId = leaderElection.getNodeId();
+        this.expireMillis = expireMillis;
+        this.ring = new ConsistentHashRing(List.of(nodeId), VIRTUAL_NODES);
+    }
+
+    @PostConstruct
+    private void startHeartbeat() {
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, Duration.ofMillis(expireMillis / 3));
+    }
+
+    public void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            ZSetOperations<String, String> operations = stringRedisTemplate.opsForZSet();
+            operations.add(KEY, nodeId, now);
+            operations.removeRangeByScore(KEY, 0, now - expireMillis);
+            Set<String> nodes = operations.range(KEY, 0, -1);
+            if (nodes != null && !nodes.isEmpty() && !nodes.equals(ring.getNodes())) {
+                ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+                log.info("[CLUSTER] nodes changed: {}", nodes);
+            }
+        } catch (Exception e) {
+            log.warn("[CLUSTER] heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isOwner(String key) {
+        return nodeId.equals(ring.nodeFor(key));
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            stringRedisTemplate.opsForZSet().remove(KEY, nodeId);
+        } catch (Exception e) {
+            log.warn("[CLUSTER] leave failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package OneCoin.Server.utils;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     Snowflake 방식의 시간순 id 생성기 (주문)
+ *     | 시간(ms, 40bit) | 노드(5bit) | 시퀀스(8bit) |
+ *     총 53bit 로 JavaScript Number 에서도 정밀도 손실이 없다.
+ *     Redis 등 외부 요청 없이 메모리에서 CAS 로 발급하며,
+ *     같은 ms 에 시퀀스가 모두 소진되면 다음 ms 를 당겨 쓰되, 현재 시각보다 MAX_BORROW_MILLIS 넘게 앞서지는 않는다.
+ *
+ *     노드 id 는 시작할 때 Redis 에서 빌린다.
+ *     - snowflake:node:{n}      : SET NX PX {lease} 로 빈 번호를 차지하고 heartbeatScheduler 에서 lease 의 1/3 주기로 갱신
+ *     - snowflake:node:{n}:last : 갱신 때마다 남기는 마지막 발급 시각, 같은 번호를 다시 빌리면 그 이후부터 발급한다.
+ *     snowflake.node-id 를 지정하면 그 번호만 빌린다. 빌리지 못하면 시작하지 않는다.
+ *     lease 를 잃으면(Redis 장애, 다른 서버가 차지) 같은 id 를 발급하지 않도록 발급을 멈춘다.
+ *     종료 시 번호를 반납하지 않는다. lease 가 끝나야 다른 서버가 쓸 수 있으므로, 당겨 쓴 시각과 겹치지 않는다.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class IdGenerator {
+    private static final long EPOCH = 1667260800000L; // 2022-11-01T00:00:00Z
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 8;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_BORROW_MILLIS = 1000;
+    private static final String KEY_PREFIX = "snowflake:node:";
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  redis.call('SET', KEYS[2], ARGV[3]) " +
+            "  return redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TaskScheduler heartbeatScheduler;
+    private final long configuredNodeId;
+    private final long leaseMillis;
+    private final String token = UUID.randomUUID().toString();
+    private final AtomicLong lastState = new AtomicLong(); // (시간 << SEQUENCE_BITS) | 시퀀스
+    private long nodeId = -1;
+    private volatile long leaseValidUntil = 0; // System.nanoTime 기준
+
+    public IdGenerator(StringRedisTemplate stringRedisTemplate,
+                       @Qualifier("heartbeatScheduler") TaskScheduler heartbeatScheduler,
+                       @Value("${snowflake.node-id:-1}") long configuredNodeId,
+                       @Value("${snowflake.lease-millis:15000}") long leaseMillis) {
+        if (configuredNodeId < -1 || configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("snowflake.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        if (leaseMillis / 3 * 2 <= MAX_BORROW_MILLIS) {
+            throw new IllegalArgumentException("snowflake.lease-millis must be greater than " + MAX_BORROW_MILLIS * 3 / 2);
+        }
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.configuredNodeId = configuredNodeId;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @PostConstruct
+    public void leaseNodeId() {
+        long from = configuredNodeId < 0 ? 0 : configuredNodeId;
+        long to = configuredNodeId < 0 ? MAX_NODE_ID : configuredNodeId;
+        for (long candidate = from; candidate <= to; candidate++) {
+            long requestedAt = System.nanoTime();
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + candidate, token, Duration.ofMillis(leaseMillis)))) {
+                nodeId = candidate;
+                leaseValidUntil = requestedAt + Duration.ofMillis(leaseMillis).toNanos();
+                lastState.set(lastIssuedMillis(candidate) << SEQUENCE_BITS);
+                heartbeatScheduler.scheduleWithFixedDelay(this::renew, Duration.ofMillis(leaseMillis / 3));
+                log.info("[ID] leased snowflake node id {}", nodeId);
+                return;
+            }
+        }
+        throw new IllegalStateException("No free snowflake node id in [" + from + ", " + to + "]");
+    }
+
+    public long nextId() {
+        if (System.nanoTime() > leaseValidUntil) {
+            throw new BusinessLogicException(ExceptionCode.ID_GENERATOR_UNAVAILABLE);
+        }
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long prev = lastState.get();
+            long next = now > (prev >>> SEQUENCE_BITS)
+                    ? now << SEQUENCE_BITS
+                    : prev + 1; // 같은 ms 이거나 시계가 뒤로 간 경우, 시퀀스가 넘치면 시간 bit 로 올림된다
+            if ((next >>> SEQUENCE_BITS) - now > MAX_BORROW_MILLIS) { // 너무 앞서 당겨 쓰면 시각이 따라올 때까지 기다린다
+                Thread.onSpinWait();
+                continue;
+            }
+            if (lastState.compareAndSet(prev, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    public void renew() {
+        long requestedAt = System.nanoTime();
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(KEY_PREFIX + nodeId, KEY_PREFIX + nodeId + ":last"),
+                    token, String.valueOf(leaseMillis), String.valueOf(lastState.get() >>> SEQUENCE_BITS));
+            if (renewed != null && renewed == 1L) {
+                leaseValidUntil = requestedAt + Duration.ofMillis(leaseMillis).toNanos();
+                return;
+            }
+            log.error("[ID] snowflake node id {} lease lost", nodeId);
+        } catch (Exception e) {
+            log.warn("[ID] snowflake node id {} renew failed: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * 이전에 같은 번호를 쓴 서버가 당겨 썼을 수 있는 시각까지 포함한다.
+     */
+    private long lastIssuedMillis(long candidate) {
+        String last = stringRedisTemplate.opsForValue().get(KEY_PREFIX + candidate + ":last");
+        return last == null ? 0 : Long.parseLong(last) + MAX_BORROW_MILLIS;
+    }
+}
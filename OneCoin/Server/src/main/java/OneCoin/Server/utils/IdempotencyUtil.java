@@ -0,0 +1,178 @@
+package OneCoin.Server.utils;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ *     Idempotency-Key 헤더 처리
+ *     idempotency:{userId}:{key} 에 요청 fingerprint 와 응답(status, body)을 일정 시간 보관해 여러 서버가 공유한다.
+ *     - 처리 시작 : SET NX PX {in-flight} 로 처리 중 표시, 처리하던 서버가 죽어도 in-flight 가 지나면 다시 시도할 수 있다.
+ *     - 처리 완료 : 응답으로 덮어쓰고 TTL 을 ttl-minutes 로 늘린다.
+ *     - 같은 key, 같은 요청 : 저장된 응답을 반환 (처리 중이면 완료될 때까지 기다린다)
+ *     - 같은 key, 다른 요청 : 422
+ *     - 처리 중 예외가 발생하면 처리 중 표시를 지우므로 다시 시도할 수 있다.
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyUtil {
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0", Long.class);
+    private final long WAIT_TIMEOUT_SECONDS = 10;
+    private final long POLL_MILLIS = 50;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${idempotency.in-flight-seconds:30}")
+    private long inFlightSeconds;
+
+    public ResponseEntity execute(String idempotencyKey, String endpoint, Object requestBody, Supplier<ResponseEntity> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = KEY_PREFIX + currentUserScope() + ":" + idempotencyKey;
+        String fingerprint = endpoint + ":" + toJson(requestBody);
+        String inFlight = toJson(StoredResponse.inFlight(fingerprint));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_TIMEOUT_SECONDS);
+
+        while (true) {
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, inFlight, Duration.ofSeconds(inFlightSeconds)))) {
+                return executeAndStore(key, inFlight, fingerprint, action);
+            }
+            String stored = stringRedisTemplate.opsForValue().get(key);
+            if (stored == null) { // 그 사이 처리 중 표시가 지워졌으면 다시 시도
+                continue;
+            }
+            StoredResponse prevResponse = fromJson(stored);
+            if (!prevResponse.getFingerprint().equals(fingerprint)) {
+                throw new BusinessLogicException(ExceptionCode.IDEMPOTENCY_KEY_REUSED);
+            }
+            if (prevResponse.isCompleted()) {
+                return prevResponse.toResponseEntity(objectMapper);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new BusinessLogicException(ExceptionCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+            }
+            sleep();
+        }
+    }
+
+    private ResponseEntity executeAndStore(String key, String inFlight, String fingerprint, Supplier<ResponseEntity> action) {
+        ResponseEntity response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(key), inFlight);
+            throw e;
+        }
+        String body = response.getBody() == null ? null : toJson(response.getBody());
+        StoredResponse completed = StoredResponse.completed(fingerprint, response.getStatusCodeValue(), body);
+        stringRedisTemplate.opsForValue().set(key, toJson(completed), Duration.ofMinutes(ttlMinutes));
+        return response;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException(ExceptionCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+        }
+    }
+
+    private String currentUserScope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Map)) {
+            return "anonymous";
+        }
+        return String.valueOf(((Map<?, ?>) authentication.getPrincipal()).get("id"));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new BusinessLogicException(ExceptionCode.FAIL_TO_SERIALIZE);
+        }
+    }
+
+    private StoredResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, StoredResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new BusinessLogicException(ExceptionCode.FAIL_TO_SERIALIZE);
+        }
+    }
+
+    /**
+     * status 가 null 이면 처리 중, token 은 처리 중 표시를 만든 요청만 지울 수 있도록 구분한다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    static class StoredResponse {
+        private String fingerprint;
+        private String token;
+        private Integer status;
+        private String body;
+
+        static StoredResponse inFlight(String fingerprint) {
+            StoredResponse storedResponse = new StoredResponse();
+            storedResponse.fingerprint = fingerprint;
+            storedResponse.token = UUID.randomUUID().toString();
+            return storedResponse;
+        }
+
+        static StoredResponse completed(String fingerprint, int status, String body) {
+            StoredResponse storedResponse = new StoredResponse();
+            storedResponse.fingerprint = fingerprint;
+            storedResponse.status = status;
+            storedResponse.body = body;
+            return storedResponse;
+        }
+
+        boolean isCompleted() {
+            return status != null;
+        }
+
+        ResponseEntity toResponseEntity(ObjectMapper objectMapper) {
+            if (body == null) {
+                return ResponseEntity.status(status).build();
+            }
+            try {
+                return ResponseEntity.status(status).body(objectMapper.readTree(body));
+            } catch (JsonProcessingException e) {
+                throw new BusinessLogicException(ExceptionCode.FAIL_TO_SERIALIZE);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package OneCoin.Server.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * <pre>
+ *     Redis lease 기반 leader 선출
+ *     - 획득 : SET leader:lease {nodeId} NX PX {lease}
+ *     - 갱신 : 값이 내 nodeId 일 때만 PEXPIRE (Lua), lease 의 1/3 주기, heartbeatScheduler 에서 실행
+ *     - 반납 : 종료 시 값이 내 nodeId 일 때만 DEL (Lua), 다음 서버가 바로 넘겨받는다.
+ *     Redis 에 접근하지 못해도 마지막 갱신부터 lease 가 끝나면 스스로 leader 가 아닌 것으로 본다.
+ *     여러 서버 중 한 곳에서만 실행되어야 하는 작업은 isLeader() 로 확인한다.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class LeaderElection {
+    private static final String KEY = "leader:lease";
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final TaskScheduler heartbeatScheduler;
+    private final long leaseMillis;
+    private final String nodeId;
+    private volatile boolean leader = false;
+    private volatile long leaseValidUntil = 0; // System.nanoTime 기준
+
+    public LeaderElection(StringRedisTemplate stringRedisTemplate,
+                          ApplicationEventPublisher publisher,
+                          @Qualifier("heartbeatScheduler") TaskScheduler heartbeatScheduler,
+                          @Value("${leader.lease-millis:15000}") long leaseMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.publisher = publisher;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.leaseMillis = leaseMillis;
+        this.nodeId = hostName() + ":" + UUID.randomUUID();
+    }
+
+    public boolean isLeader() {
+        return leader && System.nanoTime() < leaseValidUntil;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PostConstruct
+    private void startHeartbeat() {
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, Duration.ofMillis(leaseMillis / 3));
+    }
+
+    public void heartbeat() {
+        long requestedAt = System.nanoTime();
+        boolean holding;
+        try {
+            holding = leader ? renew() : acquire();
+        } catch (Exception e) {
+            log.warn("[LEADER] heartbeat failed: {}", e.getMessage());
+            holding = false;
+        }
+        if (holding) {
+            leaseValidUntil = requestedAt + Duration.ofMillis(leaseMillis).toNanos();
+        }
+        changeLeadership(holding);
+    }
+
+    @PreDestroy
+    public void release() {
+        if (!leader) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(KEY), nodeId);
+        } catch (Exception e) {
+            log.warn("[LEADER] release failed: {}", e.getMessage());
+        }
+        changeLeadership(false);
+    }
+
+    private boolean acquire() {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(KEY, nodeId, Duration.ofMillis(leaseMillis)));
+    }
+
+    private boolean renew() {
+        Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(KEY), nodeId, String.valueOf(leaseMillis));
+        return renewed != null && renewed == 1L;
+    }
+
+    private void changeLeadership(boolean holding) {
+        if (leader == holding) {
+            return;
+        }
+        leader = holding;
+        log.info("[LEADER] {} {} leadership", nodeId, holding ? "acquired" : "lost");
+        publisher.publishEvent(new LeadershipChangedEvent(holding));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
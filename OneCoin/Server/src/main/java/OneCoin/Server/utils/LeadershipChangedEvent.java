@@ -0,0 +1,13 @@
+package OneCoin.Server.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 이 서버가 leader 가 되거나(leader = true) leader 를 잃었을 때(false) 발행된다.
+ */
+@Getter
+@AllArgsConstructor
+public class LeadershipChangedEvent {
+    private final boolean leader;
+}
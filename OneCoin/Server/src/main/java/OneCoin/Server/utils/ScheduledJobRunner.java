@@ -0,0 +1,111 @@
+package OneCoin.Server.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <pre>
+ *     주기 작업을 pool 별 executor 에서 실행한다.
+ *     - 이전 실행이 끝나지 않았으면 이번 실행은 건너뛴다.
+ *     - runOnLeader 는 여러 서버 중 leader 에서만 실행한다.
+ *     - 실행 시간이 기대 시간을 넘으면 overrun 으로 기록한다.
+ *     - scheduled_job.duration(실행 시간), scheduled_job.lag(trigger 부터 실행 시작까지), scheduled_job.skipped,
+ *       scheduled_job.overrun, scheduled_job.failed 를 job 이름 tag 로 남긴다.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class ScheduledJobRunner {
+    public enum Pool {
+        REALTIME, BATCH
+    }
+
+    private final TaskExecutor realtimeJobExecutor;
+    private final TaskExecutor batchJobExecutor;
+    private final MeterRegistry meterRegistry;
+    private final LeaderElection leaderElection;
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+
+    public ScheduledJobRunner(@Qualifier("realtimeJobExecutor") TaskExecutor realtimeJobExecutor,
+                              @Qualifier("batchJobExecutor") TaskExecutor batchJobExecutor,
+                              MeterRegistry meterRegistry,
+                              LeaderElection leaderElection) {
+        this.realtimeJobExecutor = realtimeJobExecutor;
+        this.batchJobExecutor = batchJobExecutor;
+        this.meterRegistry = meterRegistry;
+        this.leaderElection = leaderElection;
+    }
+
+    /**
+     * 한 서버에서만 실행되어야 하는 작업, leader 가 아니면 실행하지 않는다.
+     */
+    public void runOnLeader(String jobName, Pool pool, Duration expected, Runnable job) {
+        if (!leaderElection.isLeader()) {
+            return;
+        }
+        run(jobName, pool, expected, job);
+    }
+
+    /**
+     * @param expected 이 시간을 넘기면 overrun 으로 기록한다.
+     */
+    public void run(String jobName, Pool pool, Duration expected, Runnable job) {
+        AtomicBoolean jobRunning = running.computeIfAbsent(jobName, key -> new AtomicBoolean());
+        if (!jobRunning.compareAndSet(false, true)) {
+            counter("scheduled_job.skipped", jobName).increment();
+            log.warn("[SCHEDULER] {} skipped, previous run is still running", jobName);
+            return;
+        }
+        long triggeredAt = System.nanoTime();
+        try {
+            executorOf(pool).execute(() -> execute(jobName, expected, job, triggeredAt, jobRunning));
+        } catch (TaskRejectedException e) {
+            jobRunning.set(false);
+            counter("scheduled_job.skipped", jobName).increment();
+            log.warn("[SCHEDULER] {} rejected by {} pool", jobName, pool);
+        }
+    }
+
+    private void execute(String jobName, Duration expected, Runnable job, long triggeredAt, AtomicBoolean jobRunning) {
+        long startedAt = System.nanoTime();
+        timer("scheduled_job.lag", jobName).record(startedAt - triggeredAt, TimeUnit.NANOSECONDS);
+        try {
+            job.run();
+        } catch (Exception e) {
+            counter("scheduled_job.failed", jobName).increment();
+            log.error("[SCHEDULER] {} failed", jobName, e);
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            timer("scheduled_job.duration", jobName).record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed > expected.toNanos()) {
+                counter("scheduled_job.overrun", jobName).increment();
+                log.warn("[SCHEDULER] {} overran, took {} ms (expected {} ms)", jobName, TimeUnit.NANOSECONDS.toMillis(elapsed), expected.toMillis());
+            }
+            jobRunning.set(false);
+        }
+    }
+
+    private TaskExecutor executorOf(Pool pool) {
+        return pool == Pool.REALTIME ? realtimeJobExecutor : batchJobExecutor;
+    }
+
+    private Counter counter(String name, String jobName) {
+        return meterRegistry.counter(name, "job", jobName);
+    }
+
+    private Timer timer(String name, String jobName) {
+        return meterRegistry.timer(name, "job", jobName);
+    }
+}
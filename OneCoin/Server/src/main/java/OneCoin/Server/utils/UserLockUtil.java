@@ -0,0 +1,146 @@
+package OneCoin.Server.utils;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ *     userId 기준 striped lock + Redis lock
+ *     같은 유저의 Wallet, Balance 를 읽고-계산하고-저장하는 구간을 직렬화한다.
+ *     서버 안에서는 striped lock 으로 먼저 줄을 세우고, 서버 사이에서는 SET user-lock:{userId} {token} NX PX 로 직렬화한다.
+ *     Redis lock 은 값이 내 token 일 때만 DEL (Lua) 하고, 서버가 죽어도 lease 가 끝나면 풀린다.
+ *     lock 을 기다리는 동안 DB connection 을 점유하지 않도록 트랜잭션 밖에서 호출하고, 트랜잭션은 lock 안에서 연다.
+ *     트랜잭션 안에서 호출되면 커밋(롤백) 이후에 lock 을 해제한다.
+ *     Redis lock 은 재진입할 수 없으므로, 이미 같은 유저의 lock 을 들고 있는 스레드가 다시 호출하면 새로 잡지 않고 그대로 실행한다.
+ * </pre>
+ */
+@Component
+public class UserLockUtil {
+    private static final String KEY_PREFIX = "user-lock:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0", Long.class);
+    private final int STRIPES = 256; // 2의 거듭제곱
+    private final long WAIT_TIMEOUT_MILLIS = 3000;
+    private final long RETRY_INTERVAL_MILLIS = 5;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ThreadLocal<Set<Long>> heldUserIds = ThreadLocal.withInitial(HashSet::new);
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long leaseMillis;
+
+    public UserLockUtil(StringRedisTemplate stringRedisTemplate,
+                        @Value("${user-lock.lease-millis:10000}") long leaseMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.leaseMillis = leaseMillis;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock(true); // 먼저 대기한 요청부터 처리
+        }
+    }
+
+    public void executeWithLock(long userId, Runnable task) {
+        executeWithLock(userId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> T executeWithLock(long userId, Supplier<T> task) {
+        if (heldUserIds.get().contains(userId)) { // 바깥 호출이 해제한다
+            return task.get();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_TIMEOUT_MILLIS);
+        ReentrantLock lock = acquire(userId);
+        String token;
+        try {
+            token = acquireRedisLock(userId, deadline);
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        heldUserIds.get().add(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(userId, token, lock);
+                }
+            });
+            return task.get();
+        }
+        try {
+            return task.get();
+        } finally {
+            release(userId, token, lock);
+        }
+    }
+
+    private ReentrantLock acquire(long userId) {
+        ReentrantLock lock = locks[stripeOf(userId)];
+        try {
+            if (!lock.tryLock(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new BusinessLogicException(ExceptionCode.USER_LOCK_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException(ExceptionCode.USER_LOCK_TIMEOUT);
+        }
+        return lock;
+    }
+
+    /**
+     * <pre>
+     *     다른 서버가 같은 유저의 lock 을 들고 있으면 짧게 쉬었다가 다시 시도한다.
+     *     striped lock 을 기다린 시간까지 포함해 WAIT_TIMEOUT_MILLIS 안에 얻지 못하면 실패한다.
+     * </pre>
+     */
+    private String acquireRedisLock(long userId, long deadline) {
+        String key = KEY_PREFIX + userId;
+        String token = UUID.randomUUID().toString();
+        while (true) {
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, token, Duration.ofMillis(leaseMillis)))) {
+                return token;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new BusinessLogicException(ExceptionCode.USER_LOCK_TIMEOUT);
+            }
+            try {
+                Thread.sleep(RETRY_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessLogicException(ExceptionCode.USER_LOCK_TIMEOUT);
+            }
+        }
+    }
+
+    private void release(long userId, String token, ReentrantLock lock) {
+        heldUserIds.get().remove(userId);
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + userId), token);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripeOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L; // 연속된 userId 가 같은 stripe 에 몰리지 않도록 섞는다
+        return (int) (hash >>> 32) & (STRIPES - 1);
+    }
+}
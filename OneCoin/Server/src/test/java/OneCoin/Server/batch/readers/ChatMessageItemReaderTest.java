@@ -0,0 +1,59 @@
+package OneCoin.Server.batch.readers;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ChatMessageItemReaderTest {
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+
+    @Test
+    void readPagesUntilToIdTest() {
+        //given
+        given(chatMessageRepository.findBetween(1, 0L, 100L, 2))
+                .willReturn(List.of(message(1L), message(2L)));
+        given(chatMessageRepository.findBetween(1, 2L, 100L, 2))
+                .willReturn(List.of(message(3L)));
+        ChatMessageItemReader reader = new ChatMessageItemReader(chatMessageRepository, 1, 0L, 100L, 2);
+        reader.open(new ExecutionContext());
+        //when then
+        assertThat(reader.read().getChatMessageId()).isEqualTo(1L);
+        assertThat(reader.read().getChatMessageId()).isEqualTo(2L);
+        assertThat(reader.read().getChatMessageId()).isEqualTo(3L);
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void restartFromLastCommittedIdTest() {
+        //given
+        ExecutionContext executionContext = new ExecutionContext();
+        ChatMessageItemReader firstRun = new ChatMessageItemReader(chatMessageRepository, 1, 0L, 100L, 2);
+        given(chatMessageRepository.findBetween(1, 0L, 100L, 2))
+                .willReturn(List.of(message(1L), message(2L)));
+        firstRun.open(executionContext);
+        firstRun.read();
+        firstRun.read();
+        firstRun.update(executionContext);
+        given(chatMessageRepository.findBetween(1, 2L, 100L, 2))
+                .willReturn(List.of(message(3L)));
+        //when
+        ChatMessageItemReader restarted = new ChatMessageItemReader(chatMessageRepository, 1, 0L, 100L, 2);
+        restarted.open(executionContext);
+        //then
+        assertThat(restarted.read().getChatMessageId()).isEqualTo(3L);
+    }
+
+    private ChatMessage message(long chatMessageId) {
+        return ChatMessage.builder()
+                .chatMessageId(chatMessageId)
+                .chatRoomId(1)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package OneCoin.Server.chat.listener;
+
+import OneCoin.Server.chat.repository.RecentChatMessageCache;
+import OneCoin.Server.chat.utils.ChatRoomUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ChatRoomSubscriptionRegistryTest {
+    private final RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+    private final RedisListener redisListener = mock(RedisListener.class);
+    private final RecentChatMessageCache recentChatMessageCache = mock(RecentChatMessageCache.class);
+    private final ChatRoomSubscriptionRegistry registry = new ChatRoomSubscriptionRegistry(container, redisListener, new ChatRoomUtils(), recentChatMessageCache);
+
+    @Test
+    void subscribeChannelOnlyForFirstSubscriberTest() {
+        //when
+        registry.subscribe("session1", "sub-0", 1);
+        registry.subscribe("session2", "sub-0", 1);
+        //then
+        verify(container, times(1)).addMessageListener(eq(redisListener), eq(new ChannelTopic("chat:room:1")));
+        verify(recentChatMessageCache, times(1)).track(1);
+        assertThat(registry.countSubscribers(1)).isEqualTo(2);
+    }
+
+    @Test
+    void unsubscribeChannelAfterLastSubscriberLeavesTest() {
+        //given
+        registry.subscribe("session1", "sub-0", 1);
+        registry.subscribe("session2", "sub-0", 1);
+        //when
+        registry.unsubscribe("session1", "sub-0");
+        //then
+        verify(container, never()).removeMessageListener(eq(redisListener), any(ChannelTopic.class));
+        //when
+        registry.unsubscribeAll("session2");
+        //then
+        verify(container, times(1)).removeMessageListener(eq(redisListener), eq(new ChannelTopic("chat:room:1")));
+        verify(recentChatMessageCache).evict(1);
+        assertThat(registry.countSubscribers(1)).isZero();
+    }
+}
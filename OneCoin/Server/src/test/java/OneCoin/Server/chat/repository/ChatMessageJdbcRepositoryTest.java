@@ -0,0 +1,75 @@
+package OneCoin.Server.chat.repository;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.testUtil.WebSocketTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest
+public class ChatMessageJdbcRepositoryTest {
+    @Autowired
+    private ChatMessageJdbcRepository chatMessageJdbcRepository;
+    @Autowired
+    private ChatMessageRdbRepository chatMessageRdbRepository;
+    @Autowired
+    private WebSocketTestUtils webSocketTestUtils;
+    private final int chatRoomId = 1030;
+
+    @AfterEach
+    void deleteAll() {
+        chatMessageRdbRepository.deleteAll();
+    }
+
+    @Test
+    void insertAllSkipsSavedIdsTest() {
+        //given
+        List<ChatMessage> messages = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            ChatMessage chatMessage = webSocketTestUtils.makeChatMessage(i, chatRoomId);
+            chatMessage.setChatMessageId(i);
+            messages.add(chatMessage);
+        }
+        chatMessageJdbcRepository.insertAll(messages.subList(0, 4));
+        //when
+        int inserted = chatMessageJdbcRepository.insertAll(messages);
+        //then
+        assertThat(inserted)
+                .isEqualTo(6);
+        assertThat(chatMessageRdbRepository.findAllByChatRoomId(chatRoomId).size())
+                .isEqualTo(10);
+        assertThat(chatMessageRdbRepository.findById(5L).get().getMessage())
+                .isEqualTo("hello5");
+    }
+
+    @Test
+    void insertAllConcurrentlyTest() throws Exception {
+        //given : 두 서버가 같은 채팅방을 동시에 저장
+        List<ChatMessage> messages = new ArrayList<>();
+        for (long i = 1; i <= 100; i++) {
+            ChatMessage chatMessage = webSocketTestUtils.makeChatMessage(i, chatRoomId);
+            chatMessage.setChatMessageId(i);
+            messages.add(chatMessage);
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        //when
+        Future<Integer> first = executorService.submit(() -> chatMessageJdbcRepository.insertAll(messages));
+        Future<Integer> second = executorService.submit(() -> chatMessageJdbcRepository.insertAll(messages));
+        int inserted = first.get() + second.get();
+        executorService.shutdown();
+        //then
+        assertThat(inserted)
+                .isEqualTo(100);
+        assertThat(chatMessageRdbRepository.findAllByChatRoomId(chatRoomId).size())
+                .isEqualTo(100);
+    }
+}
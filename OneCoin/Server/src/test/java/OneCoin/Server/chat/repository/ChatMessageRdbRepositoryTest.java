@@ -1,6 +1,5 @@
 package OneCoin.Server.chat.repository;
 
-import OneCoin.Server.chat.constant.MessageType;
 import OneCoin.Server.chat.entity.ChatMessage;
 import OneCoin.Server.chat.testUtil.WebSocketTestUtils;
 import org.junit.jupiter.api.AfterAll;
@@ -9,10 +8,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -32,6 +30,7 @@ public class ChatMessageRdbRepositoryTest {
         chatRoomId = 1020;
         for (long i = 1; i <= numberOfChatsToCreate; i++) {
             ChatMessage chatMessage = webSocketTestUtils.makeChatMessage(i, chatRoomId);
+            chatMessage.setChatMessageId(i);
             chatMessageRdbRepository.save(chatMessage);
         }
     }
@@ -55,40 +54,20 @@ public class ChatMessageRdbRepositoryTest {
     }
 
     @Test
-    void findByMessageAndChatAtAndUserId() {
-        //given
-        String message = "안녕";
-        String chatAt = LocalDateTime.now().toString();
-        Long userId = 1L;
-        ChatMessage chatMessage = ChatMessage.builder()
-                .message(message)
-                .chatAt(chatAt)
-                .chatRoomId(1)
-                .userDisplayName("abc")
-                .type(MessageType.TALK)
-                .userId(userId)
-                .build();
-        chatMessageRdbRepository.save(chatMessage);
-        //when
-        Optional<ChatMessage> found = chatMessageRdbRepository.findByMessageAndChatAtAndUserId(
-                message, chatAt, userId);
-        //then
-        assertThat(found.get().getMessage())
-                .isEqualTo(message);
-    }
-
-    @Test
-    void findTop10ByChatMessageIdLessThenEqualAndChatRoomIdTest() {
-        //given
-        List<ChatMessage> messagesa = chatMessageRdbRepository.findAll();
+    void findByChatRoomIdAndChatMessageIdLessThanTest() {
         //when
         List<ChatMessage> messages = chatMessageRdbRepository
-                .findTop30ByChatRoomIdAndChatMessageIdLessThanEqualOrderByChatMessageIdDesc(chatRoomId, 15L);
+                .findByChatRoomIdAndChatMessageIdLessThanOrderByChatMessageIdDesc(chatRoomId, 15L, PageRequest.of(0, 30));
         //then
         assertThat(messages.size())
-                .isEqualTo(10);
+                .isEqualTo(14);
         assertThat(messages.get(0).getChatMessageId())
-                .isEqualTo(15L);
+                .isEqualTo(14L);
+    }
 
+    @Test
+    void findMaxChatMessageIdTest() {
+        assertThat(chatMessageRdbRepository.findMaxChatMessageId())
+                .isGreaterThanOrEqualTo(numberOfChatsToCreate);
     }
 }
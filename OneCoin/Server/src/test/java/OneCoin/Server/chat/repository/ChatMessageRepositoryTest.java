@@ -11,8 +11,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -22,12 +26,9 @@ public class ChatMessageRepositoryTest {
     @Autowired
     private ChatMessageRepository chatMessageRepository;
     @Autowired
-    private LastSentScoreRepository lastSentScoreRepository;
-    @Autowired
     private WebSocketTestUtils webSocketTestUtils;
     private Long numberOfChatsToCreate;
     private Integer chatRoomId;
-    private String sessionId;
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
@@ -35,7 +36,6 @@ public class ChatMessageRepositoryTest {
     void saveMessages() {
         numberOfChatsToCreate = 120L;
         chatRoomId = 1000;
-        sessionId = "abcd1234";
         for (long i = 1; i <= numberOfChatsToCreate; i++) {
             chatMessageRepository.save(webSocketTestUtils.makeChatMessage(i, chatRoomId));
         }
@@ -44,8 +44,6 @@ public class ChatMessageRepositoryTest {
     @AfterEach
     void deleteMessages() {
         chatMessageRepository.removeAllInChatRoom(chatRoomId);
-        lastSentScoreRepository.delete(sessionId);
-
     }
 
     @Test
@@ -59,4 +57,108 @@ public class ChatMessageRepositoryTest {
         assertThat(chatRoomList.size())
                 .isEqualTo(numberOfChatsToCreate.intValue());
     }
+
+    @Test
+    void findBeforeTest() {
+        //given
+        List<ChatMessage> all = chatMessageRepository.findAll(chatRoomId);
+        long before = all.get(10).getChatMessageId();
+        //when
+        List<ChatMessage> found = chatMessageRepository.findBefore(chatRoomId, before, 30L);
+        //then
+        assertThat(found.size())
+                .isEqualTo(30);
+        assertThat(found.get(0).getChatMessageId())
+                .isEqualTo(all.get(11).getChatMessageId());
+        assertThat(found.get(29).getChatMessageId())
+                .isEqualTo(all.get(40).getChatMessageId());
+    }
+
+    @Test
+    void trimTest_개수_기준() {
+        //given : 오래된 순서
+        List<ChatMessage> all = chatMessageRepository.findAfter(chatRoomId, 0L, numberOfChatsToCreate);
+        long savedId = all.get(49).getChatMessageId();
+        //when
+        long removed = chatMessageRepository.trim(chatRoomId, 100L, 0L, savedId);
+        //then
+        assertThat(removed).isEqualTo(20L);
+        assertThat(chatMessageRepository.findAll(chatRoomId).size()).isEqualTo(100);
+    }
+
+    @Test
+    void trimTest_저장되지_않은_메시지는_남긴다() {
+        //given
+        List<ChatMessage> all = chatMessageRepository.findAfter(chatRoomId, 0L, numberOfChatsToCreate);
+        long savedId = all.get(49).getChatMessageId();
+        //when
+        long removed = chatMessageRepository.trim(chatRoomId, 10L, 0L, savedId);
+        //then
+        assertThat(removed).isEqualTo(50L);
+        assertThat(chatMessageRepository.findAfter(chatRoomId, 0L, 1L).get(0).getChatMessageId())
+                .isEqualTo(all.get(50).getChatMessageId());
+    }
+
+    @Test
+    void trimTest_시간_기준() {
+        //given
+        List<ChatMessage> all = chatMessageRepository.findAfter(chatRoomId, 0L, numberOfChatsToCreate);
+        long ageCutoffId = all.get(29).getChatMessageId();
+        long savedId = all.get(all.size() - 1).getChatMessageId();
+        //when
+        long removed = chatMessageRepository.trim(chatRoomId, 1000L, ageCutoffId, savedId);
+        //then
+        assertThat(removed).isEqualTo(30L);
+    }
+
+    @Test
+    void saveTest_발급_key_가_사라져도_이어서_발급한다() {
+        //given
+        long lastIssuedId = chatMessageRepository.findLastIssuedId();
+        redisTemplate.delete("chat-message:id");
+        ChatMessage chatMessage = webSocketTestUtils.makeChatMessage(1L, chatRoomId);
+        //when
+        chatMessageRepository.save(chatMessage);
+        //then
+        assertThat(chatMessage.getChatMessageId()).isGreaterThan(lastIssuedId);
+        assertThat(chatMessageRepository.findLastId(chatRoomId)).isEqualTo(chatMessage.getChatMessageId());
+    }
+
+    @Test
+    void saveTest_동시에_저장해도_checkpoint_이후로만_보인다() throws InterruptedException {
+        //given : flusher 처럼 checkpoint 이후를 계속 읽는다
+        int requestCount = 400;
+        long checkpoint = chatMessageRepository.findLastId(chatRoomId);
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        Set<Long> flushed = new HashSet<>();
+        //when
+        for (int i = 0; i < requestCount; i++) {
+            long userId = i;
+            executorService.execute(() -> {
+                try {
+                    chatMessageRepository.save(webSocketTestUtils.makeChatMessage(userId, chatRoomId));
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        boolean done = false;
+        while (true) {
+            List<ChatMessage> messages = chatMessageRepository.findAfter(chatRoomId, checkpoint, 50L);
+            for (ChatMessage message : messages) {
+                flushed.add(message.getChatMessageId());
+            }
+            if (!messages.isEmpty()) {
+                checkpoint = messages.get(messages.size() - 1).getChatMessageId();
+            } else if (done) {
+                break;
+            }
+            done = latch.getCount() == 0;
+        }
+        executorService.shutdown();
+        //then : checkpoint 를 지난 뒤에 더 작은 id 가 저장되면 읽지 못한 메시지가 생긴다
+        assertThat(flushed.size()).isEqualTo(requestCount);
+        assertThat(chatMessageRepository.findAll(chatRoomId).size()).isEqualTo(numberOfChatsToCreate.intValue() + requestCount);
+    }
 }
@@ -0,0 +1,152 @@
+package OneCoin.Server.chat.repository;
+
+import OneCoin.Server.chat.dto.ChatResponseDto;
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.mapper.ChatMapper;
+import OneCoin.Server.utils.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RecentChatMessageCacheTest {
+    private final Integer chatRoomId = 1;
+    private JsonUtil jsonUtil;
+    private ChatMapper mapper;
+    private RecentChatMessageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jsonUtil = mock(JsonUtil.class);
+        mapper = mock(ChatMapper.class);
+        cache = new RecentChatMessageCache(jsonUtil, mapper);
+        ReflectionTestUtils.setField(cache, "capacity", 5);
+        cache.track(chatRoomId);
+    }
+
+    @Test
+    void findBeforeTest_warm_전에는_사용하지_않는다() {
+        //given
+        cache.add(message(1L));
+        //when and then
+        assertThat(cache.findBefore(chatRoomId, Long.MAX_VALUE, 2)).isNull();
+    }
+
+    @Test
+    void findBeforeTest_최근_메시지() {
+        //given
+        cache.warm(chatRoomId, messagesDesc(4L, 3L), 2);
+        cache.add(message(5L));
+        cache.add(message(6L));
+        //when
+        List<ChatMessage> found = cache.findBefore(chatRoomId, Long.MAX_VALUE, 2);
+        //then
+        assertThat(found).extracting(ChatMessage::getChatMessageId).containsExactly(6L, 5L);
+    }
+
+    @Test
+    void findBeforeTest_버퍼보다_오래된_메시지() {
+        //given
+        cache.warm(chatRoomId, messagesDesc(4L, 3L), 2);
+        cache.add(message(5L));
+        cache.add(message(6L));
+        cache.add(message(7L));
+        cache.add(message(8L)); // 3 은 밀려난다
+        //when and then
+        assertThat(cache.findBefore(chatRoomId, 5L, 2)).isNull();
+        assertThat(cache.findBefore(chatRoomId, 6L, 2)).extracting(ChatMessage::getChatMessageId).containsExactly(5L, 4L);
+    }
+
+    @Test
+    void findBeforeTest_모든_메시지를_들고_있으면_모자라도_사용한다() {
+        //given : 채팅방에 메시지가 2개 뿐
+        cache.warm(chatRoomId, messagesDesc(2L, 1L), 30);
+        //when
+        List<ChatMessage> found = cache.findBefore(chatRoomId, 2L, 30);
+        //then
+        assertThat(found).extracting(ChatMessage::getChatMessageId).containsExactly(1L);
+    }
+
+    @Test
+    void trackTest_구독하지_않는_채팅방() {
+        //given
+        Integer otherChatRoomId = 2;
+        cache.add(ChatMessage.builder().chatMessageId(1L).chatRoomId(otherChatRoomId).build());
+        cache.warm(otherChatRoomId, messagesDesc(1L), 30);
+        //when and then
+        assertThat(cache.findBefore(otherChatRoomId, Long.MAX_VALUE, 30)).isNull();
+    }
+
+    @Test
+    void addTest_id_가_없는_메시지는_담지_않는다() {
+        //given : 입장, 퇴장 알림
+        cache.warm(chatRoomId, messagesDesc(2L, 1L), 30);
+        //when
+        cache.add(ChatMessage.builder().chatRoomId(chatRoomId).message("[알림]").build());
+        //then
+        assertThat(cache.findBefore(chatRoomId, Long.MAX_VALUE, 30)).extracting(ChatMessage::getChatMessageId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void addPublishedTest_조회할_때_한_번만_객체로_바꾼다() {
+        //given
+        ChatResponseDto chatResponseDto = new ChatResponseDto();
+        given(jsonUtil.fromJson(anyString(), eq(ChatResponseDto.class))).willReturn(chatResponseDto);
+        given(mapper.responseDtoToChatMessage(chatResponseDto)).willReturn(message(3L));
+        cache.warm(chatRoomId, messagesDesc(2L, 1L), 30);
+        cache.addPublished(chatRoomId, 3L, "{}".getBytes(StandardCharsets.UTF_8));
+        verify(jsonUtil, never()).fromJson(anyString(), any());
+        //when
+        cache.findBefore(chatRoomId, Long.MAX_VALUE, 30);
+        List<ChatMessage> found = cache.findBefore(chatRoomId, Long.MAX_VALUE, 30);
+        //then
+        assertThat(found).extracting(ChatMessage::getChatMessageId).containsExactly(3L, 2L, 1L);
+        verify(jsonUtil, times(1)).fromJson(anyString(), any());
+    }
+
+    @Test
+    void addPublishedTest_이_서버에서_담은_메시지는_그대로_둔다() {
+        //given
+        cache.warm(chatRoomId, messagesDesc(2L, 1L), 30);
+        //when
+        cache.addPublished(chatRoomId, 2L, "{}".getBytes(StandardCharsets.UTF_8));
+        cache.findBefore(chatRoomId, Long.MAX_VALUE, 30);
+        //then
+        verify(jsonUtil, never()).fromJson(anyString(), any());
+    }
+
+    @Test
+    void clearTest() {
+        //given
+        cache.warm(chatRoomId, messagesDesc(2L, 1L), 30);
+        //when
+        cache.clear(chatRoomId);
+        //then
+        assertThat(cache.findBefore(chatRoomId, Long.MAX_VALUE, 30)).isNull();
+    }
+
+    private ChatMessage message(Long chatMessageId) {
+        return ChatMessage.builder().chatMessageId(chatMessageId).chatRoomId(chatRoomId).message("hello").build();
+    }
+
+    private List<ChatMessage> messagesDesc(Long... chatMessageIds) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (Long chatMessageId : chatMessageIds) {
+            messages.add(message(chatMessageId));
+        }
+        return messages;
+    }
+}
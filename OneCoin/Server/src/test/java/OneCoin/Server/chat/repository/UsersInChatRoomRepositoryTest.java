@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -96,4 +97,18 @@ public class UsersInChatRoomRepositoryTest {
         assertThat(userInChatRoom.getDisplayName())
                 .isEqualTo(회원.getDisplayName());
     }
+
+    @Test
+    void removeSessionTest() {
+        //when
+        Map<Integer, UserInChatRoom> removed = repository.removeSession(List.of(chatRoomId, chatRoomId + 1), 회원SessionId);
+
+        //then
+        assertThat(removed.size())
+                .isEqualTo(1);
+        assertThat(removed.get(chatRoomId).getDisplayName())
+                .isEqualTo(회원.getDisplayName());
+        assertThat(repository.getNumberOfUserInChatRoom(chatRoomId))
+                .isEqualTo(totalNumberOfChatters - 1);
+    }
 }
@@ -0,0 +1,68 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.entity.ChatRoom;
+import OneCoin.Server.chat.repository.ChatMessageJdbcRepository;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import OneCoin.Server.chat.repository.LastSavedRepository;
+import OneCoin.Server.utils.ClusterMembership;
+import OneCoin.Server.utils.ScheduledJobRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ChatMessageFlusherTest {
+    private final ChatRoomService chatRoomService = mock(ChatRoomService.class);
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+    private final ChatMessageJdbcRepository chatMessageJdbcRepository = mock(ChatMessageJdbcRepository.class);
+    private final LastSavedRepository lastSavedRepository = mock(LastSavedRepository.class);
+    private final ChatRetentionSweeper chatRetentionSweeper = mock(ChatRetentionSweeper.class);
+    private final ChatMessageFlusher chatMessageFlusher = new ChatMessageFlusher(chatRoomService, chatMessageRepository,
+            chatMessageJdbcRepository, lastSavedRepository, mock(ScheduledJobRunner.class), mock(ClusterMembership.class),
+            chatRetentionSweeper);
+    private final Integer chatRoomId = 1;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(chatMessageFlusher, "batchSize", 500);
+        ReflectionTestUtils.setField(chatMessageFlusher, "leaseMillis", 30000L);
+        given(chatRoomService.findAllChatRooms()).willReturn(List.of(ChatRoom.builder().chatRoomId(chatRoomId).build()));
+    }
+
+    @Test
+    void flush_lease_를_얻으면_저장하고_반납한다() {
+        //given
+        ChatMessage chatMessage = ChatMessage.builder().chatMessageId(7L).chatRoomId(chatRoomId).build();
+        given(lastSavedRepository.acquireFlushLease(eq(chatRoomId), anyLong())).willReturn("token");
+        given(chatMessageRepository.findAfter(chatRoomId, 0L, 500L)).willReturn(List.of(chatMessage));
+        given(chatMessageJdbcRepository.insertAll(List.of(chatMessage))).willReturn(1);
+        //when
+        int count = chatMessageFlusher.flush();
+        //then
+        assertThat(count).isEqualTo(1);
+        verify(lastSavedRepository).save(chatRoomId, 7L);
+        verify(lastSavedRepository).releaseFlushLease(chatRoomId, "token");
+    }
+
+    @Test
+    void flush_다른_서버가_lease_를_들고_있으면_건너뛴다() {
+        //given
+        given(lastSavedRepository.acquireFlushLease(eq(chatRoomId), anyLong())).willReturn(null);
+        //when
+        int count = chatMessageFlusher.flush();
+        //then
+        assertThat(count).isEqualTo(0);
+        verify(chatMessageJdbcRepository, never()).insertAll(anyList());
+    }
+}
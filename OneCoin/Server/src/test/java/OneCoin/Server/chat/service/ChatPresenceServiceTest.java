@@ -0,0 +1,128 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.entity.ChatRoom;
+import OneCoin.Server.chat.repository.ChatPresenceRepository;
+import OneCoin.Server.chat.repository.ChatRoomRepository;
+import OneCoin.Server.chat.utils.ChatRoomUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ChatPresenceServiceTest {
+    private ChatPresenceRepository chatPresenceRepository;
+    private ChatRoomRepository chatRoomRepository;
+    private StringRedisTemplate stringRedisTemplate;
+    private ChatRoomUtils chatRoomUtils;
+    private ChatPresenceService chatPresenceService;
+
+    @BeforeEach
+    void setUp() {
+        chatPresenceRepository = mock(ChatPresenceRepository.class);
+        chatRoomRepository = mock(ChatRoomRepository.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        chatRoomUtils = new ChatRoomUtils();
+        chatPresenceService = new ChatPresenceService(chatPresenceRepository, chatRoomRepository,
+                chatRoomUtils, stringRedisTemplate, mock(RedisMessageListenerContainer.class));
+        chatPresenceService.pollChanged();
+    }
+
+    @Test
+    void joinTest() {
+        //given
+        given(chatPresenceRepository.increment(1, 1))
+                .willReturn(3L);
+        //when
+        chatPresenceService.join(1);
+        //then
+        assertThat(chatPresenceService.count(1)).isEqualTo(3L);
+        verify(stringRedisTemplate).convertAndSend(ChatPresenceService.PRESENCE_CHANNEL, "1:3");
+    }
+
+    @Test
+    void onMessageTest_다른_서버의_변경() {
+        //when
+        chatPresenceService.onMessage(new DefaultMessage(
+                ChatPresenceService.PRESENCE_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "2:5".getBytes(StandardCharsets.UTF_8)), null);
+        //then
+        assertThat(chatPresenceService.count(2)).isEqualTo(5L);
+        assertThat(chatPresenceService.pollChanged()).isTrue();
+    }
+
+    @Test
+    void pollChangedTest_변경을_합친다() {
+        //given
+        chatPresenceService.apply(1, 1);
+        chatPresenceService.apply(1, 2);
+        chatPresenceService.apply(2, 1);
+        //when and then
+        assertThat(chatPresenceService.pollChanged()).isTrue();
+        assertThat(chatPresenceService.pollChanged()).isFalse();
+        chatPresenceService.apply(1, 2); // 같은 값
+        assertThat(chatPresenceService.pollChanged()).isFalse();
+    }
+
+    @Test
+    void findAllChatRoomsTest() {
+        //given
+        Set<String> keys = new LinkedHashSet<>(List.of(chatRoomUtils.makeKey(1), chatRoomUtils.makeKey(2)));
+        given(chatRoomRepository.findAll())
+                .willReturn(keys);
+        chatPresenceService.apply(1, 10);
+        //when
+        List<ChatRoom> chatRooms = chatPresenceService.findAllChatRooms();
+        //then
+        assertThat(chatRooms).hasSize(2);
+        assertThat(chatRooms.get(0).getNumberOfChatters()).isEqualTo(10L);
+        assertThat(chatRooms.get(1).getNumberOfChatters()).isEqualTo(0L);
+    }
+
+    @Test
+    void reconcileTest_같은_차이가_이어질_때만_바꾼다() {
+        //given
+        String key = chatRoomUtils.makeKey(1);
+        given(chatPresenceRepository.reconcile(1, key, -1L, -1L))
+                .willReturn(new long[]{0L, 5L, 3L});
+        given(chatPresenceRepository.reconcile(1, key, 5L, 3L))
+                .willReturn(new long[]{1L, 3L, 3L});
+        //when
+        chatPresenceService.reconcile(Set.of(1));
+        //then : 처음 본 차이는 기록만 한다
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+        //when
+        chatPresenceService.reconcile(Set.of(1));
+        //then
+        assertThat(chatPresenceService.count(1)).isEqualTo(3L);
+        verify(stringRedisTemplate).convertAndSend(ChatPresenceService.PRESENCE_CHANNEL, "1:3");
+    }
+
+    @Test
+    void reconcileTest_그_사이에_바뀌면_다시_기록한다() {
+        //given : 첫 관찰 이후 HINCRBY 가 있었다
+        String key = chatRoomUtils.makeKey(1);
+        given(chatPresenceRepository.reconcile(1, key, -1L, -1L))
+                .willReturn(new long[]{0L, 5L, 3L});
+        given(chatPresenceRepository.reconcile(1, key, 5L, 3L))
+                .willReturn(new long[]{0L, 6L, 4L});
+        //when
+        chatPresenceService.reconcile(Set.of(1));
+        chatPresenceService.reconcile(Set.of(1));
+        //then
+        verify(chatPresenceRepository).reconcile(1, key, 5L, 3L);
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+}
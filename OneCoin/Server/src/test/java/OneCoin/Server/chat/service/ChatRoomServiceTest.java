@@ -1,8 +1,8 @@
 package OneCoin.Server.chat.service;
 
-import OneCoin.Server.chat.entity.ChatRoom;
 import OneCoin.Server.chat.entity.UserInChatRoom;
 import OneCoin.Server.chat.repository.ChatRoomRepository;
+import OneCoin.Server.chat.repository.SessionRoomRepository;
 import OneCoin.Server.chat.repository.UserInChatRoomRepository;
 import OneCoin.Server.chat.repository.vo.UserInfoInChatRoom;
 import OneCoin.Server.chat.utils.ChatRoomUtils;
@@ -15,13 +15,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -30,6 +34,10 @@ public class ChatRoomServiceTest {
     private ChatRoomRepository chatRoomRepository;
     @MockBean
     private UserInChatRoomRepository userInChatRoomRepository;
+    @MockBean
+    private SessionRoomRepository sessionRoomRepository;
+    @MockBean
+    private ChatPresenceService chatPresenceService;
     @Autowired
     private ChatRoomService chatRoomService;
     @Autowired
@@ -59,21 +67,31 @@ public class ChatRoomServiceTest {
     }
 
     @Test
-    void findAllChatRoomsTest() {
+    void saveUserInChatRoomTest_새_세션() {
+        //given
+        String newSessionId = "new1";
+        given(chatRoomRepository.contains(chatRoomId1))
+                .willReturn(true);
+        given(userInChatRoomRepository.addUser(chatRoomId1, newSessionId, null))
+                .willReturn(true);
+        //when
+        chatRoomService.saveUserInChatRoom(chatRoomId1, newSessionId, null);
+        //then
+        verify(chatPresenceService).join(chatRoomId1);
+    }
+
+    @Test
+    void saveUserInChatRoomTest_이미_있는_세션() {
         //given
-        int roomId1 = 1;
-        int roomId2 = 2;
-        long numberOfChattersInRoom = 10L;
-        Set<String> keySet = Sets.newSet(chatRoomUtils.makeKey(roomId1), chatRoomUtils.makeKey(roomId2));
-        given(chatRoomRepository.findAll())
-                .willReturn(keySet);
-        given(userInChatRoomRepository.getNumberOfUserInChatRoom(any(Integer.class)))
-                .willReturn(numberOfChattersInRoom);
+        String existingSessionId = "existing1";
+        given(chatRoomRepository.contains(chatRoomId2))
+                .willReturn(true);
+        given(userInChatRoomRepository.addUser(chatRoomId2, existingSessionId, null))
+                .willReturn(false);
         //when
-        List<ChatRoom> chatRooms = chatRoomService.findAllChatRooms();
+        chatRoomService.saveUserInChatRoom(chatRoomId2, existingSessionId, null);
         //then
-        assertThat(chatRooms.size()).isGreaterThanOrEqualTo(2);
-        assertThat(chatRooms.get(0).getNumberOfChatters()).isEqualTo(numberOfChattersInRoom);
+        verify(chatPresenceService, never()).join(chatRoomId2);
     }
 
     @Test
@@ -91,12 +109,7 @@ public class ChatRoomServiceTest {
     @Test
     void makeChatRoomTest_예외() {
         //given
-        int roomId1 = 1;
-        int roomId2 = 2;
-        Set<String> keySet = Sets.newSet(chatRoomUtils.makeKey(roomId1), chatRoomUtils.makeKey(roomId2));
-        given(chatRoomRepository.findAll())
-                .willReturn(keySet);
-        int roomIdToCreate = 4;
+        int roomIdToCreate = 0;
         //when and then
         assertThatThrownBy(() -> {
             chatRoomService.makeChatRoom(roomIdToCreate);
@@ -106,12 +119,7 @@ public class ChatRoomServiceTest {
     @Test
     void makeChatRoomTest_정상() {
         //given
-        int roomId1 = 1;
-        int roomId2 = 2;
-        Set<String> keySet = Sets.newSet(chatRoomUtils.makeKey(roomId1), chatRoomUtils.makeKey(roomId2));
-        given(chatRoomRepository.findAll())
-                .willReturn(keySet);
-        int roomIdToCreate = 3;
+        int roomIdToCreate = 4; // 1, 2 번 다음 번호가 아니어도 만들 수 있다
         //when and then
         assertThatCode(() -> {
             chatRoomService.makeChatRoom(roomIdToCreate);
@@ -121,16 +129,10 @@ public class ChatRoomServiceTest {
     @Test
     void deleteUserFromChatRoomTest() {
         //given
-        given(chatRoomRepository.findAll())
-                .willReturn(keySet);
-        given(userInChatRoomRepository.contain(eq(roomId1Key), any(String.class)))
-                .willReturn(true);
-        given(userInChatRoomRepository.contain(eq(roomId2Key), any(String.class)))
-                .willReturn(false);
-        given(userInChatRoomRepository.findBySessionId(any(String.class), any(String.class)))
-                .willReturn(user);
-        given(userInChatRoomRepository.removeUserBySessionId(any(String.class), any(String.class)))
-                .willReturn(1L);
+        given(sessionRoomRepository.findChatRoomIds(sessionId))
+                .willReturn(Set.of(chatRoomId1, chatRoomId2));
+        given(userInChatRoomRepository.removeSession(any(), eq(sessionId)))
+                .willReturn(Map.of(chatRoomId1, user));
         //when
         UserInfoInChatRoom actual = chatRoomService.deleteUserFromChatRoom(sessionId);
         //then
@@ -138,6 +140,27 @@ public class ChatRoomServiceTest {
                 .isEqualTo(displayName);
         assertThat(actual.getChatRoomId())
                 .isEqualTo(chatRoomId1);
+        verify(sessionRoomRepository).delete(sessionId);
+        verify(chatRoomRepository, never()).findAll();
+        verify(chatPresenceService).leave(chatRoomId1);
+        verify(chatPresenceService, never()).leave(chatRoomId2);
+    }
+
+    @Test
+    void deleteUserFromChatRoomTest_로컬_세션() {
+        //given
+        String localSessionId = "local1";
+        given(chatRoomRepository.contains(chatRoomId1))
+                .willReturn(true);
+        chatRoomService.saveUserInChatRoom(chatRoomId1, localSessionId, null);
+        given(userInChatRoomRepository.removeSession(any(), eq(localSessionId)))
+                .willReturn(Collections.singletonMap(chatRoomId1, null));
+        //when
+        UserInfoInChatRoom actual = chatRoomService.deleteUserFromChatRoom(localSessionId);
+        //then
+        assertThat(actual.getChatRoomId())
+                .isEqualTo(chatRoomId1);
+        verify(sessionRoomRepository, never()).findChatRoomIds(localSessionId);
     }
 
     @Test
@@ -4,7 +4,6 @@ import OneCoin.Server.chat.entity.ChatMessage;
 import OneCoin.Server.chat.repository.ChatMessageRdbRepository;
 import OneCoin.Server.chat.repository.ChatMessageRepository;
 import OneCoin.Server.chat.repository.ChatRoomRepository;
-import OneCoin.Server.chat.repository.LastSentScoreRepository;
 import OneCoin.Server.chat.testUtil.WebSocketTestUtils;
 import org.assertj.core.data.Percentage;
 import org.junit.jupiter.api.AfterEach;
@@ -24,8 +23,6 @@ public class ChatServiceTestWithNoMock {
     @Autowired
     private ChatMessageRepository chatMessageRepository;
     @Autowired
-    private LastSentScoreRepository lastSentScoreRepository;
-    @Autowired
     private WebSocketTestUtils webSocketTestUtils;
     @Autowired
     private ChatService chatService;
@@ -35,15 +32,13 @@ public class ChatServiceTestWithNoMock {
     private ChatRoomRepository chatRoomRepository;
     private Long numberOfChatsToCreate;
     private Integer chatRoomId;
-    private String sessionId;
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
     @BeforeEach
     void saveMessages() {
-        numberOfChatsToCreate = 20L;
+        numberOfChatsToCreate = 60L;
         chatRoomId = 1;
-        sessionId = "abcd1234";
         for (long i = 1; i <= numberOfChatsToCreate; i++) {
             chatMessageRepository.save(webSocketTestUtils.makeChatMessage(i, chatRoomId));
         }
@@ -53,17 +48,15 @@ public class ChatServiceTestWithNoMock {
     @AfterEach
     void deleteMessages() {
         chatMessageRepository.removeAllInChatRoom(chatRoomId);
-        lastSentScoreRepository.delete(sessionId);
         chatMessageRdbRepository.deleteAll();
-
     }
 
     @Test
     void getMessagesFromRoomTest_더_과거조회() {
         //given
         Long limit = chatMessageRepository.getNUMBER_OF_CHATS_TO_SHOW();
-        List<ChatMessage> messagesReceivedFirst = chatService.getChatMessages(chatRoomId, sessionId);
-        List<ChatMessage> messagesReceivedSecond = chatService.getChatMessages(chatRoomId, sessionId);
+        List<ChatMessage> messagesReceivedFirst = chatService.getChatMessages(chatRoomId, null);
+        List<ChatMessage> messagesReceivedSecond = chatService.getChatMessages(chatRoomId, lastIdOf(messagesReceivedFirst));
         //then
         Long lastUserIdOfFirstReceivedMessages = messagesReceivedFirst.get(messagesReceivedFirst.size() - 1).getUserId();
         Long firstUserIdOfSecondReceivedMessages = messagesReceivedSecond.get(0).getUserId();
@@ -93,14 +86,14 @@ public class ChatServiceTestWithNoMock {
         //given
         chatService.saveInMemoryChatMessagesToRdb();
         chatMessageRepository.removeAllInChatRoom(chatRoomId);
-        for (long i = numberOfChatsToCreate + 1; i <= numberOfChatsToCreate + 20; i++) {
+        for (long i = numberOfChatsToCreate + 1; i <= numberOfChatsToCreate * 2; i++) {
             chatMessageRepository.save(webSocketTestUtils.makeChatMessage(i, chatRoomId));
         }
         //when
-        List<ChatMessage> receivedFromCacheFirst = chatService.getChatMessages(chatRoomId, sessionId);
-        List<ChatMessage> receivedFromCacheSecond = chatService.getChatMessages(chatRoomId, sessionId);
-        List<ChatMessage> receivedFromRdbFirst = chatService.getChatMessages(chatRoomId, sessionId);
-        List<ChatMessage> receivedFromRdbSecond = chatService.getChatMessages(chatRoomId, sessionId);
+        List<ChatMessage> receivedFromCacheFirst = chatService.getChatMessages(chatRoomId, null);
+        List<ChatMessage> receivedFromCacheSecond = chatService.getChatMessages(chatRoomId, lastIdOf(receivedFromCacheFirst));
+        List<ChatMessage> receivedFromRdbFirst = chatService.getChatMessages(chatRoomId, lastIdOf(receivedFromCacheSecond));
+        List<ChatMessage> receivedFromRdbSecond = chatService.getChatMessages(chatRoomId, lastIdOf(receivedFromRdbFirst));
         //then
         List<List<ChatMessage>> collection = new ArrayList<>();
         collection.add(receivedFromCacheFirst);
@@ -128,4 +121,8 @@ public class ChatServiceTestWithNoMock {
             userIdBefore = messages.get(messages.size() - 1).getUserId();
         }
     }
+
+    private Long lastIdOf(List<ChatMessage> messages) {
+        return messages.get(messages.size() - 1).getChatMessageId();
+    }
 }
@@ -0,0 +1,79 @@
+package OneCoin.Server.chat.service;
+
+import OneCoin.Server.chat.entity.ChatMessage;
+import OneCoin.Server.chat.repository.ChatMessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataRedisTest
+@MockBean(JpaMetamodelMappingContext.class)
+public class LegacyChatMessageMigratorTest {
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+    private LegacyChatMessageMigrator legacyChatMessageMigrator;
+
+    @BeforeEach
+    void setUp() {
+        legacyChatMessageMigrator = new LegacyChatMessageMigrator(stringRedisTemplate, chatMessageRepository, new ObjectMapper());
+    }
+
+    @AfterEach
+    void deleteAll() {
+        stringRedisTemplate.delete(List.of("ChatRoom1Message", "ChatRoom1LastSavedKey",
+                "chat-messages:legacy-migrated", "chat-messages:legacy-migration-lease"));
+    }
+
+    @Test
+    void migrateTest_마지막_batch_이후_메시지만_오래된_순으로_옮긴다() {
+        //given
+        stringRedisTemplate.opsForZSet().add("ChatRoom1Message", legacyMessage("saved"), 1000);
+        stringRedisTemplate.opsForZSet().add("ChatRoom1Message", legacyMessage("second"), 3000);
+        stringRedisTemplate.opsForZSet().add("ChatRoom1Message", legacyMessage("first"), 2000);
+        stringRedisTemplate.opsForValue().set("ChatRoom1LastSavedKey", "1000");
+        //when
+        legacyChatMessageMigrator.migrate();
+        //then
+        ArgumentCaptor<ChatMessage> captor = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(chatMessageRepository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues().get(0).getMessage()).isEqualTo("first");
+        assertThat(captor.getAllValues().get(1).getMessage()).isEqualTo("second");
+        assertThat(captor.getAllValues().get(0).getChatRoomId()).isEqualTo(1);
+        assertThat(stringRedisTemplate.hasKey("ChatRoom1Message")).isFalse();
+        assertThat(stringRedisTemplate.hasKey("chat-messages:legacy-migrated")).isTrue();
+    }
+
+    @Test
+    void migrateTest_다른_서버가_옮기는_중이면_건너뛴다() {
+        //given
+        stringRedisTemplate.opsForZSet().add("ChatRoom1Message", legacyMessage("first"), 2000);
+        stringRedisTemplate.opsForValue().set("chat-messages:legacy-migration-lease", "other");
+        //when
+        legacyChatMessageMigrator.migrate();
+        //then
+        verify(chatMessageRepository, never()).save(any());
+        assertThat(stringRedisTemplate.hasKey("ChatRoom1Message")).isTrue();
+    }
+
+    private String legacyMessage(String message) {
+        return "{\"id\":null,\"type\":\"TALK\",\"message\":\"" + message + "\",\"chat_at\":\"2022-12-01 10:00:00\","
+                + "\"user_id\":1,\"chat_room_id\":1,\"user_display_name\":\"user\"}";
+    }
+}
@@ -0,0 +1,144 @@
+package OneCoin.Server.chat.utils;
+
+import OneCoin.Server.chat.constant.MessageType;
+import OneCoin.Server.chat.entity.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChatMessageCodecTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ChatMessageCodec codec = new ChatMessageCodec(objectMapper);
+
+    @Test
+    void encodeAndDecodeTest() {
+        //given
+        ChatMessage chatMessage = makeChatMessage("2026-10-19T10:15:30.123");
+        //when
+        ChatMessage decoded = codec.decode(codec.encode(chatMessage));
+        //then
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(chatMessage);
+    }
+
+    @Test
+    void encodeAndDecodeTest_null_field() {
+        //given : 비회원 등 값이 없는 field
+        ChatMessage chatMessage = ChatMessage.builder().chatMessageId(7L).chatRoomId(1).message("hi").build();
+        //when
+        ChatMessage decoded = codec.decode(codec.encode(chatMessage));
+        //then
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(chatMessage);
+    }
+
+    @Test
+    void encodeTest_시각이_아닌_chatAt() {
+        //given
+        ChatMessage chatMessage = makeChatMessage("yesterday");
+        //when
+        ChatMessage decoded = codec.decode(codec.encode(chatMessage));
+        //then
+        assertThat(decoded.getChatAt()).isEqualTo("yesterday");
+    }
+
+    @Test
+    void encodeAndDecodeTest_현재_시각() {
+        //given : LocalDateTime.now() 는 마이크로초까지 있다
+        ChatMessage chatMessage = makeChatMessage(LocalDateTime.now().toString());
+        //when
+        ChatMessage decoded = codec.decode(codec.encode(chatMessage));
+        //then
+        assertThat(decoded.getChatAt()).isEqualTo(chatMessage.getChatAt());
+    }
+
+    @Test
+    void encodeTest_숫자로_되돌릴_수_없는_chatAt_은_문자열로_쓴다() {
+        //given : 나노초, 0 을 생략하지 않은 표기
+        ChatMessage nanos = makeChatMessage("2026-10-19T10:15:30.123456789");
+        ChatMessage zeroSeconds = makeChatMessage("2026-10-19T10:15:00.000");
+        //when and then
+        assertThat(codec.decode(codec.encode(nanos)).getChatAt()).isEqualTo("2026-10-19T10:15:30.123456789");
+        assertThat(codec.decode(codec.encode(zeroSeconds)).getChatAt()).isEqualTo("2026-10-19T10:15:00.000");
+    }
+
+    @Test
+    void decodeTest_이전_epoch_millis() {
+        //given : version 1 이 field 4 에 쓴 epoch millis (2026-10-19T10:15:30.123)
+        long epochMillis = LocalDateTime.parse("2026-10-19T10:15:30.123").toInstant(ZoneOffset.UTC).toEpochMilli();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(ChatMessageCodec.MAGIC);
+        out.write(1);
+        out.write(4 << 3);
+        while ((epochMillis & ~0x7FL) != 0) {
+            out.write((int) ((epochMillis & 0x7F) | 0x80));
+            epochMillis >>>= 7;
+        }
+        out.write((int) epochMillis);
+        //when
+        ChatMessage decoded = codec.decode(out.toByteArray());
+        //then
+        assertThat(decoded.getChatAt()).isEqualTo("2026-10-19T10:15:30.123");
+    }
+
+    @Test
+    void encodeTest_JSON_보다_작다() {
+        //given
+        ChatMessage chatMessage = makeChatMessage("2026-10-19T10:15:30.123");
+        byte[] json = new GenericJackson2JsonRedisSerializer(objectMapper).serialize(chatMessage);
+        //when
+        byte[] binary = codec.encode(chatMessage);
+        //then
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void decodeTest_이전_JSON() {
+        //given : GenericJackson2JsonRedisSerializer 로 저장된 값
+        ChatMessage chatMessage = makeChatMessage("2026-10-19T10:15:30.123");
+        byte[] json = new GenericJackson2JsonRedisSerializer(objectMapper).serialize(chatMessage);
+        //when
+        ChatMessage decoded = codec.decode(json);
+        //then
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(chatMessage);
+    }
+
+    @Test
+    void decodeTest_모르는_field_는_건너뛴다() {
+        //given : 이후 버전이 field 14(varint), 15(문자열)을 추가한 값
+        ChatMessage chatMessage = makeChatMessage("2026-10-19T10:15:30.123");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] encoded = codec.encode(chatMessage);
+        out.write(encoded, 0, encoded.length);
+        out.write(14 << 3);
+        out.write(0x96);
+        out.write(0x01);
+        byte[] extra = "extra".getBytes(StandardCharsets.UTF_8);
+        out.write(15 << 3 | 2);
+        out.write(extra.length);
+        out.write(extra, 0, extra.length);
+        byte[] newer = out.toByteArray();
+        newer[1] = 2;
+        //when
+        ChatMessage decoded = codec.decode(newer);
+        //then
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(chatMessage);
+    }
+
+    private ChatMessage makeChatMessage(String chatAt) {
+        return ChatMessage.builder()
+                .chatMessageId(123456789L)
+                .type(MessageType.TALK)
+                .message("안녕하세요")
+                .chatAt(chatAt)
+                .userId(42L)
+                .chatRoomId(3)
+                .userDisplayName("zoro")
+                .build();
+    }
+}
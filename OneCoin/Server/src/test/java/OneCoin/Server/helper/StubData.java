@@ -20,7 +20,7 @@ public class StubData {
         public static Order getMockEntity() {
             return Order
                     .builder()
-                    .orderId(1)
+                    .orderId(1L)
                     .limit(new BigDecimal("22525000"))
                     .amount(new BigDecimal("10"))
                     .completedAmount(BigDecimal.ZERO)
@@ -31,7 +31,7 @@ public class StubData {
                     .build();
         }
 
-        public static Order getMockEntity(int orderId, String limit,
+        public static Order getMockEntity(long orderId, String limit,
                                           String amount, String orderType, String code, long userId) {
             return Order
                     .builder()
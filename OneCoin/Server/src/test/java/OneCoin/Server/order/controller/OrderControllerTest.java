@@ -3,8 +3,12 @@ package OneCoin.Server.order.controller;
 import OneCoin.Server.helper.StubData;
 import OneCoin.Server.order.dto.OrderDto;
 import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.OrderIntake;
 import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.order.service.OrderIntakeService;
 import OneCoin.Server.order.service.OrderService;
+import OneCoin.Server.rateLimit.RateLimiter;
+import OneCoin.Server.utils.IdempotencyUtil;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,7 +17,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -28,13 +34,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = OrderController.class,
         excludeAutoConfiguration = SecurityAutoConfiguration.class)
 @MockBean(JpaMetamodelMappingContext.class)
+@Import(IdempotencyUtil.class)
 public class OrderControllerTest {
     @Autowired
     private MockMvc mockMvc;
     @MockBean
+    private RateLimiter rateLimiter;
+    @MockBean
     private OrderService orderService;
     @MockBean
+    private OrderIntakeService orderIntakeService;
+    @MockBean
     private OrderMapper mapper;
+    @MockBean
+    private StringRedisTemplate stringRedisTemplate;
     @Autowired
     private Gson gson;
 
@@ -90,6 +103,28 @@ public class OrderControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    @DisplayName("slice test: 비동기 접수 모드에서는 주문 id 와 함께 202를 반환한다.")
+    void postOrderAsyncTest() throws Exception {
+        // given
+        OrderDto.Post postDto = StubData.MockOrderPostDto.getMockOrderPost();
+        String content = gson.toJson(postDto);
+
+        given(mapper.postDtoToOrder(Mockito.any(OrderDto.Post.class))).willReturn(new Order());
+        given(orderIntakeService.isEnabled()).willReturn(true);
+        given(orderIntakeService.submit(any(), anyString())).willReturn(new OrderIntake());
+        given(mapper.orderIntakeToResponse(any())).willReturn(new OrderDto.IntakeResponse());
+
+        // when then
+        mockMvc.perform(
+                        post("/api/order/KRW-BTC")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(content)
+                )
+                .andExpect(status().isAccepted());
+    }
+
     @Test
     @DisplayName("slice test: 미체결 내역을 조회한다.")
     void getNonTradingOrder() throws Exception {
@@ -4,6 +4,7 @@ import OneCoin.Server.order.dto.TransactionHistoryDto;
 import OneCoin.Server.order.entity.TransactionHistory;
 import OneCoin.Server.order.mapper.TransactionHistoryMapper;
 import OneCoin.Server.order.service.TransactionHistoryService;
+import OneCoin.Server.rateLimit.RateLimiter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,8 @@ public class TransactionHistoryControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
+    @MockBean
+    private RateLimiter rateLimiter;
 
     @MockBean
     private TransactionHistoryService transactionHistoryService;
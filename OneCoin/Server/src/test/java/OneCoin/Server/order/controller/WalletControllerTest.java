@@ -4,6 +4,7 @@ import OneCoin.Server.order.dto.WalletDto;
 import OneCoin.Server.order.entity.Wallet;
 import OneCoin.Server.order.mapper.WalletMapper;
 import OneCoin.Server.order.service.WalletService;
+import OneCoin.Server.rateLimit.RateLimiter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +28,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class WalletControllerTest {
     @Autowired
     private MockMvc mockMvc;
+    @MockBean
+    private RateLimiter rateLimiter;
 
     @MockBean
     private WalletService walletService;
@@ -0,0 +1,177 @@
+package OneCoin.Server.order.integration;
+
+import OneCoin.Server.balance.entity.Balance;
+import OneCoin.Server.balance.service.BalanceService;
+import OneCoin.Server.deposit.entity.Deposit;
+import OneCoin.Server.deposit.repository.DepositRepository;
+import OneCoin.Server.deposit.service.DepositService;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.order.repository.WalletRepository;
+import OneCoin.Server.order.service.TransactionHistoryService;
+import OneCoin.Server.order.service.WalletService;
+import OneCoin.Server.utils.CalculationUtil;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@MockBean(OkHttpClient.class)
+public class ConcurrentFillTest {
+    private static final int ORDER_COUNT = 300;
+
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private WalletRepository walletRepository;
+    @Autowired
+    private DepositService depositService;
+    @Autowired
+    private CalculationUtil calculationUtil;
+    @MockBean
+    private TransactionHistoryService transactionHistoryService;
+    @MockBean
+    private BalanceService balanceService;
+    @MockBean
+    private DepositRepository depositRepository;
+    private BigDecimal balanceAmount;
+
+    @AfterEach
+    void deleteAll() {
+        orderRepository.deleteAll();
+        walletRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("같은 유저의 매수 주문이 동시에 체결되어도 wallet 수량이 유실되지 않는다")
+    void concurrentBidFill() throws InterruptedException {
+        // given
+        List<Order> orders = saveOrders("BID");
+
+        // when
+        fillConcurrently(orders, order -> walletService.completeBidOrder(order, BigDecimal.ONE));
+
+        // then
+        Optional<Wallet> wallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC");
+        assertThat(wallet).isPresent();
+        assertThat(wallet.get().getAmount()).isEqualByComparingTo(new BigDecimal(ORDER_COUNT));
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 유저의 매도 주문이 동시에 체결되어도 wallet 수량이 유실되지 않는다")
+    void concurrentAskFill() throws InterruptedException {
+        // given
+        Wallet wallet = StubData.MockWallet.getMockEntity();
+        wallet.setAmount(new BigDecimal(ORDER_COUNT));
+        walletRepository.save(wallet);
+        List<Order> orders = saveOrders("ASK");
+
+        // when
+        fillConcurrently(orders, order -> walletService.completeAskOrder(order, BigDecimal.ONE));
+
+        // then
+        assertThat(walletRepository.findByUserIdAndCode(1L, "KRW-BTC")).isEmpty();
+        assertThat(orderRepository.count()).isZero();
+        verify(balanceService, times(ORDER_COUNT)).updateBalanceByAskOrCancelBid(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("같은 유저의 입금과 매도 체결이 동시에 일어나도 잔액이 유실되지 않는다")
+    void concurrentDepositAndAskFill() throws InterruptedException {
+        // given
+        Wallet wallet = StubData.MockWallet.getMockEntity();
+        wallet.setAmount(new BigDecimal(ORDER_COUNT));
+        walletRepository.save(wallet);
+        List<Order> orders = saveOrders("ASK");
+        Balance balance = new Balance();
+        balance.setUser(StubData.MockUser.getMockEntity());
+        balance.setBalance(BigDecimal.ZERO);
+        balanceAmount = BigDecimal.ZERO;
+        given(balanceService.updateBalance(any(Deposit.class))).willAnswer(invocation -> {
+            Deposit deposit = invocation.getArgument(0);
+            addBalanceAmount(new BigDecimal(deposit.getDepositAmount()));
+            balance.setBalance(balanceAmount);
+            return balance;
+        });
+        willAnswer(invocation -> {
+            addBalanceAmount(invocation.getArgument(1));
+            return null;
+        }).given(balanceService).updateBalanceByAskOrCancelBid(eq(1L), any());
+
+        // when
+        fillConcurrently(orders, order -> {
+            walletService.completeAskOrder(order, BigDecimal.ONE);
+            Deposit deposit = new Deposit();
+            deposit.setBalance(balance);
+            deposit.setDepositAmount(1000L);
+            depositService.createDeposit(deposit);
+        });
+
+        // then
+        BigDecimal askPrice = calculationUtil.calculateBySubtractingCommission(new BigDecimal("22525000"), BigDecimal.ONE);
+        BigDecimal expected = askPrice.add(new BigDecimal(1000)).multiply(new BigDecimal(ORDER_COUNT));
+        assertThat(balanceAmount).isEqualByComparingTo(expected);
+    }
+
+    /**
+     * Balance 를 읽고-더하고-저장하는 구간, lock 없이 동시에 실행되면 더한 값이 유실된다.
+     */
+    private void addBalanceAmount(BigDecimal amount) {
+        BigDecimal read = balanceAmount;
+        Thread.yield();
+        balanceAmount = read.add(amount);
+    }
+
+    private List<Order> saveOrders(String orderType) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= ORDER_COUNT; i++) {
+            Order order = StubData.MockOrder.getMockEntity(i, "22525000", "1", orderType, "KRW-BTC", 1L);
+            orders.add(orderRepository.save(order));
+        }
+        return orders;
+    }
+
+    private void fillConcurrently(List<Order> orders, Consumer<Order> fill) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(orders.size());
+        for (Order order : orders) {
+            executorService.execute(() -> {
+                try {
+                    fill.accept(order);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+    }
+}
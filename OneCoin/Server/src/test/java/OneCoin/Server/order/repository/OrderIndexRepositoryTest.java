@@ -0,0 +1,80 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataRedisTest
+@Import(OrderIndexRepository.class)
+@MockBean(JpaMetamodelMappingContext.class)
+public class OrderIndexRepositoryTest {
+
+    @Autowired
+    private OrderIndexRepository orderIndexRepository;
+
+    @BeforeEach
+    void saveIndex() {
+        orderIndexRepository.add(StubData.MockOrder.getMockEntity(1, "100", "1", "BID", "KRW-BTC", 1L));
+        orderIndexRepository.add(StubData.MockOrder.getMockEntity(2, "200", "1", "BID", "KRW-BTC", 1L));
+        orderIndexRepository.add(StubData.MockOrder.getMockEntity(3, "300", "1", "BID", "KRW-BTC", 1L));
+        orderIndexRepository.add(StubData.MockOrder.getMockEntity(4, "100", "1", "ASK", "KRW-BTC", 1L));
+        orderIndexRepository.add(StubData.MockOrder.getMockEntity(5, "300", "1", "ASK", "KRW-BTC", 1L));
+    }
+
+    @AfterEach
+    void deleteAll() {
+        orderIndexRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("매수 주문은 체결 가격 이상인 주문만 조회된다.")
+    void findCrossingBidOrders() {
+        List<Long> orderIds = orderIndexRepository.findCrossingOrderIds("KRW-BTC", "BID", new BigDecimal("200"));
+
+        assertThat(orderIds).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("매도 주문은 체결 가격 이하인 주문만 조회된다.")
+    void findCrossingAskOrders() {
+        List<Long> orderIds = orderIndexRepository.findCrossingOrderIds("KRW-BTC", "ASK", new BigDecimal("200"));
+
+        assertThat(orderIds).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("체결 또는 취소된 주문은 index 에서 삭제된다.")
+    void remove() {
+        orderIndexRepository.remove(StubData.MockOrder.getMockEntity(3, "300", "1", "BID", "KRW-BTC", 1L));
+
+        List<Long> orderIds = orderIndexRepository.findCrossingOrderIds("KRW-BTC", "BID", new BigDecimal("200"));
+
+        assertThat(orderIds).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("index 의 주문 id 를 batch 크기로 나눠 순회한다.")
+    void scanOrderIds() {
+        List<List<Long>> batches = new ArrayList<>();
+
+        orderIndexRepository.scanOrderIds("KRW-BTC", "BID", 2, orderIds -> batches.add(new ArrayList<>(orderIds)));
+
+        assertThat(batches.size()).isEqualTo(2);
+        assertThat(batches.get(0).size()).isEqualTo(2);
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,124 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Wallet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataRedisTest
+@Import(WalletRepository.class)
+@MockBean(JpaMetamodelMappingContext.class)
+public class WalletRepositoryTest {
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        walletRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("유저의 Hash 에 코인 코드별로 수량, 평단가가 저장된다.")
+    void saveAndFind() {
+        // given
+        Wallet wallet = StubData.MockWallet.getMockEntity();
+        wallet.setAmount(new BigDecimal("0.00012345"));
+
+        // when
+        walletRepository.save(wallet);
+
+        // then
+        Wallet findWallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElseThrow();
+        assertThat(findWallet.getAmount()).isEqualTo(new BigDecimal("0.00012345"));
+        assertThat(findWallet.getAveragePrice()).isEqualTo(new BigDecimal("22523000"));
+        assertThat(findWallet.getUserId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("유저별 전체 조회, 전체 조회, 삭제")
+    void findAllAndDelete() {
+        // given
+        Wallet wallet1 = StubData.MockWallet.getMockEntity();
+        Wallet wallet2 = StubData.MockWallet.getMockEntity();
+        wallet2.setCode("KRW-ETH");
+        Wallet wallet3 = StubData.MockWallet.getMockEntity();
+        wallet3.setUserId(2L);
+        walletRepository.save(wallet1);
+        walletRepository.save(wallet2);
+        walletRepository.save(wallet3);
+
+        // when
+        walletRepository.delete(wallet1);
+
+        // then
+        List<Wallet> myWallets = walletRepository.findAllByUserId(1L);
+        assertThat(myWallets.size()).isEqualTo(1);
+        assertThat(myWallets.get(0).getCode()).isEqualTo("KRW-ETH");
+        assertThat(walletRepository.findAll().size()).isEqualTo(2);
+        assertThat(walletRepository.findByUserIdAndCode(1L, "KRW-BTC")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("코인별 보유 유저 index 는 wallet 저장, 삭제를 따라간다.")
+    void findUserIdsByCode() {
+        // given
+        Wallet wallet1 = StubData.MockWallet.getMockEntity();
+        Wallet wallet2 = StubData.MockWallet.getMockEntity();
+        wallet2.setUserId(2L);
+        walletRepository.save(wallet1);
+        walletRepository.save(wallet2);
+
+        // when
+        walletRepository.delete(wallet1);
+
+        // then
+        assertThat(walletRepository.findUserIdsByCode("KRW-BTC")).containsExactly(2L);
+        assertThat(walletRepository.findUserIdsByCode("KRW-ETH")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("기존 wallet 은 lease 를 얻은 서버에서만 옮기고, 끝나면 완료 표시를 남긴다.")
+    void migrateLegacyWallets() {
+        // given
+        walletRepository.deleteAll();
+        stringRedisTemplate.opsForSet().add("wallet", "7");
+        stringRedisTemplate.opsForHash().putAll("wallet:7", Map.of(
+                "amount", "3", "averagePrice", "1000", "userId", "7", "code", "KRW-BTC"));
+        stringRedisTemplate.opsForValue().set("wallet-holders:migration-lease", "other");
+
+        // when : 다른 서버가 옮기는 중
+        ReflectionTestUtils.invokeMethod(walletRepository, "migrate");
+
+        // then
+        assertThat(walletRepository.findByUserIdAndCode(7L, "KRW-BTC")).isEmpty();
+
+        // when : 다른 서버가 lease 를 반납
+        stringRedisTemplate.delete("wallet-holders:migration-lease");
+        ReflectionTestUtils.invokeMethod(walletRepository, "migrate");
+
+        // then
+        assertThat(walletRepository.findByUserIdAndCode(7L, "KRW-BTC").orElseThrow().getAmount()).isEqualTo(new BigDecimal("3"));
+        assertThat(walletRepository.findUserIdsByCode("KRW-BTC")).containsExactly(7L);
+        assertThat(stringRedisTemplate.hasKey("wallet")).isFalse();
+        assertThat(stringRedisTemplate.hasKey("wallet-holders:indexed")).isTrue();
+        assertThat(stringRedisTemplate.hasKey("wallet-holders:migration-lease")).isFalse();
+    }
+}
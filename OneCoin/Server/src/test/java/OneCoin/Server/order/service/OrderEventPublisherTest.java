@@ -0,0 +1,121 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.dto.MultiResponseDto;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.dto.OrderDto;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.OrderEventType;
+import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.utils.ScheduledJobRunner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OrderEventPublisherTest {
+
+    private final OrderMapper mapper = mock(OrderMapper.class);
+    private final OrderMessageRelay orderMessageRelay = mock(OrderMessageRelay.class);
+    private final OrderEventPublisher orderEventPublisher = new OrderEventPublisher(mapper, orderMessageRelay,
+            mock(ScheduledJobRunner.class));
+
+    @Test
+    @DisplayName("같은 유저의 이벤트는 한 번에 묶어서 전송한다.")
+    void flushPerUser() {
+        // given
+        given(mapper.orderToGetResponse(any(Order.class))).willReturn(new OrderDto.GetResponse());
+        Order order = StubData.MockOrder.getMockEntity();
+        orderEventPublisher.publish(OrderEventType.PARTIALLY_FILLED, order, new BigDecimal("1"), BigDecimal.ZERO);
+        orderEventPublisher.publish(OrderEventType.FILLED, order, new BigDecimal("9"), BigDecimal.ZERO);
+
+        // when
+        orderEventPublisher.flush();
+        orderEventPublisher.flush();
+
+        // then
+        ArgumentCaptor<MultiResponseDto> captor = ArgumentCaptor.forClass(MultiResponseDto.class);
+        verify(orderMessageRelay, times(1)).send(eq(1L), captor.capture());
+        assertThat(captor.getValue().getData().size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("전송한 유저는 대기 목록에서 제거한다.")
+    void flushRemovesUser() {
+        // given
+        given(mapper.orderToGetResponse(any(Order.class))).willReturn(new OrderDto.GetResponse());
+        orderEventPublisher.publish(OrderEventType.FILLED, StubData.MockOrder.getMockEntity(), new BigDecimal("1"), BigDecimal.ZERO);
+
+        // when
+        orderEventPublisher.flush();
+
+        // then
+        Map<?, ?> pendingEvents = (Map<?, ?>) ReflectionTestUtils.getField(orderEventPublisher, "pendingEvents");
+        assertThat(pendingEvents).isEmpty();
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 발행한 이벤트는 커밋된 뒤에 전송한다.")
+    void publishAfterCommit() {
+        // given
+        given(mapper.orderToGetResponse(any(Order.class))).willReturn(new OrderDto.GetResponse());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderEventPublisher.publish(OrderEventType.FILLED, StubData.MockOrder.getMockEntity(), new BigDecimal("1"), BigDecimal.ZERO);
+            orderEventPublisher.flush();
+            verify(orderMessageRelay, never()).send(anyLong(), any());
+
+            // when
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        orderEventPublisher.flush();
+
+        // then
+        verify(orderMessageRelay, times(1)).send(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("롤백된 트랜잭션의 이벤트는 전송하지 않는다.")
+    void discardOnRollback() {
+        // given
+        given(mapper.orderToGetResponse(any(Order.class))).willReturn(new OrderDto.GetResponse());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderEventPublisher.publish(OrderEventType.CANCELED, StubData.MockOrder.getMockEntity(), BigDecimal.ZERO, BigDecimal.ONE);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // when
+        orderEventPublisher.flush();
+
+        // then
+        verify(orderMessageRelay, never()).send(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("보낼 이벤트가 없으면 전송하지 않는다.")
+    void flushNothing() {
+        orderEventPublisher.flush();
+
+        verify(orderMessageRelay, never()).send(anyLong(), any());
+    }
+}
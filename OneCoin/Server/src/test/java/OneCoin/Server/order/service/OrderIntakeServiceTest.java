@@ -0,0 +1,120 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.config.auth.utils.LoggedInUserInfoUtils;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.OrderIntake;
+import OneCoin.Server.order.entity.enums.OrderIntakeStatus;
+import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.order.repository.OrderIntakeRepository;
+import OneCoin.Server.utils.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class OrderIntakeServiceTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final LoggedInUserInfoUtils loggedInUserInfoUtils = mock(LoggedInUserInfoUtils.class);
+    private final IdGenerator idGenerator = mock(IdGenerator.class);
+    private final OrderIntakeRepository orderIntakeRepository = mock(OrderIntakeRepository.class);
+    private final OrderMessageRelay orderMessageRelay = mock(OrderMessageRelay.class);
+    private final OrderIntakeService orderIntakeService = new OrderIntakeService(orderService, mock(CoinService.class),
+            loggedInUserInfoUtils, idGenerator, orderIntakeRepository, mock(OrderMapper.class), orderMessageRelay);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderIntakeService, "enabled", true);
+        ReflectionTestUtils.setField(orderIntakeService, "queueCapacity", 0);
+        given(loggedInUserInfoUtils.extractUserId()).willReturn(1L);
+        given(idGenerator.nextId()).willReturn(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("주문이 처리되면 ACCEPTED 로 저장하고 유저에게 전송한다.")
+    void submitAccepted() {
+        // when
+        OrderIntake orderIntake = orderIntakeService.submit(StubData.MockOrder.getMockEntity(), "KRW-BTC");
+
+        // then
+        verify(orderMessageRelay, timeout(1000)).send(eq(1L), any());
+        assertThat(orderIntake.getOrderId()).isEqualTo(1L);
+        assertThat(orderIntake.getStatus()).isEqualTo(OrderIntakeStatus.ACCEPTED.getStatus());
+        assertThat(orderIntake.getMessage()).isNull();
+    }
+
+    @Test
+    @DisplayName("주문 검증에 실패하면 REJECTED 와 예외 코드의 메시지를 저장한다.")
+    void submitRejectedByBusinessLogic() {
+        // given
+        willThrow(new BusinessLogicException(ExceptionCode.NOT_ENOUGH_BALANCE))
+                .given(orderService).placeOrder(any(Order.class), anyString(), anyLong());
+
+        // when
+        OrderIntake orderIntake = orderIntakeService.submit(StubData.MockOrder.getMockEntity(), "KRW-BTC");
+
+        // then
+        verify(orderMessageRelay, timeout(1000)).send(eq(1L), any());
+        assertThat(orderIntake.getStatus()).isEqualTo(OrderIntakeStatus.REJECTED.getStatus());
+        assertThat(orderIntake.getMessage()).isEqualTo(ExceptionCode.NOT_ENOUGH_BALANCE.getDescription());
+    }
+
+    @Test
+    @DisplayName("예상하지 못한 예외로 실패하면 예외 메시지 대신 고정된 메시지를 저장한다.")
+    void submitRejectedByUnexpectedFailure() {
+        // given
+        willThrow(new IllegalStateException("could not connect to db-internal:3306"))
+                .given(orderService).placeOrder(any(Order.class), anyString(), anyLong());
+
+        // when
+        OrderIntake orderIntake = orderIntakeService.submit(StubData.MockOrder.getMockEntity(), "KRW-BTC");
+
+        // then
+        verify(orderMessageRelay, timeout(1000)).send(eq(1L), any());
+        assertThat(orderIntake.getStatus()).isEqualTo(OrderIntakeStatus.REJECTED.getStatus());
+        assertThat(orderIntake.getMessage()).isEqualTo(ExceptionCode.ORDER_INTAKE_FAILED.getDescription());
+    }
+
+    @Test
+    @DisplayName("마켓 큐가 가득 차면 429 를 반환하고 접수 상태를 지운다.")
+    void submitQueueFull() throws InterruptedException {
+        // given : 첫 주문이 처리 중이고 큐 용량이 0
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(orderService).placeOrder(any(Order.class), anyString(), anyLong());
+        orderIntakeService.submit(StubData.MockOrder.getMockEntity(), "KRW-BTC");
+        started.await(5, TimeUnit.SECONDS);
+
+        // when, then
+        assertThatThrownBy(() -> orderIntakeService.submit(StubData.MockOrder.getMockEntity(), "KRW-BTC"))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting(e -> ((BusinessLogicException) e).getExceptionCode().getCode())
+                .isEqualTo(429);
+        verify(orderIntakeRepository).delete(2L);
+        release.countDown();
+    }
+}
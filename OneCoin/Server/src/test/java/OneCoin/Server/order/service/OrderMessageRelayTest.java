@@ -0,0 +1,60 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.utils.JsonUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class OrderMessageRelayTest {
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    private final SimpMessagingTemplate simpMessagingTemplate = mock(SimpMessagingTemplate.class);
+    private final JsonUtil jsonUtil = mock(JsonUtil.class);
+    private final OrderMessageRelay orderMessageRelay = new OrderMessageRelay(
+            stringRedisTemplate, mock(RedisMessageListenerContainer.class), simpMessagingTemplate, jsonUtil);
+
+    @Test
+    @DisplayName("userId 를 앞에 붙여 channel 로 발행한다.")
+    void send() {
+        // given
+        Map<String, String> payload = Map.of("status", "ACCEPTED");
+        given(jsonUtil.toJson(payload)).willReturn("{\"status\":\"ACCEPTED\"}");
+
+        // when
+        orderMessageRelay.send(1L, payload);
+
+        // then
+        verify(stringRedisTemplate).convertAndSend(OrderMessageRelay.CHANNEL, "1:{\"status\":\"ACCEPTED\"}");
+    }
+
+    @Test
+    @DisplayName("받은 JSON 을 그대로 이 서버에 접속한 유저의 /queue/orders 로 보낸다.")
+    void onMessage() {
+        // given
+        given(simpMessagingTemplate.getUserDestinationPrefix()).willReturn("/user/");
+        byte[] body = "1:{\"status\":\"ACCEPTED\"}".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        orderMessageRelay.onMessage(new DefaultMessage(OrderMessageRelay.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+
+        // then
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(simpMessagingTemplate).send(eq("/user/1/queue/orders"), captor.capture());
+        assertThat(new String((byte[]) captor.getValue().getPayload(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"status\":\"ACCEPTED\"}");
+    }
+}
@@ -26,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @MockBean(OkHttpClient.class)
@@ -155,4 +157,60 @@ public class OrderServiceTest {
         Order findOrder = orderRepository.findById(1L).orElse(null);
         assertThat(findOrder).isEqualTo(null);
     }
+
+    @Test
+    @DisplayName("여러 주문을 한 번에 생성하고 잔액은 한 번만 차감한다.")
+    void createOrdersTest() {
+        // given
+        given(loggedInUserInfoUtils.extractUser()).willReturn(user);
+        doNothing().when(coinService).verifyCoinExists(anyString());
+        given(calculationUtil.calculateByAddingCommission(any(), any())).willReturn(new BigDecimal("100"));
+        List<Order> orders = List.of(
+                StubData.MockOrder.getMockEntity(),
+                StubData.MockOrder.getMockEntity(),
+                StubData.MockOrder.getMockEntity());
+
+        // when
+        orderService.createOrders(orders, "KRW-BTC");
+
+        // then
+        List<Order> findOrders = orderRepository.findAllByUserIdAndOrderTypeAndCode(user.getUserId(), "BID", "KRW-BTC");
+        assertThat(findOrders.size()).isEqualTo(3);
+        verify(balanceService, times(1)).updateBalanceByBid(user.getUserId(), new BigDecimal("300"));
+    }
+
+    @Test
+    @DisplayName("매도 주문들의 합이 보유량보다 많으면 하나도 생성하지 않는다.")
+    void createOrdersExceptionTest() {
+        // given
+        given(loggedInUserInfoUtils.extractUser()).willReturn(user);
+        doNothing().when(coinService).verifyCoinExists(anyString());
+        walletRepository.save(StubData.MockWallet.getMockEntity());
+        Order ask1 = StubData.MockOrder.getMockEntity(1L, "22525000", "0.6", "ASK", "KRW-BTC", 1L);
+        Order ask2 = StubData.MockOrder.getMockEntity(2L, "22525000", "0.6", "ASK", "KRW-BTC", 1L);
+
+        // when, then
+        assertThrows(BusinessLogicException.class, () -> orderService.createOrders(List.of(ask1, ask2), "KRW-BTC"));
+        assertThat(orderRepository.findAllByUserId(user.getUserId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("미체결 주문을 모두 취소하고 환불은 한 번에 한다.")
+    void cancelOrdersTest() {
+        // given
+        given(loggedInUserInfoUtils.extractUser()).willReturn(user);
+        given(calculationUtil.calculateByAddingCommission(any(), any())).willReturn(new BigDecimal("100"));
+        orderRepository.save(StubData.MockOrder.getMockEntity(1L, "22525000", "1", "BID", "KRW-BTC", 1L));
+        orderRepository.save(StubData.MockOrder.getMockEntity(2L, "22525000", "1", "BID", "KRW-BTC", 1L));
+        orderRepository.save(StubData.MockOrder.getMockEntity(3L, "22525000", "1", "BID", "KRW-ETH", 1L));
+
+        // when
+        orderService.cancelOrders("KRW-BTC");
+
+        // then
+        List<Order> remainingOrders = orderRepository.findAllByUserId(user.getUserId());
+        assertThat(remainingOrders.size()).isEqualTo(1);
+        assertThat(remainingOrders.get(0).getCode()).isEqualTo("KRW-ETH");
+        verify(balanceService, times(1)).updateBalanceByAskOrCancelBid(user.getUserId(), new BigDecimal("200"));
+    }
 }
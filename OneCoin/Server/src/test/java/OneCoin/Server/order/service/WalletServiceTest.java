@@ -2,6 +2,8 @@ package OneCoin.Server.order.service;
 
 import OneCoin.Server.balance.service.BalanceService;
 import OneCoin.Server.config.auth.utils.LoggedInUserInfoUtils;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.helper.StubData;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.Wallet;
@@ -23,9 +25,13 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -44,6 +50,9 @@ public class WalletServiceTest {
     @MockBean
     private TransactionHistoryService transactionHistoryService;
 
+    @MockBean
+    private OrderEventPublisher orderEventPublisher;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -159,6 +168,24 @@ public class WalletServiceTest {
         assertThat(findWallet).isEqualTo(null);
     }
 
+    @Test
+    @DisplayName("매도 체결 후 잔액 반영에 실패하면 체결 이벤트를 발행하지 않는다")
+    void updateWalletByAskFailure() {
+        // given
+        Wallet wallet = StubData.MockWallet.getMockEntity();
+        wallet.setAmount(new BigDecimal("10"));
+        BigDecimal tradeVolume = new BigDecimal("9");
+
+        // when
+        doThrow(new BusinessLogicException(ExceptionCode.BALANCE_NOT_FOUND))
+                .when(balanceService).updateBalanceByAskOrCancelBid(anyLong(), any());
+
+        // then
+        assertThatThrownBy(() -> walletService.updateWalletByAsk(wallet, order, tradeVolume))
+                .isInstanceOf(BusinessLogicException.class);
+        verify(orderEventPublisher, never()).publish(any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("user의 모든 코인 지갑을 찾는다.")
     void findUserWallets() {
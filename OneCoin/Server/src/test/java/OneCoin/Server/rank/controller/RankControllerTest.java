@@ -32,4 +32,25 @@ public class RankControllerTest {
                 .andExpect(jsonPath("$.users[0].ROI", endsWith("%")))
                 .andReturn();
     }
+
+    @Test
+    public void getPageTest() throws Exception {
+        //when
+        ResultActions actions =
+                mockMvc.perform(get("/api/ranks").param("page", "2").param("size", "5"));
+        //then
+        actions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pageInfo.page").value(2))
+                .andExpect(jsonPath("$.pageInfo.size").value(5));
+    }
+
+    @Test
+    public void getMyRankWithoutLoginTest() throws Exception {
+        //when
+        ResultActions actions =
+                mockMvc.perform(get("/api/ranks/me"));
+        //then
+        actions.andExpect(status().isUnauthorized());
+    }
 }
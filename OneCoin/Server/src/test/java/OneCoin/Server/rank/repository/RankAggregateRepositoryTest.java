@@ -0,0 +1,126 @@
+package OneCoin.Server.rank.repository;
+
+import OneCoin.Server.rank.dao.UserRoi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataRedisTest
+@Import(RankAggregateRepository.class)
+@MockBean(JpaMetamodelMappingContext.class)
+public class RankAggregateRepositoryTest {
+
+    @Autowired
+    private RankAggregateRepository rankAggregateRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("rank-aggregate:*"));
+    }
+
+    @Test
+    @DisplayName("채운 뒤에는 체결마다 매수, 매도 총액이 누적되고 dirty 유저로 등록된다.")
+    void addBidAndAsk() {
+        // given
+        rankAggregateRepository.markSeeded();
+
+        // when
+        rankAggregateRepository.addBid(1L, new BigDecimal("1000"));
+        rankAggregateRepository.addBid(1L, new BigDecimal("500"));
+        rankAggregateRepository.addAsk(1L, new BigDecimal("700"));
+
+        // then
+        UserRoi userRoi = rankAggregateRepository.findByUserId(1L);
+        assertThat(userRoi.getSumOfBids()).isEqualTo(1500.0);
+        assertThat(userRoi.getSumOfAsks()).isEqualTo(700.0);
+        assertThat(rankAggregateRepository.popDirtyUserIds(10)).containsExactly(1L);
+        assertThat(rankAggregateRepository.popDirtyUserIds(10)).isEmpty();
+        assertThat(rankAggregateRepository.popUnseededFillUserIds(10)).isEmpty();
+        assertThat(rankAggregateRepository.findByUserId(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("채우기 전의 체결은 누적하지 않고, 다시 계산할 유저로만 기록한다.")
+    void addBidBeforeSeeded() {
+        // when
+        rankAggregateRepository.addBid(1L, new BigDecimal("1000"));
+        UserRoi seed = new UserRoi();
+        seed.setUserId(1L);
+        seed.setSumOfBids(300.0);
+        seed.setSumOfAsks(200.0);
+        rankAggregateRepository.save(seed);
+
+        // then
+        UserRoi userRoi = rankAggregateRepository.findByUserId(1L);
+        assertThat(userRoi.getSumOfBids()).isEqualTo(300.0);
+        assertThat(userRoi.getSumOfAsks()).isEqualTo(200.0);
+        assertThat(rankAggregateRepository.popUnseededFillUserIds(10)).containsExactly(1L);
+        assertThat(rankAggregateRepository.popDirtyUserIds(10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("seeded 표시는 markSeeded 를 호출한 뒤에만 남고, deleteAll 로 지워진다.")
+    void markSeededAndDeleteAll() {
+        // given
+        assertThat(rankAggregateRepository.isSeeded()).isFalse();
+
+        // when
+        rankAggregateRepository.markSeeded();
+        rankAggregateRepository.addBid(1L, new BigDecimal("1000"));
+        boolean seeded = rankAggregateRepository.isSeeded();
+        rankAggregateRepository.deleteAll();
+
+        // then
+        assertThat(seeded).isTrue();
+        assertThat(rankAggregateRepository.isSeeded()).isFalse();
+        assertThat(rankAggregateRepository.findByUserId(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("수익률 내림차순으로 상위 유저를 조회한다.")
+    void findTopRois() {
+        // given
+        rankAggregateRepository.saveRoi(1L, 0.1);
+        rankAggregateRepository.saveRoi(2L, 0.3);
+        rankAggregateRepository.saveRoi(3L, -0.2);
+        rankAggregateRepository.removeRoi(3L);
+
+        // when
+        List<UserRoi> top = rankAggregateRepository.findRois(0, 10);
+        List<UserRoi> secondPage = rankAggregateRepository.findRois(1, 1);
+
+        // then
+        assertThat(top.size()).isEqualTo(2);
+        assertThat(top.get(0).getUserId()).isEqualTo(2L);
+        assertThat(top.get(1).getTotalRoi()).isEqualTo(0.1);
+        assertThat(secondPage.get(0).getUserId()).isEqualTo(1L);
+        assertThat(rankAggregateRepository.countRois()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("내 순위는 수익률 내림차순 0 부터 시작하는 순위로 조회된다.")
+    void findRank() {
+        // given
+        rankAggregateRepository.saveRoi(1L, 0.1);
+        rankAggregateRepository.saveRoi(2L, 0.3);
+
+        // then
+        assertThat(rankAggregateRepository.findRank(1L)).isEqualTo(1L);
+        assertThat(rankAggregateRepository.findRoi(1L)).isEqualTo(0.1);
+        assertThat(rankAggregateRepository.findRank(3L)).isNull();
+    }
+}
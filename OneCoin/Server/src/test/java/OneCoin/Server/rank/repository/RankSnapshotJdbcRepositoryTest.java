@@ -0,0 +1,82 @@
+package OneCoin.Server.rank.repository;
+
+import OneCoin.Server.rank.dao.UserRoi;
+import OneCoin.Server.rank.entity.RankSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+@SpringBootTest
+public class RankSnapshotJdbcRepositoryTest {
+    @Autowired
+    private RankSnapshotJdbcRepository rankSnapshotJdbcRepository;
+    @Autowired
+    private RankSnapshotRepository rankSnapshotRepository;
+    private final LocalDate today = LocalDate.of(2022, 12, 8);
+
+    @AfterEach
+    void deleteAll() {
+        rankSnapshotRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("기간 수익률은 두 snapshot 의 차이로 계산되고 내림차순으로 정렬된다.")
+    void findPeriodRois() {
+        // given
+        rankSnapshotJdbcRepository.insertAll(List.of(
+                snapshot(1L, today.minusDays(7), 1000, 0, 1000),
+                snapshot(2L, today.minusDays(7), 1000, 0, 1000),
+                snapshot(1L, today, 1000, 0, 1100),  // 1000 -> 1100 : 10%
+                snapshot(2L, today, 2000, 0, 1800),  // 1000 + 1000 투입 -> 1800 : -10%
+                snapshot(3L, today, 500, 0, 1000)    // 시작 snapshot 없음 : 제외
+        ));
+
+        // when
+        List<UserRoi> userRois = rankSnapshotJdbcRepository.findPeriodRois(today.minusDays(7), today, 100);
+
+        // then
+        assertThat(userRois.size()).isEqualTo(2);
+        assertThat(userRois.get(0).getUserId()).isEqualTo(1L);
+        assertThat(userRois.get(0).getTotalRoi()).isCloseTo(0.1, offset(1e-9));
+        assertThat(userRois.get(1).getTotalRoi()).isCloseTo(-0.1, offset(1e-9));
+    }
+
+    @Test
+    @DisplayName("기간 중 투입 금액이 없는 유저는 제외하고, size 명까지만 가져온다.")
+    void findPeriodRoisWithLimit() {
+        // given
+        rankSnapshotJdbcRepository.insertAll(List.of(
+                snapshot(1L, today.minusDays(1), 0, 0, 0),
+                snapshot(2L, today.minusDays(1), 1000, 0, 1000),
+                snapshot(3L, today.minusDays(1), 1000, 0, 1000),
+                snapshot(1L, today, 0, 0, 0),        // 투입 금액 없음 : 제외
+                snapshot(2L, today, 1000, 0, 1200),  // 20%
+                snapshot(3L, today, 1000, 0, 1100)   // 10%
+        ));
+
+        // when
+        List<UserRoi> userRois = rankSnapshotJdbcRepository.findPeriodRois(today.minusDays(1), today, 1);
+
+        // then
+        assertThat(userRois.size()).isEqualTo(1);
+        assertThat(userRois.get(0).getUserId()).isEqualTo(2L);
+    }
+
+    private RankSnapshot snapshot(long userId, LocalDate snapshotDate, double sumOfBids, double sumOfAsks, double currentValue) {
+        return RankSnapshot.builder()
+                .userId(userId)
+                .snapshotDate(snapshotDate)
+                .sumOfBids(sumOfBids)
+                .sumOfAsks(sumOfAsks)
+                .sumOfCurrentCoinValues(currentValue)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package OneCoin.Server.rank.service;
+
+import OneCoin.Server.rank.dao.UserRoi;
+import OneCoin.Server.rank.entity.enums.RankPeriod;
+import OneCoin.Server.rank.mapper.RankMapper;
+import OneCoin.Server.rank.repository.RankAggregateRepository;
+import OneCoin.Server.rank.repository.RankSnapshotJdbcRepository;
+import OneCoin.Server.rank.repository.RankSnapshotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RankSnapshotServiceTest {
+    private final RankService rankService = mock(RankService.class);
+    private final RankSnapshotJdbcRepository rankSnapshotJdbcRepository = mock(RankSnapshotJdbcRepository.class);
+    private final RankSnapshotService rankSnapshotService = new RankSnapshotService(
+            rankService, mock(RankAggregateRepository.class), mock(RankSnapshotRepository.class), rankSnapshotJdbcRepository, new RankMapper());
+
+    @Test
+    @DisplayName("기간 시작일과 마지막 snapshot 날짜로 상위 100명의 기간 수익률을 조회하고 이름을 채운다.")
+    void findPeriodRois() {
+        // given
+        LocalDate today = LocalDate.of(2022, 12, 8);
+        UserRoi userRoi = new UserRoi();
+        userRoi.setUserId(1L);
+        userRoi.setTotalRoi(0.1);
+        when(rankSnapshotJdbcRepository.findPeriodRois(today.minusDays(7), today, 100)).thenReturn(List.of(userRoi));
+
+        // when
+        List<UserRoi> userRois = rankSnapshotService.findPeriodRois(RankPeriod.WEEK, today);
+
+        // then
+        assertThat(userRois).containsExactly(userRoi);
+        verify(rankService).setDisplayNames(userRois);
+    }
+
+    @Test
+    @DisplayName("snapshot 이 없으면 빈 순위를 반환한다.")
+    void findPeriodRoisWithoutSnapshot() {
+        assertThat(rankSnapshotService.findPeriodRois(RankPeriod.DAY, null)).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package OneCoin.Server.rateLimit;
+
+import OneCoin.Server.utils.ScheduledJobRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(null, meterRegistry, mock(ScheduledJobRunner.class), false);
+
+    @Test
+    @DisplayName("capacity 만큼은 허용하고 그 이후는 Retry-After 와 함께 거절한다.")
+    void rejectAfterCapacity() {
+        // given
+        RateLimitPolicy policy = RateLimitPolicy.SWAP;
+        for (int i = 0; i < policy.getCapacity(); i++) {
+            assertThat(rateLimiter.tryConsume(policy, 1L).isAllowed()).isTrue();
+        }
+
+        // when
+        RateLimitResult result = rateLimiter.tryConsume(policy, 1L);
+
+        // then
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getRetryAfterSeconds()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.counter("rate_limit.requests", "policy", "swap", "result", "rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("유저마다 따로 제한한다.")
+    void limitPerUser() {
+        RateLimitPolicy policy = RateLimitPolicy.SWAP;
+        for (int i = 0; i < policy.getCapacity(); i++) {
+            rateLimiter.tryConsume(policy, 1L);
+        }
+
+        assertThat(rateLimiter.tryConsume(policy, 1L).isAllowed()).isFalse();
+        assertThat(rateLimiter.tryConsume(policy, 2L).isAllowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("동시에 요청해도 capacity 를 넘겨서 허용하지 않는다.")
+    void concurrentConsume() throws InterruptedException {
+        // given
+        TokenBucket tokenBucket = new TokenBucket(100, 0.001);
+        AtomicInteger allowedCount = new AtomicInteger();
+        int requestCount = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.execute(() -> {
+                if (tokenBucket.tryConsume().isAllowed()) {
+                    allowedCount.incrementAndGet();
+                }
+                latch.countDown();
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(allowedCount.get()).isEqualTo(100);
+    }
+}
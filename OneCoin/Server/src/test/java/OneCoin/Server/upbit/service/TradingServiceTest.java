@@ -2,6 +2,7 @@ package OneCoin.Server.upbit.service;
 
 import OneCoin.Server.helper.StubData;
 import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.repository.OrderIndexRepository;
 import OneCoin.Server.order.repository.OrderRepository;
 import OneCoin.Server.order.service.WalletService;
 import OneCoin.Server.upbit.entity.Trade;
@@ -10,6 +11,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +20,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 
+import java.math.BigDecimal;
+
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -37,6 +41,10 @@ public class TradingServiceTest {
 
     @SpyBean
     private OrderRepository orderRepository;
+
+    @SpyBean
+    private OrderIndexRepository orderIndexRepository;
+    private Order order;
     private Trade trade;
 
     @BeforeEach
@@ -45,8 +53,15 @@ public class TradingServiceTest {
         JsonNode jsonNode = jsonUtil.fromJson(jsonTicker, JsonNode.class);
         trade = objectMapper.readValue(jsonNode.toString(), Trade.class);
 
-        Order order = StubData.MockOrder.getMockEntity();
+        order = StubData.MockOrder.getMockEntity();
         orderRepository.save(order);
+        orderIndexRepository.add(order);
+    }
+
+    @AfterEach
+    void deleteAll() {
+        orderRepository.deleteAll();
+        orderIndexRepository.remove(order);
     }
 
     @Test
@@ -60,6 +75,24 @@ public class TradingServiceTest {
         tradingService.completeOrders(trade);
 
         // then
-        verify(orderRepository, times(1)).findAllByOrderTypeAndCode(trade.getOrderType(), trade.getCode());
+        verify(orderIndexRepository, times(1)).findCrossingOrderIds(eq(trade.getCode()), eq(trade.getOrderType()), any());
+        verify(walletService, times(1)).completeBidOrder(any(), any());
+    }
+
+    @Test
+    @DisplayName("체결 가격과 교차하지 않는 주문은 조회하지 않는다.")
+    void notCrossingTest() {
+        // given
+        orderIndexRepository.remove(order);
+        order.setLimit(new BigDecimal("22524000")); // 체결 가격보다 낮은 매수 주문
+        orderRepository.save(order);
+        orderIndexRepository.add(order);
+
+        // when
+        tradingService.completeOrders(trade);
+
+        // then
+        verify(orderRepository, never()).findAllById(any());
+        verify(walletService, never()).completeBidOrder(any(), any());
     }
 }
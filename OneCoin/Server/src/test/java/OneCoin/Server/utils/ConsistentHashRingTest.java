@@ -0,0 +1,46 @@
+package OneCoin.Server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsistentHashRingTest {
+    private final int VIRTUAL_NODES = 100;
+
+    @Test
+    void keysAreSpreadOverNodesTest() {
+        //given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node1", "node2", "node3"), VIRTUAL_NODES);
+        Map<String, Integer> counts = new HashMap<>();
+        //when
+        for (int chatRoomId = 1; chatRoomId <= 3000; chatRoomId++) {
+            counts.merge(ring.nodeFor("chat-room:" + chatRoomId), 1, Integer::sum);
+        }
+        //then
+        assertThat(counts).hasSize(3);
+        assertThat(counts.values()).allMatch(count -> count > 500);
+    }
+
+    @Test
+    void onlyKeysOfRemovedNodeMoveTest() {
+        //given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node1", "node2", "node3"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("node1", "node2"), VIRTUAL_NODES);
+        //when then
+        for (int chatRoomId = 1; chatRoomId <= 1000; chatRoomId++) {
+            String key = "chat-room:" + chatRoomId;
+            if (!before.nodeFor(key).equals("node3")) {
+                assertThat(after.nodeFor(key)).isEqualTo(before.nodeFor(key));
+            }
+        }
+    }
+
+    @Test
+    void emptyRingTest() {
+        assertThat(new ConsistentHashRing(List.of(), VIRTUAL_NODES).nodeFor("chat-room:1")).isNull();
+    }
+}
@@ -0,0 +1,125 @@
+package OneCoin.Server.utils;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class IdGeneratorTest {
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private final IdGenerator idGenerator = new IdGenerator(stringRedisTemplate, mock(TaskScheduler.class), -1, 15000);
+
+    @BeforeEach
+    void setUp() {
+        given(stringRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(false);
+        given(valueOperations.setIfAbsent(eq("snowflake:node:3"), anyString(), any(Duration.class))).willReturn(true);
+    }
+
+    @Test
+    @DisplayName("연속으로 발급한 id 는 증가하고, JavaScript 에서 안전한 범위 안에 있다.")
+    void increasingId() {
+        idGenerator.leaseNodeId();
+        long prev = idGenerator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = idGenerator.nextId();
+            assertThat(id).isGreaterThan(prev);
+            assertThat(id).isLessThan(1L << 53);
+            prev = id;
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 동시에 발급해도 id 가 중복되지 않는다.")
+    void uniqueIdConcurrently() throws InterruptedException {
+        // given
+        int threadCount = 16;
+        int idCountPerThread = 10_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        idGenerator.leaseNodeId();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.execute(() -> {
+                for (int j = 0; j < idCountPerThread; j++) {
+                    ids.add(idGenerator.nextId());
+                }
+                latch.countDown();
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(ids.size()).isEqualTo(threadCount * idCountPerThread);
+    }
+
+    @Test
+    @DisplayName("빈 노드 id 를 빌려 id 에 넣는다.")
+    void leaseNodeId() {
+        // when
+        idGenerator.leaseNodeId();
+        long id = idGenerator.nextId();
+
+        // then
+        assertThat((id >>> 8) & 31).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("같은 번호를 다시 빌리면 이전 서버가 마지막으로 발급한 시각 이후부터 발급한다.")
+    void continueAfterLastIssued() {
+        // given
+        long future = System.currentTimeMillis() - 1667260800000L + 500;
+        given(valueOperations.get("snowflake:node:3:last")).willReturn(String.valueOf(future - 1000));
+
+        // when
+        idGenerator.leaseNodeId();
+        long id = idGenerator.nextId();
+
+        // then
+        assertThat(id >>> 13).isGreaterThanOrEqualTo(future);
+    }
+
+    @Test
+    @DisplayName("빈 노드 id 가 없으면 시작하지 않는다.")
+    void noFreeNodeId() {
+        given(valueOperations.setIfAbsent(eq("snowflake:node:3"), anyString(), any(Duration.class))).willReturn(false);
+
+        assertThrows(IllegalStateException.class, idGenerator::leaseNodeId);
+    }
+
+    @Test
+    @DisplayName("노드 id 를 빌리기 전이나 lease 를 잃으면 발급하지 않는다.")
+    void withoutLease() {
+        assertThrows(BusinessLogicException.class, idGenerator::nextId);
+    }
+
+    @Test
+    @DisplayName("노드 id 가 범위를 벗어나면 예외가 발생한다.")
+    void invalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(stringRedisTemplate, mock(TaskScheduler.class), 32, 15000));
+    }
+}
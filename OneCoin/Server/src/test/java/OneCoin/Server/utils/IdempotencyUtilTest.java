@@ -0,0 +1,146 @@
+package OneCoin.Server.utils;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataRedisTest
+@MockBean(JpaMetamodelMappingContext.class)
+public class IdempotencyUtilTest {
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    private IdempotencyUtil idempotencyUtil;
+    private final AtomicInteger executedCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyUtil = new IdempotencyUtil(stringRedisTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyUtil, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(idempotencyUtil, "inFlightSeconds", 30L);
+    }
+
+    @AfterEach
+    void deleteAll() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("idempotency:*"));
+    }
+
+    @Test
+    @DisplayName("같은 key 로 같은 요청을 다시 보내면 저장된 응답을 반환한다.")
+    void replay() {
+        ResponseEntity first = idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "1"), this::create);
+        ResponseEntity second = idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "1"), this::create);
+
+        assertThat(second.getStatusCode()).isEqualTo(first.getStatusCode());
+        assertThat(second.getBody().toString()).isEqualTo("{\"id\":1}");
+        assertThat(executedCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 key 로 다른 요청을 보내면 예외가 발생한다.")
+    void reusedKey() {
+        idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "1"), this::create);
+
+        assertThrows(BusinessLogicException.class,
+                () -> idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "2"), this::create));
+    }
+
+    @Test
+    @DisplayName("key 가 없으면 매번 실행한다.")
+    void withoutKey() {
+        idempotencyUtil.execute(null, "POST /api/swaps", Map.of("amount", "1"), this::create);
+        idempotencyUtil.execute(null, "POST /api/swaps", Map.of("amount", "1"), this::create);
+
+        assertThat(executedCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("처리 중 예외가 발생하면 같은 key 로 다시 시도할 수 있다.")
+    void retryAfterFailure() {
+        assertThrows(IllegalStateException.class,
+                () -> idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "1"), () -> {
+                    throw new IllegalStateException();
+                }));
+
+        idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "1"), this::create);
+
+        assertThat(executedCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 중복 요청은 한 번만 실행되고 같은 응답을 받는다.")
+    void coalesceConcurrentDuplicates() throws Exception {
+        // given
+        int requestCount = 10;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(requestCount);
+
+        // when
+        Future<?>[] futures = new Future[requestCount];
+        for (int i = 0; i < requestCount; i++) {
+            futures[i] = executorService.submit(() -> idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "1"), () -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return create();
+            }));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        for (Future<?> future : futures) {
+            assertThat(((ResponseEntity) future.get(5, TimeUnit.SECONDS)).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(executedCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("처리 중 표시만 남고 서버가 죽으면 in-flight 시간이 지난 뒤 다시 처리한다.")
+    void retryAfterInFlightExpired() throws Exception {
+        // given
+        ReflectionTestUtils.setField(idempotencyUtil, "inFlightSeconds", 1L);
+        String fingerprint = "POST /api/swaps:" + new ObjectMapper().writeValueAsString(Map.of("amount", "1"));
+        stringRedisTemplate.opsForValue().set("idempotency:anonymous:key-1",
+                "{\"fingerprint\":" + new ObjectMapper().writeValueAsString(fingerprint) + ",\"token\":\"dead\"}",
+                Duration.ofSeconds(1));
+
+        // when
+        ResponseEntity response = idempotencyUtil.execute("key-1", "POST /api/swaps", Map.of("amount", "1"), this::create);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(executedCount.get()).isEqualTo(1);
+    }
+
+    private ResponseEntity create() {
+        executedCount.incrementAndGet();
+        return new ResponseEntity(Map.of("id", 1), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,81 @@
+package OneCoin.Server.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ScheduledJobRunnerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LeaderElection leaderElection = mock(LeaderElection.class);
+    private final List<Runnable> pendingBatchJobs = new ArrayList<>();
+    private final ScheduledJobRunner scheduledJobRunner = new ScheduledJobRunner(
+            new SyncTaskExecutor(), pendingBatchJobs::add, meterRegistry, leaderElection);
+
+    @Test
+    @DisplayName("이전 실행이 끝나지 않았으면 이번 실행은 건너뛴다.")
+    void skipIfRunning() {
+        // given
+        AtomicInteger count = new AtomicInteger();
+        scheduledJobRunner.run("heavy", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(1), count::incrementAndGet);
+
+        // when
+        scheduledJobRunner.run("heavy", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(1), count::incrementAndGet);
+        pendingBatchJobs.forEach(Runnable::run);
+        scheduledJobRunner.run("heavy", ScheduledJobRunner.Pool.BATCH, Duration.ofSeconds(1), count::incrementAndGet);
+        pendingBatchJobs.get(1).run();
+
+        // then
+        assertThat(pendingBatchJobs.size()).isEqualTo(2);
+        assertThat(count.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("scheduled_job.skipped", "job", "heavy").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("실행 시간이 기대 시간을 넘으면 overrun 으로 기록하고, 실패해도 다음 실행은 가능하다.")
+    void overrunAndFailure() {
+        // when
+        scheduledJobRunner.run("push", ScheduledJobRunner.Pool.REALTIME, Duration.ZERO, () -> sleep(5));
+        scheduledJobRunner.run("push", ScheduledJobRunner.Pool.REALTIME, Duration.ofSeconds(1), () -> {
+            throw new IllegalStateException();
+        });
+        scheduledJobRunner.run("push", ScheduledJobRunner.Pool.REALTIME, Duration.ofSeconds(1), () -> { });
+
+        // then
+        assertThat(meterRegistry.counter("scheduled_job.overrun", "job", "push").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("scheduled_job.failed", "job", "push").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.timer("scheduled_job.duration", "job", "push").count()).isEqualTo(3L);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("leader 가 아니면 singleton 작업은 실행하지 않는다.")
+    void runOnLeader() {
+        // given
+        AtomicInteger count = new AtomicInteger();
+        given(leaderElection.isLeader()).willReturn(false, true);
+
+        // when
+        scheduledJobRunner.runOnLeader("singleton", ScheduledJobRunner.Pool.REALTIME, Duration.ofSeconds(1), count::incrementAndGet);
+        scheduledJobRunner.runOnLeader("singleton", ScheduledJobRunner.Pool.REALTIME, Duration.ofSeconds(1), count::incrementAndGet);
+
+        // then
+        assertThat(count.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,116 @@
+package OneCoin.Server.utils;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class UserLockUtilTest {
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private final UserLockUtil userLockUtil = new UserLockUtil(stringRedisTemplate, 10000);
+    private long counter;
+
+    @BeforeEach
+    void setUp() {
+        given(stringRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+    }
+
+    @Test
+    @DisplayName("같은 유저의 읽고-계산하고-저장하는 구간은 동시에 실행되지 않는다")
+    void executeWithLock() throws InterruptedException {
+        // given
+        int requestCount = 500;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        counter = 0;
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.execute(() -> {
+                try {
+                    userLockUtil.executeWithLock(1L, () -> {
+                        long read = counter;
+                        Thread.yield();
+                        counter = read + 1;
+                    });
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(counter).isEqualTo(requestCount);
+    }
+
+    @Test
+    @DisplayName("lock 안에서 반환한 값을 그대로 돌려준다")
+    void executeWithLockReturnsValue() {
+        // when
+        String result = userLockUtil.executeWithLock(1L, () -> "done");
+
+        // then
+        assertThat(result).isEqualTo("done");
+    }
+
+    @Test
+    @DisplayName("다른 서버가 lock 을 들고 있으면 대기 시간이 지난 뒤 실패하고, 이 서버의 lock 은 풀어 둔다")
+    void redisLockTimeout() {
+        // given
+        given(valueOperations.setIfAbsent(eq("user-lock:1"), anyString(), any(Duration.class))).willReturn(false);
+
+        // when, then
+        assertThatThrownBy(() -> userLockUtil.executeWithLock(1L, () -> "done"))
+                .isInstanceOf(BusinessLogicException.class);
+        given(valueOperations.setIfAbsent(eq("user-lock:1"), anyString(), any(Duration.class))).willReturn(true);
+        assertThat(userLockUtil.executeWithLock(1L, () -> "done")).isEqualTo("done");
+    }
+
+    @Test
+    @DisplayName("같은 유저의 lock 을 들고 다시 호출하면 Redis lock 을 새로 잡지 않고 실행한다")
+    void nestedExecuteWithLock() {
+        // when
+        String result = userLockUtil.executeWithLock(1L, () -> userLockUtil.executeWithLock(1L, () -> "nested"));
+
+        // then
+        assertThat(result).isEqualTo("nested");
+        verify(valueOperations, times(1)).setIfAbsent(eq("user-lock:1"), anyString(), any(Duration.class));
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("user-lock:1")), anyString());
+    }
+
+    @Test
+    @DisplayName("작업이 끝나면 Redis lock 을 token 으로 반납한다")
+    void releaseRedisLock() {
+        // when
+        userLockUtil.executeWithLock(1L, () -> "done");
+
+        // then
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("user-lock:1")), anyString());
+    }
+}